@@ -9,6 +9,7 @@ import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -72,6 +73,7 @@ public class MovieController implements MovieControllerInterface {
         final Integer parsedYear = inputProcessor.optionalParseYear(year);
         final Genre parsedGenre = inputProcessor.optionalParseGenre(genre);
 
+        requireCatalog();
         final Map<MovieFilterType, Object> filterStrategy = new HashMap<>();
         if (parsedTitle != null && !parsedTitle.isEmpty()) {
             filterStrategy.put(MovieFilterType.TITLE_KEYWORD, parsedTitle);
@@ -158,6 +160,7 @@ public class MovieController implements MovieControllerInterface {
      */
     @GetMapping("")
     public List<Movie> getAllMovies() {
+        requireCatalog();
         return model.getMovies();
     }
 
@@ -169,9 +172,30 @@ public class MovieController implements MovieControllerInterface {
      */
     @GetMapping("/{movieId}")
     public Movie getMovieById(@PathVariable final int movieId) {
+        requireCatalog();
         return model.getMovieById(movieId);
     }
 
+    /**
+     * Reports how far loading the movie catalog has progressed.
+     *
+     * @return The current warm-up status
+     */
+    @GetMapping("/status")
+    public WarmUpStatus getStatus() {
+        return model.getWarmUpStatus();
+    }
+
+    /**
+     * Rejects catalog reads while no catalog has been published and the model is not ready,
+     * so clients can tell an empty catalog from one that is not available yet.
+     */
+    private void requireCatalog() {
+        if (model.isCatalogUnavailable()) {
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Movie catalog is not available yet");
+        }
+    }
+
     /**
      * Exports movies in the specified format.
      *
@@ -0,0 +1,254 @@
+package com.moviefeaster.controller;
+
+import com.moviefeaster.service.PosterCache;
+import com.moviefeaster.service.PosterThumbnailer;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.CrossOrigin;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * PosterController serves poster images from the local poster cache, so clients do not
+ * fetch them from the third-party image server. Poster file names are content-addressed
+ * upstream, so responses may be cached by clients for a year. Downscaled variants are served
+ * under the same size paths TMDB uses, e.g. {@code /api/posters/w185/abc.jpg}.
+ */
+@RestController
+@RequestMapping("/api/posters")
+@CrossOrigin(origins = "http://localhost:3000") // Allow cross-origin requests from frontend
+public class PosterController {
+
+    /**
+     * Logger instance for logging upstream failures.
+     */
+    private static final Logger LOGGER = LoggerFactory.getLogger(PosterController.class);
+
+    /**
+     * Cache-Control value sent with every poster.
+     */
+    static final String CACHE_CONTROL = "public, max-age=31536000, immutable";
+
+    /**
+     * Cache-Control value sent when the original stands in for a variant not generated yet.
+     */
+    static final String CACHE_CONTROL_PENDING = "no-cache";
+
+    /**
+     * Request attribute set by Tomcat when the connector can send a file with sendfile.
+     */
+    static final String SENDFILE_SUPPORT = "org.apache.tomcat.sendfile.support";
+
+    /**
+     * Request attribute naming the file for Tomcat to send.
+     */
+    static final String SENDFILE_FILENAME = "org.apache.tomcat.sendfile.filename";
+
+    /**
+     * Request attribute holding the first byte of the file to send, as a Long.
+     */
+    static final String SENDFILE_START = "org.apache.tomcat.sendfile.start";
+
+    /**
+     * Request attribute holding the end of the range to send, exclusive, as a Long.
+     */
+    static final String SENDFILE_END = "org.apache.tomcat.sendfile.end";
+
+    /**
+     * Size path segments naming a width, as in TMDB image URLs.
+     */
+    private static final Pattern SIZE = Pattern.compile("w(\\d{1,4})|original");
+
+    /**
+     * The cache the posters are served from.
+     */
+    private final PosterCache cache;
+
+    /**
+     * The pipeline generating the downscaled variants.
+     */
+    private final PosterThumbnailer thumbnailer;
+
+    /**
+     * Constructs a new PosterController with the given cache and thumbnail pipeline.
+     * @param cache The poster cache to serve from
+     * @param thumbnailer The pipeline generating the variants
+     */
+    @Autowired
+    public PosterController(final PosterCache cache, final PosterThumbnailer thumbnailer) {
+        this.cache = cache;
+        this.thumbnailer = thumbnailer;
+    }
+
+    /**
+     * Serves a poster by its TMDB file name. Where the container supports it the file is handed
+     * to Tomcat's sendfile, which copies it from the page cache to the socket inside the kernel;
+     * otherwise it is copied to the response stream. A matching If-None-Match answers 304
+     * without a body.
+     *
+     * @param fileName    the poster's file name, e.g. {@code abc.jpg}
+     * @param ifNoneMatch ETags the client already has, if any
+     * @param request     the request, consulted for sendfile support
+     * @param response    the response to write the poster to
+     * @throws IOException if the poster cannot be written to the response
+     */
+    @GetMapping("/{fileName}")
+    public void getPoster(@PathVariable final String fileName,
+                          @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) final String ifNoneMatch,
+                          final HttpServletRequest request,
+                          final HttpServletResponse response) throws IOException {
+        serve(openOriginal(fileName), CACHE_CONTROL, ifNoneMatch, request, response);
+    }
+
+    /**
+     * Serves a poster at a size, as {@code w<width>} or {@code original}. A configured thumbnail
+     * width gets its downscaled variant; any other size, and any width the poster is no wider than,
+     * gets the original. Until a variant has been generated, or the poster's width is known, the
+     * original is served without long-lived caching and the variant is queued.
+     *
+     * @param size        the size, e.g. {@code w185}
+     * @param fileName    the poster's file name, e.g. {@code abc.jpg}
+     * @param ifNoneMatch ETags the client already has, if any
+     * @param request     the request, consulted for sendfile support
+     * @param response    the response to write the poster to
+     * @throws IOException if the poster cannot be written to the response
+     */
+    @GetMapping("/{size}/{fileName}")
+    public void getPosterVariant(@PathVariable final String size, @PathVariable final String fileName,
+                                 @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false)
+                                 final String ifNoneMatch,
+                                 final HttpServletRequest request,
+                                 final HttpServletResponse response) throws IOException {
+        final Matcher matcher = SIZE.matcher(size);
+        if (!matcher.matches()) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid poster size");
+        }
+        final int width = matcher.group(1) != null ? Integer.parseInt(matcher.group(1)) : 0;
+        if (!PosterThumbnailer.getWidths().contains(width)) {
+            serve(openOriginal(fileName), CACHE_CONTROL, ifNoneMatch, request, response);
+            return;
+        }
+        final PosterCache.Poster variant = cache.openVariant(fileName, width);
+        if (variant != null) {
+            serve(variant, CACHE_CONTROL, ifNoneMatch, request, response);
+            return;
+        }
+        final PosterCache.Poster original = openOriginal(fileName);
+        if (cache.fitsWidth(fileName, width)) {
+            serve(original, CACHE_CONTROL, ifNoneMatch, request, response);
+            return;
+        }
+        thumbnailer.submit(fileName);
+        serve(original, CACHE_CONTROL_PENDING, ifNoneMatch, request, response);
+    }
+
+    /**
+     * Open a poster from the cache, fetching it upstream if needed.
+     *
+     * @param fileName the poster's file name
+     * @return the open poster
+     * @throws ResponseStatusException 400 for an invalid name, 404 if the upstream does not have
+     *                                 the poster, 502 if it cannot be fetched
+     */
+    private PosterCache.Poster openOriginal(final String fileName) {
+        if (!PosterCache.isPosterFileName(fileName)) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid poster file name");
+        }
+        final PosterCache.Poster poster;
+        try {
+            poster = cache.open(fileName);
+        } catch (IOException e) {
+            LOGGER.error("Failed to fetch poster {}: {}", fileName, e.getMessage());
+            throw new ResponseStatusException(HttpStatus.BAD_GATEWAY, "Poster could not be fetched", e);
+        }
+        if (poster == null) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Poster not found");
+        }
+        return poster;
+    }
+
+    /**
+     * Write a poster with its ETag and caching headers, or answer 304 if the client's copy is current.
+     * The poster is closed afterwards.
+     *
+     * <p>With sendfile the body is sent by Tomcat after this method returns, from the file named
+     * in the request attributes. If the cache evicts the poster in between, that one response
+     * fails; the poster was just used, so it is the last the cache would evict. Without sendfile
+     * the file is copied with {@link FileChannel#transferTo} through the response stream, which
+     * the JDK buffers in user space since the stream is neither a file nor a socket.
+     *
+     * @param poster       the open poster
+     * @param cacheControl the Cache-Control value
+     * @param ifNoneMatch  ETags the client already has, if any
+     * @param request      the request, consulted for sendfile support
+     * @param response     the response to write to
+     * @throws IOException if the poster cannot be written to the response
+     */
+    private static void serve(final PosterCache.Poster poster, final String cacheControl, final String ifNoneMatch,
+                              final HttpServletRequest request, final HttpServletResponse response)
+            throws IOException {
+        try (poster) {
+            response.setHeader(HttpHeaders.ETAG, poster.getEtag());
+            response.setHeader(HttpHeaders.CACHE_CONTROL, cacheControl);
+            if (matches(ifNoneMatch, poster.getEtag())) {
+                response.setStatus(HttpStatus.NOT_MODIFIED.value());
+                return;
+            }
+            response.setStatus(HttpStatus.OK.value());
+            response.setContentType(poster.getContentType());
+            response.setContentLengthLong(poster.getSize());
+            if (Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORT))) {
+                request.setAttribute(SENDFILE_FILENAME, poster.getPath().toAbsolutePath().toString());
+                request.setAttribute(SENDFILE_START, 0L);
+                request.setAttribute(SENDFILE_END, poster.getSize());
+                return;
+            }
+            final FileChannel channel = poster.getChannel();
+            final WritableByteChannel out = Channels.newChannel(response.getOutputStream());
+            long position = 0;
+            while (position < poster.getSize()) {
+                final long sent = channel.transferTo(position, poster.getSize() - position, out);
+                if (sent <= 0) {
+                    break;
+                }
+                position += sent;
+            }
+        }
+    }
+
+    /**
+     * Check an If-None-Match header against an ETag, using the weak comparison the header calls for.
+     *
+     * @param ifNoneMatch the header value, possibly null
+     * @param etag        the current quoted ETag
+     * @return true if the client's copy is current
+     */
+    static boolean matches(final String ifNoneMatch, final String etag) {
+        if (ifNoneMatch == null) {
+            return false;
+        }
+        for (final String candidate : ifNoneMatch.split(",")) {
+            final String tag = candidate.trim();
+            if ("*".equals(tag) || etag.equals(tag.startsWith("W/") ? tag.substring(2) : tag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,124 @@
+package com.moviefeaster.model;
+
+import java.util.List;
+
+/**
+ * Class to hold one published version of the movie catalog.
+ * A catalog never changes once built: loads and refreshes build the next version off to
+ * the side and publish it as a whole, so a reader holding a catalog always sees one complete
+ * list. User comments and ratings are kept on the movies themselves and carried across versions.
+ * Each catalog carries a {@link ColumnarCatalog} of its movies for filtering and sorting.
+ */
+public final class Catalog {
+
+    /** The catalog with no movies, before anything is loaded. */
+    private static final Catalog EMPTY = new Catalog(0, List.of());
+
+    /** Version number, increasing with every published catalog. */
+    private final long version;
+
+    /** The movies in catalog order. */
+    private final List<Movie> movies;
+
+    /** Column-oriented copy of the movies, also used to find them by ID. */
+    private final ColumnarCatalog columns;
+
+    /**
+     * Constructs a catalog.
+     *
+     * @param version version number of the catalog
+     * @param movies  the movies in catalog order; the list is copied
+     */
+    public Catalog(final long version, final List<Movie> movies) {
+        this(version, movies, null);
+    }
+
+    /**
+     * Constructs a catalog, building its columns incrementally from a previous version.
+     *
+     * @param version  version number of the catalog
+     * @param movies   the movies in catalog order; the list is copied
+     * @param previous the previous version, or null
+     */
+    private Catalog(final long version, final List<Movie> movies, final Catalog previous) {
+        this.version = version;
+        this.movies = List.copyOf(movies);
+        this.columns = new ColumnarCatalog(this.movies, previous != null ? previous.columns : null);
+    }
+
+    /**
+     * Get the catalog with no movies.
+     *
+     * @return the empty catalog, version 0
+     */
+    public static Catalog empty() {
+        return EMPTY;
+    }
+
+    /**
+     * Build the next version of this catalog.
+     *
+     * @param nextMovies the movies of the next version
+     * @return a catalog with the next version number
+     */
+    public Catalog next(final List<Movie> nextMovies) {
+        return new Catalog(version + 1, nextMovies, this);
+    }
+
+    /**
+     * Gets the version number.
+     *
+     * @return the version number, 0 for the empty catalog
+     */
+    public long getVersion() {
+        return version;
+    }
+
+    /**
+     * Gets the movies in catalog order.
+     *
+     * @return an unmodifiable list of the movies
+     */
+    public List<Movie> getMovies() {
+        return movies;
+    }
+
+    /**
+     * Look up a movie by ID in constant time through the catalog's primary-key index.
+     * For a repeated ID the first movie in catalog order is found.
+     *
+     * @param movieId the movie ID
+     * @return the movie, or null if it is not in the catalog
+     */
+    public Movie getMovie(final int movieId) {
+        final int row = columns.rowOf(movieId);
+        return row >= 0 ? columns.getMovie(row) : null;
+    }
+
+    /**
+     * Gets the column-oriented read model of the movies, with rows in catalog order.
+     *
+     * @return the columns
+     */
+    public ColumnarCatalog getColumns() {
+        return columns;
+    }
+
+    /**
+     * Gets the number of movies.
+     *
+     * @return the number of movies
+     */
+    public int size() {
+        return movies.size();
+    }
+
+    /**
+     * Check whether the catalog has no movies.
+     *
+     * @return true if there are no movies
+     */
+    public boolean isEmpty() {
+        return movies.isEmpty();
+    }
+}
@@ -0,0 +1,18 @@
+package com.moviefeaster.model;
+
+/**
+ * Enum representing the loading state of the movie catalog.
+ */
+public enum CatalogState {
+    /** Loading has not started yet. */
+    COLD,
+
+    /** Movies are being fetched from the API. */
+    WARMING,
+
+    /** The catalog is loaded and being served. */
+    READY,
+
+    /** The last load failed; whatever was loaded before is still served. */
+    FAILED
+}
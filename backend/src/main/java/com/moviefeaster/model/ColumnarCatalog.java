@@ -0,0 +1,617 @@
+package com.moviefeaster.model;
+
+import com.moviefeaster.utils.IntIntMap;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.IntPredicate;
+
+/**
+ * Column-oriented read model of a catalog, built once alongside its movie list.
+ * Row {@code i} describes the {@code i}-th movie of the catalog. Each attribute is held in
+ * its own primitive array, so a filter reads one contiguous column front to back instead of
+ * chasing a pointer per movie, and a sort compares array slots rather than getters.
+ * Directors and cast members are dictionary-encoded: every distinct name gets an int ID,
+ * and name filters are answered by a {@link PeopleIndex} over the dictionary.
+ * Rows are found by movie ID through a primitive {@link IntIntMap}, which is never written
+ * after construction and so can be read by any number of threads.
+ *
+ * <p>The columns never change after construction. In-app ratings keep arriving while a catalog
+ * is served, so they have no column: filters and sorts read each movie's
+ * {@link RatingAggregate}, whose average takes constant time, and always see its latest ratings.
+ */
+public final class ColumnarCatalog {
+
+    /** The movies, one per row. */
+    private final Movie[] movies;
+
+    /** Movie ID of each row. */
+    private final int[] ids;
+
+    /** Release year of each row. */
+    private final int[] years;
+
+    /** TMDB rating of each row. */
+    private final double[] ratings;
+
+    /** Genres of each row as a mask, see {@link Genre#bit()}. */
+    private final long[] genreMasks;
+
+    /** Lower-case title of each row, empty for none. */
+    private final String[] titles;
+
+    /** Trigram index over {@link #titles} answering title keyword queries. */
+    private final TitleIndex titleIndex;
+
+    /** Index of the directors and cast answering partial-name queries. */
+    private final PeopleIndex peopleIndex;
+
+    /** Lower-case name of each people ID. */
+    private final String[] names;
+
+    /** Start of each row's directors in {@link #directorIds}; one more entry than there are rows. */
+    private final int[] directorOffsets;
+
+    /** People IDs of the directors of all rows, row after row. */
+    private final int[] directorIds;
+
+    /** Start of each row's cast in {@link #castIds}; one more entry than there are rows. */
+    private final int[] castOffsets;
+
+    /** People IDs of the cast of all rows, row after row. */
+    private final int[] castIds;
+
+    /** Row of each movie ID, -1 for none; the first row wins for a repeated ID. */
+    private final IntIntMap rowsById;
+
+    /**
+     * Compares two rows.
+     */
+    @FunctionalInterface
+    private interface RowComparator {
+        /**
+         * Compare two rows.
+         *
+         * @param left  the first row
+         * @param right the second row
+         * @return negative, zero or positive as the first row sorts before, with or after the second
+         */
+        int compare(int left, int right);
+    }
+
+    /**
+     * Builds the columns of a list of movies.
+     *
+     * @param movies the movies in row order
+     */
+    public ColumnarCatalog(final List<Movie> movies) {
+        this(movies, null);
+    }
+
+    /**
+     * Builds the columns of a list of movies, reusing the title trigrams of the columns of the
+     * previous catalog version for titles that did not change.
+     *
+     * @param movies   the movies in row order
+     * @param previous the columns of the previous catalog version, or null
+     */
+    public ColumnarCatalog(final List<Movie> movies, final ColumnarCatalog previous) {
+        final int rows = movies.size();
+        this.movies = movies.toArray(new Movie[0]);
+        this.ids = new int[rows];
+        this.years = new int[rows];
+        this.ratings = new double[rows];
+        this.genreMasks = new long[rows];
+        this.titles = new String[rows];
+        this.directorOffsets = new int[rows + 1];
+        this.castOffsets = new int[rows + 1];
+        this.rowsById = new IntIntMap(rows, -1);
+
+        final Map<String, Integer> dictionary = new HashMap<>();
+        final List<String> nameList = new ArrayList<>();
+        final IdBuffer directorBuffer = new IdBuffer(rows);
+        final IdBuffer castBuffer = new IdBuffer(rows * 4);
+        for (int row = 0; row < rows; row++) {
+            final Movie movie = this.movies[row];
+            ids[row] = movie.getMovieId();
+            years[row] = movie.getYear();
+            ratings[row] = movie.getRating();
+            genreMasks[row] = movie.getGenreMask();
+            titles[row] = movie.getTitle() != null ? movie.getTitle().toLowerCase(Locale.ROOT) : "";
+            rowsById.putIfAbsent(movie.getMovieId(), row);
+
+            encode(movie.getDirectors(), dictionary, nameList, directorBuffer);
+            directorOffsets[row + 1] = directorBuffer.size;
+            encode(movie.getCastings(), dictionary, nameList, castBuffer);
+            castOffsets[row + 1] = castBuffer.size;
+        }
+        this.directorIds = directorBuffer.toArray();
+        this.castIds = castBuffer.toArray();
+        this.names = nameList.toArray(new String[0]);
+        this.titleIndex = new TitleIndex(titles, previous != null ? previous.titleIndex : null);
+        this.peopleIndex = new PeopleIndex(names, directorOffsets, directorIds, castOffsets, castIds);
+    }
+
+    /**
+     * Gets the number of rows.
+     *
+     * @return the number of rows
+     */
+    public int size() {
+        return movies.length;
+    }
+
+    /**
+     * Get the movie of a row.
+     *
+     * @param row the row
+     * @return the movie
+     */
+    public Movie getMovie(final int row) {
+        return movies[row];
+    }
+
+    /**
+     * Get the movie ID of a row.
+     *
+     * @param row the row
+     * @return the movie ID
+     */
+    public int getId(final int row) {
+        return ids[row];
+    }
+
+    /**
+     * Look up the row of a movie ID.
+     *
+     * @param movieId the movie ID
+     * @return the row, or -1 if no row has the ID
+     */
+    public int rowOf(final int movieId) {
+        return rowsById.get(movieId);
+    }
+
+    /**
+     * Gets the number of distinct director and cast names.
+     *
+     * @return the size of the people dictionary
+     */
+    public int getPeopleCount() {
+        return names.length;
+    }
+
+    /**
+     * Get every row.
+     *
+     * @return a new set with every row
+     */
+    public BitSet allRows() {
+        final BitSet result = new BitSet(movies.length);
+        result.set(0, movies.length);
+        return result;
+    }
+
+    /**
+     * Find the rows whose title contains a keyword.
+     *
+     * @param keyword the keyword in lower case
+     * @return the matching rows
+     */
+    public BitSet titleContains(final String keyword) {
+        return titleIndex.contains(keyword);
+    }
+
+    /**
+     * Find the rows among some rows whose title contains a keyword.
+     *
+     * @param keyword the keyword in lower case
+     * @param within  the rows to consider, or null for every row
+     * @return the matching rows
+     */
+    public BitSet titleContains(final String keyword, final BitSet within) {
+        return titleIndex.contains(keyword, within);
+    }
+
+    /**
+     * Estimate how many rows have a title containing a keyword.
+     *
+     * @param keyword the keyword in lower case
+     * @return the most rows that can match
+     */
+    public int estimateTitleContains(final String keyword) {
+        return titleIndex.estimate(keyword);
+    }
+
+    /**
+     * Find the rows whose title equals a title, ignoring case.
+     *
+     * @param title the title in lower case
+     * @return the matching rows
+     */
+    public BitSet titleEquals(final String title) {
+        return titleEquals(title, null);
+    }
+
+    /**
+     * Find the rows among some rows whose title equals a title, ignoring case.
+     *
+     * @param title  the title in lower case
+     * @param within the rows to test, or null for every row
+     * @return the matching rows
+     */
+    public BitSet titleEquals(final String title, final BitSet within) {
+        return select(within, row -> movies[row].getTitle() != null && titles[row].equals(title));
+    }
+
+    /**
+     * Find the rows with a director whose name contains a keyword.
+     *
+     * @param keyword the keyword in lower case
+     * @return the matching rows
+     */
+    public BitSet directorContains(final String keyword) {
+        return peopleIndex.directorsContaining(keyword);
+    }
+
+    /**
+     * Estimate how many rows have a director whose name contains a keyword.
+     *
+     * @param keyword the keyword in lower case
+     * @return the most rows that can match
+     */
+    public int estimateDirectorContains(final String keyword) {
+        return peopleIndex.estimateDirectors(keyword);
+    }
+
+    /**
+     * Find the rows with a cast member whose name contains a keyword.
+     *
+     * @param keyword the keyword in lower case
+     * @return the matching rows
+     */
+    public BitSet castContains(final String keyword) {
+        return peopleIndex.castContaining(keyword);
+    }
+
+    /**
+     * Estimate how many rows have a cast member whose name contains a keyword.
+     *
+     * @param keyword the keyword in lower case
+     * @return the most rows that can match
+     */
+    public int estimateCastContains(final String keyword) {
+        return peopleIndex.estimateCast(keyword);
+    }
+
+    /**
+     * Find the rows with at least one of a set of genres.
+     *
+     * @param mask the genres, one bit per {@link Genre} ordinal
+     * @return the matching rows
+     */
+    public BitSet genreAny(final long mask) {
+        return genreAny(mask, null);
+    }
+
+    /**
+     * Find the rows among some rows with at least one of a set of genres.
+     *
+     * @param mask   the genres, one bit per {@link Genre} ordinal
+     * @param within the rows to test, or null for every row
+     * @return the matching rows
+     */
+    public BitSet genreAny(final long mask, final BitSet within) {
+        return select(within, row -> (genreMasks[row] & mask) != 0);
+    }
+
+    /**
+     * Find the rows with every one of a set of genres.
+     *
+     * @param mask the genres, one bit per {@link Genre} ordinal
+     * @return the matching rows
+     */
+    public BitSet genreAll(final long mask) {
+        return genreAll(mask, null);
+    }
+
+    /**
+     * Find the rows among some rows with every one of a set of genres.
+     *
+     * @param mask   the genres, one bit per {@link Genre} ordinal
+     * @param within the rows to test, or null for every row
+     * @return the matching rows
+     */
+    public BitSet genreAll(final long mask, final BitSet within) {
+        return select(within, row -> (genreMasks[row] & mask) == mask);
+    }
+
+    /**
+     * Find the rows released within a year range.
+     *
+     * @param startYear the first year, inclusive
+     * @param endYear   the last year, inclusive
+     * @return the matching rows
+     */
+    public BitSet yearBetween(final int startYear, final int endYear) {
+        return yearBetween(startYear, endYear, null);
+    }
+
+    /**
+     * Find the rows among some rows released within a year range.
+     *
+     * @param startYear the first year, inclusive
+     * @param endYear   the last year, inclusive
+     * @param within    the rows to test, or null for every row
+     * @return the matching rows
+     */
+    public BitSet yearBetween(final int startYear, final int endYear, final BitSet within) {
+        return select(within, row -> years[row] >= startYear && years[row] <= endYear);
+    }
+
+    /**
+     * Find the rows with a TMDB rating within a range.
+     *
+     * @param minRating the lowest rating, inclusive
+     * @param maxRating the highest rating, inclusive
+     * @return the matching rows
+     */
+    public BitSet ratingBetween(final double minRating, final double maxRating) {
+        return ratingBetween(minRating, maxRating, null);
+    }
+
+    /**
+     * Find the rows among some rows with a TMDB rating within a range.
+     *
+     * @param minRating the lowest rating, inclusive
+     * @param maxRating the highest rating, inclusive
+     * @param within    the rows to test, or null for every row
+     * @return the matching rows
+     */
+    public BitSet ratingBetween(final double minRating, final double maxRating, final BitSet within) {
+        return select(within, row -> ratings[row] >= minRating && ratings[row] <= maxRating);
+    }
+
+    /**
+     * Find the rows with an average in-app rating of at least a threshold.
+     *
+     * @param minRating the lowest in-app rating, inclusive
+     * @return the matching rows
+     */
+    public BitSet inAppRatingAtLeast(final double minRating) {
+        return inAppRatingAtLeast(minRating, null);
+    }
+
+    /**
+     * Find the rows among some rows with an average in-app rating of at least a threshold.
+     *
+     * @param minRating the lowest in-app rating, inclusive
+     * @param within    the rows to test, or null for every row
+     * @return the matching rows
+     */
+    public BitSet inAppRatingAtLeast(final double minRating, final BitSet within) {
+        return select(within, row -> movies[row].getInAppRatingStats().getAverage() >= minRating);
+    }
+
+    /**
+     * Find the rows with a comment containing a keyword. Comments change after the catalog is
+     * built, so they are read from the movies rather than a column.
+     *
+     * @param keyword the keyword in lower case
+     * @return the matching rows
+     */
+    public BitSet commentContains(final String keyword) {
+        return commentContains(keyword, null);
+    }
+
+    /**
+     * Find the rows among some rows with a comment containing a keyword.
+     *
+     * @param keyword the keyword in lower case
+     * @param within  the rows to test, or null for every row
+     * @return the matching rows
+     */
+    public BitSet commentContains(final String keyword, final BitSet within) {
+        return select(within, row -> {
+            for (final String comment : movies[row].getComments()) {
+                if (comment.toLowerCase(Locale.ROOT).contains(keyword)) {
+                    return true;
+                }
+            }
+            return false;
+        });
+    }
+
+    /**
+     * Get the movies of a set of rows, in row order.
+     *
+     * @param rows the rows
+     * @return a new list of the movies
+     */
+    public List<Movie> toMovies(final BitSet rows) {
+        final List<Movie> result = new ArrayList<>(rows.cardinality());
+        for (int row = rows.nextSetBit(0); row >= 0; row = rows.nextSetBit(row + 1)) {
+            result.add(movies[row]);
+        }
+        return result;
+    }
+
+    /**
+     * Sort movies of this catalog on its columns. Ties keep their order, as with
+     * {@link java.util.Collections#sort}.
+     *
+     * @param list     the movies to sort
+     * @param sortType the sort order
+     * @return a new sorted list, or null if a movie is not a row of this catalog
+     */
+    public List<Movie> sort(final List<Movie> list, final MovieSorterType sortType) {
+        final int[] rows = new int[list.size()];
+        for (int i = 0; i < rows.length; i++) {
+            final Movie movie = list.get(i);
+            final int row = rowOf(movie.getMovieId());
+            if (row < 0 || movies[row] != movie) {
+                return null;
+            }
+            rows[i] = row;
+        }
+
+        // In-app ratings keep changing, so each average is read once for a consistent order.
+        final boolean byInAppRating = sortType == MovieSorterType.INAPP_RATING_ASC
+                || sortType == MovieSorterType.INAPP_RATING_DESC;
+        final double[] inAppRatings = byInAppRating ? new double[movies.length] : null;
+        if (byInAppRating) {
+            for (final int row : rows) {
+                inAppRatings[row] = movies[row].getInAppRatingStats().getAverage();
+            }
+        }
+        final RowComparator comparator = switch (sortType) {
+            case TITLE_ASC -> (a, b) -> titles[a].compareTo(titles[b]);
+            case TITLE_DESC -> (a, b) -> String.CASE_INSENSITIVE_ORDER.compare(
+                    movies[b].getTitle(), movies[a].getTitle());
+            case YEAR_ASC -> (a, b) -> Integer.compare(years[a], years[b]);
+            case YEAR_DESC -> (a, b) -> Integer.compare(years[b], years[a]);
+            case RATING_ASC -> (a, b) -> Double.compare(ratings[a], ratings[b]);
+            case RATING_DESC -> (a, b) -> Double.compare(ratings[b], ratings[a]);
+            case INAPP_RATING_ASC -> (a, b) -> Double.compare(inAppRatings[a], inAppRatings[b]);
+            case INAPP_RATING_DESC -> (a, b) -> Double.compare(inAppRatings[b], inAppRatings[a]);
+        };
+        mergeSort(rows, new int[rows.length], 0, rows.length, comparator);
+
+        final List<Movie> result = new ArrayList<>(rows.length);
+        for (final int row : rows) {
+            result.add(movies[row]);
+        }
+        return result;
+    }
+
+    /**
+     * Test rows in ascending order: every row front to back, or only the given ones, so a scan
+     * behind a selective filter touches just the rows that are still candidates.
+     *
+     * @param within the rows to test, or null for every row
+     * @param test   the test of a row
+     * @return the rows passing the test
+     */
+    private BitSet select(final BitSet within, final IntPredicate test) {
+        final BitSet result = new BitSet(movies.length);
+        if (within == null) {
+            for (int row = 0; row < movies.length; row++) {
+                if (test.test(row)) {
+                    result.set(row);
+                }
+            }
+        } else {
+            for (int row = within.nextSetBit(0); row >= 0 && row < movies.length; row = within.nextSetBit(row + 1)) {
+                if (test.test(row)) {
+                    result.set(row);
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Append the people IDs of a list of names, adding new names to the dictionary.
+     *
+     * @param people     the names, possibly null or holding nulls
+     * @param dictionary the ID of each lower-case name seen so far
+     * @param nameList   the lower-case names by ID
+     * @param buffer     the buffer to append the IDs to
+     */
+    private static void encode(final List<String> people, final Map<String, Integer> dictionary,
+                               final List<String> nameList, final IdBuffer buffer) {
+        if (people == null) {
+            return;
+        }
+        for (final String person : people) {
+            if (person != null) {
+                final String name = person.toLowerCase(Locale.ROOT);
+                Integer id = dictionary.get(name);
+                if (id == null) {
+                    id = nameList.size();
+                    dictionary.put(name, id);
+                    nameList.add(name);
+                }
+                buffer.add(id);
+            }
+        }
+    }
+
+    /**
+     * Stable merge sort of a range of rows.
+     *
+     * @param rows       the rows, sorted in place
+     * @param scratch    scratch space as long as the rows
+     * @param from       first index, inclusive
+     * @param to         last index, exclusive
+     * @param comparator the row order
+     */
+    private static void mergeSort(final int[] rows, final int[] scratch, final int from, final int to,
+                                  final RowComparator comparator) {
+        if (to - from < 2) {
+            return;
+        }
+        final int middle = (from + to) >>> 1;
+        mergeSort(rows, scratch, from, middle, comparator);
+        mergeSort(rows, scratch, middle, to, comparator);
+        if (comparator.compare(rows[middle - 1], rows[middle]) <= 0) {
+            return;
+        }
+        System.arraycopy(rows, from, scratch, from, to - from);
+        int left = from;
+        int right = middle;
+        for (int i = from; i < to; i++) {
+            if (right >= to || left < middle && comparator.compare(scratch[left], scratch[right]) <= 0) {
+                rows[i] = scratch[left++];
+            } else {
+                rows[i] = scratch[right++];
+            }
+        }
+    }
+
+    /**
+     * Growable array of people IDs used while building the columns.
+     */
+    private static final class IdBuffer {
+
+        /** The IDs; only the first {@link #size} are used. */
+        private int[] values;
+
+        /** Number of IDs appended. */
+        private int size;
+
+        /**
+         * Constructs an empty buffer.
+         *
+         * @param capacity initial capacity
+         */
+        IdBuffer(final int capacity) {
+            this.values = new int[Math.max(16, capacity)];
+        }
+
+        /**
+         * Append an ID.
+         *
+         * @param value the ID
+         */
+        void add(final int value) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = value;
+        }
+
+        /**
+         * Copy the appended IDs.
+         *
+         * @return an array of exactly the appended IDs
+         */
+        int[] toArray() {
+            return Arrays.copyOf(values, size);
+        }
+    }
+}
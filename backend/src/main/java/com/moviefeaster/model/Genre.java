@@ -1,7 +1,16 @@
 package com.moviefeaster.model;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
 /**
  * Enum to represent genre. It conforms with the genre ID that movie data provided by api.
+ * A set of genres can be held as a mask with one bit per genre, see {@link #bit()};
+ * there are fewer genres than bits in a long.
  */
 public enum Genre {
     /** Action genre with ID 28. */
@@ -64,6 +73,23 @@ public enum Genre {
     /** The unique TMDb genre ID associated with this genre. */
     private final int genreId;
 
+    /** Genres by TMDb genre ID. */
+    private static final Map<Integer, Genre> BY_ID = new HashMap<>();
+
+    /** Genres by enum name. */
+    private static final Map<String, Genre> BY_NAME = new HashMap<>();
+
+    /** Lower-case names, indexed by ordinal. */
+    private static final String[] LOWER_NAMES = new String[values().length];
+
+    static {
+        for (final Genre genre : values()) {
+            BY_ID.put(genre.genreId, genre);
+            BY_NAME.put(genre.name(), genre);
+            LOWER_NAMES[genre.ordinal()] = genre.toString().toLowerCase(Locale.ROOT);
+        }
+    }
+
     /**
      * Constructs an enum constant with the given genre ID.
      * The ID conforms with TMDB database genre ID.
@@ -90,14 +116,7 @@ public enum Genre {
      * @return the corresponding enum, or null if no match is found
      */
     public static Genre fromId(final int genreId) {
-        Genre result = null;
-        for (final Genre genre : values()) {
-            if (genre.genreId == genreId) {
-                result = genre;
-                break;
-            }
-        }
-        return result;
+        return BY_ID.get(genreId);
     }
 
     /**
@@ -108,13 +127,68 @@ public enum Genre {
      * @return the corresponding enum, or null if no match is found.
      */
     public static Genre fromName(final String name) {
-        Genre result = null;
-        for (final Genre genre : values()) {
-            if (genre.name().equals(name)) {
-                result = genre;
-                break;
+        return name != null ? BY_NAME.get(name) : null;
+    }
+
+    /**
+     * Returns the bit standing for this genre in a genre mask.
+     *
+     * @return a long with only this genre's bit set
+     */
+    public long bit() {
+        return 1L << ordinal();
+    }
+
+    /**
+     * Builds the mask of a collection of genres.
+     *
+     * @param genres the genres, possibly null or holding nulls
+     * @return the mask with the bit of every genre set
+     */
+    public static long maskOf(final Collection<Genre> genres) {
+        long mask = 0;
+        if (genres != null) {
+            for (final Genre genre : genres) {
+                if (genre != null) {
+                    mask |= genre.bit();
+                }
+            }
+        }
+        return mask;
+    }
+
+    /**
+     * Lists the genres of a mask.
+     *
+     * @param mask the genre mask
+     * @return the genres whose bit is set, in declaration order
+     */
+    public static List<Genre> fromMask(final long mask) {
+        final Genre[] all = values();
+        final List<Genre> genres = new ArrayList<>(Long.bitCount(mask));
+        for (long rest = mask; rest != 0; rest &= rest - 1) {
+            final int ordinal = Long.numberOfTrailingZeros(rest);
+            if (ordinal < all.length) {
+                genres.add(all[ordinal]);
+            }
+        }
+        return genres;
+    }
+
+    /**
+     * Builds the mask of the genres whose name contains a keyword, ignoring case.
+     *
+     * @param keyword the keyword
+     * @return the mask of the matching genres, 0 if none match
+     */
+    public static long maskMatching(final String keyword) {
+        final String lower = keyword.toLowerCase(Locale.ROOT);
+        long mask = 0;
+        for (int ordinal = 0; ordinal < LOWER_NAMES.length; ordinal++) {
+            if (LOWER_NAMES[ordinal].contains(lower)) {
+                mask |= 1L << ordinal;
             }
         }
-        return result;
+        return mask;
     }
 }
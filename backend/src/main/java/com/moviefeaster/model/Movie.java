@@ -1,7 +1,10 @@
 package com.moviefeaster.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
 
 /**
  * Class to store movies' detailed meta data.
@@ -26,21 +29,36 @@ public final class Movie {
     /** List of genres the movie belongs to. */
     private List<Genre> genres;
 
+    /** The genres as a mask, see {@link Genre#bit()}; derived whenever the genres are set. */
+    private long genreMask;
+
     /** String of overview in movie. */
     private String overview;
 
     /** List of actors or actresses in the movie. */
     private List<String> castings;
 
-    /** User-submitted comments about the movie. */
+    /**
+     * User-submitted comments about the movie. Copy-on-write, so the snapshot writer and the
+     * filters can iterate it while request threads add comments.
+     */
     private List<String> comments;
 
-    /** In-App rating information provided by users. */
-    private List<Double> inAppRating;
+    /** In-App rating information provided by users, kept as running totals. */
+    private RatingAggregate inAppRating;
 
     /** URL movie's poster. */
     private String imgUrl;
 
+    /** Smaller poster variants, each as {@code "<url> <width>w"} like an HTML srcset entry. */
+    private List<String> posterSrcset;
+
+    /** Running time in minutes, 0 if unknown. */
+    private int runtime;
+
+    /** ISO 639-1 code of the original language, empty if unknown. */
+    private String originalLanguage;
+
     /**
      * Constructs a Movie instance using the values provided by the {@link Builder}.
      * Applies default values and validation to safeguard against missing or invalid data.
@@ -54,11 +72,15 @@ public final class Movie {
         this.year = builder.year > 1800 ? builder.year : 0;
         this.rating = builder.rating >= 0.0 && builder.rating <= 10_000.0 ? builder.rating : 0.0;
         this.genres = builder.genres != null ? builder.genres : new ArrayList<>();
+        this.genreMask = Genre.maskOf(this.genres);
         this.overview = builder.overview != null && !builder.overview.isBlank() ? builder.overview : "No Overview";
         this.castings = builder.castings != null ? builder.castings : new ArrayList<>();
         this.imgUrl = builder.imgUrl != null ? builder.imgUrl : "";
-        this.comments = new ArrayList<>();
-        this.inAppRating = new ArrayList<>();
+        this.posterSrcset = builder.posterSrcset != null ? builder.posterSrcset : new ArrayList<>();
+        this.runtime = Math.max(0, builder.runtime);
+        this.originalLanguage = builder.originalLanguage != null ? builder.originalLanguage : "";
+        this.comments = new CopyOnWriteArrayList<>();
+        this.inAppRating = new RatingAggregate();
     }
 
     /**
@@ -93,6 +115,15 @@ public final class Movie {
         /** URL of the movie's poster image. */
         private String imgUrl;
 
+        /** Poster variants as srcset entries. */
+        private List<String> posterSrcset;
+
+        /** Running time in minutes. */
+        private int runtime;
+
+        /** ISO 639-1 code of the original language. */
+        private String originalLanguage;
+
         /**
          * Sets the movie ID.
          *
@@ -192,6 +223,39 @@ public final class Movie {
             return this;
         }
 
+        /**
+         * Sets the poster variants of the movie.
+         *
+         * @param posterSrcset srcset entries such as {@code "https://.../w185/abc.jpg 185w"}
+         * @return the current Builder instance
+         */
+        public Builder posterSrcset(List<String> posterSrcset) {
+            this.posterSrcset = posterSrcset;
+            return this;
+        }
+
+        /**
+         * Sets the running time of the movie.
+         *
+         * @param runtime the running time in minutes
+         * @return the current Builder instance
+         */
+        public Builder runtime(int runtime) {
+            this.runtime = runtime;
+            return this;
+        }
+
+        /**
+         * Sets the original language of the movie.
+         *
+         * @param originalLanguage the ISO 639-1 language code
+         * @return the current Builder instance
+         */
+        public Builder originalLanguage(String originalLanguage) {
+            this.originalLanguage = originalLanguage;
+            return this;
+        }
+
         /**
          * Builds and returns a {@link Movie} instance using the current state of the Builder.
          * Fields are validated and default values are applied where necessary.
@@ -316,6 +380,18 @@ public final class Movie {
      */
     public void setGenres(final List<Genre> genres) {
         this.genres = genres != null ? genres : new ArrayList<>();
+        this.genreMask = Genre.maskOf(this.genres);
+    }
+
+    /**
+     * Gets the genres of the movie as a mask.
+     * Not part of the exported data, which lists the genres.
+     *
+     * @return the mask with the bit of every genre of the movie set
+     */
+    @JsonIgnore
+    public long getGenreMask() {
+        return genreMask;
     }
 
     /**
@@ -366,10 +442,10 @@ public final class Movie {
     /**
      * Reset the list of user comments.
      *
-     * @param comments A list of comments. Null list will be replaced with an empty list.
+     * @param comments A list of comments, which is copied. Null list will be replaced with an empty list.
      */
     public void setComments(final List<String> comments) {
-        this.comments = comments != null ? comments : new ArrayList<>();
+        this.comments = comments != null ? new CopyOnWriteArrayList<>(comments) : new CopyOnWriteArrayList<>();
     }
 
     /**
@@ -382,38 +458,52 @@ public final class Movie {
     }
 
     /**
-     * Gets the list of in-app ratings.
+     * Gets the average in-app rating.
      *
-     * @return A list of in-app ratings.
+     * @return The average of the in-app ratings, 0.0 without ratings.
      */
     public double getInAppRating() {
-        double average = 0.0;
-        if (!inAppRating.isEmpty()) {
-            double sum = 0.0;
-            for (final Double rating : inAppRating) {
-                sum += rating;
-            }
-            average = sum / inAppRating.size();
-        }
-        return average;
+        return inAppRating.getAverage();
+    }
+
+    /**
+     * Gets the running totals of the in-app ratings submitted for the movie.
+     * Not part of the exported data, which carries the average only.
+     *
+     * @return The in-app rating totals.
+     */
+    @JsonIgnore
+    public RatingAggregate getInAppRatingStats() {
+        return inAppRating;
     }
 
     /**
-     * Resets the list of in-app ratings.
+     * Resets the in-app ratings to the given totals.
+     *
+     * @param stats The in-app rating totals. Null value will be replaced with no ratings.
+     */
+    public void setInAppRatingStats(final RatingAggregate stats) {
+        this.inAppRating = stats != null ? stats : new RatingAggregate();
+    }
+
+    /**
+     * Resets the in-app ratings to a list of ratings.
      *
      * @param ratings A list of in-app ratings. Null list will be replaced with an empty list.
      */
     public void setInAppRating(final List<Double> ratings) {
-        this.inAppRating = ratings != null ? ratings : new ArrayList<>();
+        this.inAppRating = RatingAggregate.of(ratings);
     }
 
     /**
-     * Add single rating to the list of in-app ratings.
+     * Add single rating to the in-app ratings.
      *
-     * @param rating Rating to add.
+     * @param rating Rating to add. Null is ignored.
      */
     public void addInAppRating(final Double rating) {
-        this.inAppRating.add(rating);
+        if (rating != null) {
+            this.inAppRating.add(rating);
+        }
     }
 
     /**
@@ -434,6 +524,79 @@ public final class Movie {
         this.imgUrl = imgUrl != null ? imgUrl : "";
     }
 
+    /**
+     * Gets the poster variants of the movie, smallest first, for building an HTML srcset.
+     *
+     * @return srcset entries such as {@code "https://.../w185/abc.jpg 185w"}
+     */
+    public List<String> getPosterSrcset() {
+        return posterSrcset;
+    }
+
+    /**
+     * Sets the poster variants of the movie.
+     *
+     * @param posterSrcset The srcset entries. Null value will be replaced with an empty list.
+     */
+    public void setPosterSrcset(final List<String> posterSrcset) {
+        this.posterSrcset = posterSrcset != null ? posterSrcset : new ArrayList<>();
+    }
+
+    /**
+     * Gets the running time of the movie.
+     *
+     * @return The running time in minutes, 0 if unknown.
+     */
+    public int getRuntime() {
+        return runtime;
+    }
+
+    /**
+     * Sets the running time of the movie.
+     *
+     * @param runtime The running time in minutes. Negative values are replaced with 0.
+     */
+    public void setRuntime(final int runtime) {
+        this.runtime = Math.max(0, runtime);
+    }
+
+    /**
+     * Gets the original language of the movie.
+     *
+     * @return The ISO 639-1 language code, empty if unknown.
+     */
+    public String getOriginalLanguage() {
+        return originalLanguage;
+    }
+
+    /**
+     * Sets the original language of the movie.
+     *
+     * @param originalLanguage The ISO 639-1 language code. Null value will be replaced with an empty string.
+     */
+    public void setOriginalLanguage(final String originalLanguage) {
+        this.originalLanguage = originalLanguage != null ? originalLanguage : "";
+    }
+
+    /**
+     * Take over the user data of the previous version of this movie, so this freshly built copy
+     * can replace it in the next catalog. The comments and in-app ratings are shared with the
+     * previous version rather than copied, so ones added to it until the new catalog is published
+     * are not lost. The runtime and original language are kept when this copy does not have them.
+     *
+     * @param previous the movie with the same ID in the published catalog
+     */
+    public void keepUserDataOf(final Movie previous) {
+        this.comments = previous.comments;
+        this.inAppRating = previous.inAppRating;
+        if (this.runtime == 0) {
+            this.runtime = previous.runtime;
+        }
+        if (this.originalLanguage.isEmpty()) {
+            this.originalLanguage = previous.originalLanguage;
+        }
+    }
+
     @Override
     public String toString() {
         return "Movie{"
@@ -448,6 +611,9 @@ public final class Movie {
                 + ", inAppRating=" + inAppRating
                 + ", updatedAverageInAppRating=" + getInAppRating()
                 + ", imgUrl='" + imgUrl + '\''
+                + ", posterSrcset=" + posterSrcset
+                + ", runtime=" + runtime
+                + ", originalLanguage='" + originalLanguage + '\''
                 + '}';
     }
 }
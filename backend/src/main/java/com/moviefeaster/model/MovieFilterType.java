@@ -33,5 +33,11 @@ public enum MovieFilterType {
     COMMENT_KEYWORD,
     
     /** Filter by minimum in-app rating. */
-    MIN_INAPP_RATING
+    MIN_INAPP_RATING,
+
+    /** Filter by having at least one of a collection of genres. */
+    ANY_GENRE,
+
+    /** Filter by having every genre of a collection of genres. */
+    ALL_GENRES
 }
@@ -0,0 +1,327 @@
+package com.moviefeaster.model;
+
+import java.util.Arrays;
+import java.util.BitSet;
+
+/**
+ * Index of the directors and cast of a catalog for partial-name queries, matching the same
+ * rows as {@code name.toLowerCase(Locale.ROOT).contains(keyword)} over each movie's people.
+ * Every distinct lower-case name has a posting list of the rows it directs and one of the rows
+ * it appears in. Partial names are found through a suffix array: every suffix of every name,
+ * sorted, so the names containing a keyword are exactly those with a suffix starting with it,
+ * one contiguous range found by binary search.
+ *
+ * <p>The index is immutable once built and may be read by any number of threads.
+ */
+public final class PeopleIndex {
+
+    /** Bits of a packed suffix holding its start within the name. */
+    private static final int START_BITS = 32;
+
+    /** Lower-case name of each people ID. */
+    private final String[] names;
+
+    /** Every suffix of every name, sorted, packed as people ID and start by {@link #suffix}. */
+    private final long[] suffixes;
+
+    /** Rows directed by each people ID. */
+    private final Postings directed;
+
+    /** Rows each people ID appears in. */
+    private final Postings cast;
+
+    /**
+     * Rows of each people ID in compressed form: the rows of ID {@code i} are
+     * {@code rows[offsets[i]]} up to {@code rows[offsets[i + 1]]}, ascending.
+     */
+    private static final class Postings {
+
+        /** Start of each people ID's rows; one more entry than there are IDs. */
+        private final int[] offsets;
+
+        /** Rows of all people IDs. */
+        private final int[] rows;
+
+        /**
+         * Constructs posting lists.
+         *
+         * @param offsets start of each people ID's rows
+         * @param rows    rows of all people IDs
+         */
+        Postings(final int[] offsets, final int[] rows) {
+            this.offsets = offsets;
+            this.rows = rows;
+        }
+    }
+
+    /**
+     * Builds the index of dictionary-encoded people.
+     *
+     * @param names           the lower-case name of each people ID
+     * @param directorOffsets start of each row's directors in the director IDs
+     * @param directorIds     people IDs of the directors of all rows, row after row
+     * @param castOffsets     start of each row's cast in the cast IDs
+     * @param castIds         people IDs of the cast of all rows, row after row
+     */
+    public PeopleIndex(final String[] names, final int[] directorOffsets, final int[] directorIds,
+                       final int[] castOffsets, final int[] castIds) {
+        this.names = names;
+        this.directed = invert(names.length, directorOffsets, directorIds);
+        this.cast = invert(names.length, castOffsets, castIds);
+
+        int total = 0;
+        for (final String name : names) {
+            total += name.length();
+        }
+        final long[] packed = new long[total];
+        int next = 0;
+        for (int id = 0; id < names.length; id++) {
+            for (int start = 0; start < names[id].length(); start++) {
+                packed[next++] = suffix(id, start);
+            }
+        }
+        mergeSort(packed, new long[packed.length], 0, packed.length);
+        this.suffixes = packed;
+    }
+
+    /**
+     * Find the rows with a director whose name contains a keyword.
+     *
+     * @param keyword the keyword in lower case, not empty
+     * @return the matching rows
+     */
+    public BitSet directorsContaining(final String keyword) {
+        return rowsOf(namesContaining(keyword), directed);
+    }
+
+    /**
+     * Find the rows with a cast member whose name contains a keyword.
+     *
+     * @param keyword the keyword in lower case, not empty
+     * @return the matching rows
+     */
+    public BitSet castContaining(final String keyword) {
+        return rowsOf(namesContaining(keyword), cast);
+    }
+
+    /**
+     * Estimate how many rows have a director whose name contains a keyword: the total length
+     * of the matching directors' posting lists, which bounds the matches from above.
+     *
+     * @param keyword the keyword in lower case, not empty
+     * @return the most rows that can match
+     */
+    public int estimateDirectors(final String keyword) {
+        return postingLength(namesContaining(keyword), directed);
+    }
+
+    /**
+     * Estimate how many rows have a cast member whose name contains a keyword: the total
+     * length of the matching cast members' posting lists, which bounds the matches from above.
+     *
+     * @param keyword the keyword in lower case, not empty
+     * @return the most rows that can match
+     */
+    public int estimateCast(final String keyword) {
+        return postingLength(namesContaining(keyword), cast);
+    }
+
+    /**
+     * Find the people IDs whose name contains a keyword.
+     *
+     * @param keyword the keyword in lower case, not empty
+     * @return the matching people IDs
+     */
+    BitSet namesContaining(final String keyword) {
+        int low = 0;
+        int high = suffixes.length;
+        while (low < high) {
+            final int middle = (low + high) >>> 1;
+            if (compareToKeyword(suffixes[middle], keyword) < 0) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        final BitSet ids = new BitSet(names.length);
+        for (int i = low; i < suffixes.length && startsWith(suffixes[i], keyword); i++) {
+            ids.set(idOf(suffixes[i]));
+        }
+        return ids;
+    }
+
+    /**
+     * Gets the number of distinct names indexed.
+     *
+     * @return the number of names
+     */
+    public int size() {
+        return names.length;
+    }
+
+    /**
+     * Union the rows of a set of people IDs.
+     *
+     * @param ids      the people IDs
+     * @param postings the rows of each people ID
+     * @return the rows of any of the people
+     */
+    private static BitSet rowsOf(final BitSet ids, final Postings postings) {
+        final BitSet rows = new BitSet();
+        for (int id = ids.nextSetBit(0); id >= 0; id = ids.nextSetBit(id + 1)) {
+            for (int i = postings.offsets[id]; i < postings.offsets[id + 1]; i++) {
+                rows.set(postings.rows[i]);
+            }
+        }
+        return rows;
+    }
+
+    /**
+     * Add up the posting list lengths of a set of people IDs.
+     *
+     * @param ids      the people IDs
+     * @param postings the rows of each people ID
+     * @return the number of postings
+     */
+    private static int postingLength(final BitSet ids, final Postings postings) {
+        int total = 0;
+        for (int id = ids.nextSetBit(0); id >= 0; id = ids.nextSetBit(id + 1)) {
+            total += postings.offsets[id + 1] - postings.offsets[id];
+        }
+        return total;
+    }
+
+    /**
+     * Turn the people IDs of each row into the rows of each people ID. A person listed twice
+     * for a row gets the row once.
+     *
+     * @param idCount number of people IDs
+     * @param offsets start of each row's people IDs
+     * @param ids     people IDs of all rows, row after row
+     * @return the rows of each people ID
+     */
+    private static Postings invert(final int idCount, final int[] offsets, final int[] ids) {
+        final int[] lastRow = new int[idCount];
+        Arrays.fill(lastRow, -1);
+        final int[] counts = new int[idCount + 1];
+        for (int row = 0; row + 1 < offsets.length; row++) {
+            for (int i = offsets[row]; i < offsets[row + 1]; i++) {
+                if (lastRow[ids[i]] != row) {
+                    lastRow[ids[i]] = row;
+                    counts[ids[i] + 1]++;
+                }
+            }
+        }
+        for (int id = 0; id < idCount; id++) {
+            counts[id + 1] += counts[id];
+        }
+        final int[] rows = new int[counts[idCount]];
+        final int[] fill = Arrays.copyOf(counts, idCount);
+        Arrays.fill(lastRow, -1);
+        for (int row = 0; row + 1 < offsets.length; row++) {
+            for (int i = offsets[row]; i < offsets[row + 1]; i++) {
+                if (lastRow[ids[i]] != row) {
+                    lastRow[ids[i]] = row;
+                    rows[fill[ids[i]]++] = row;
+                }
+            }
+        }
+        return new Postings(counts, rows);
+    }
+
+    /**
+     * Compare a suffix with a keyword as far as the keyword goes, so every suffix starting
+     * with the keyword compares equal to it.
+     *
+     * @param packed  the packed suffix
+     * @param keyword the keyword
+     * @return negative, zero or positive as the suffix sorts before, at or after the keyword
+     */
+    private int compareToKeyword(final long packed, final String keyword) {
+        final String name = names[idOf(packed)];
+        final int start = startOf(packed);
+        final int length = Math.min(name.length() - start, keyword.length());
+        for (int i = 0; i < length; i++) {
+            final int difference = name.charAt(start + i) - keyword.charAt(i);
+            if (difference != 0) {
+                return difference;
+            }
+        }
+        return name.length() - start < keyword.length() ? -1 : 0;
+    }
+
+    /**
+     * Check whether a suffix starts with a keyword.
+     *
+     * @param packed  the packed suffix
+     * @param keyword the keyword
+     * @return true if the keyword is a prefix of the suffix
+     */
+    private boolean startsWith(final long packed, final String keyword) {
+        return names[idOf(packed)].startsWith(keyword, startOf(packed));
+    }
+
+    /**
+     * Compare two suffixes character by character.
+     *
+     * @param left  the first packed suffix
+     * @param right the second packed suffix
+     * @return negative, zero or positive as the first suffix sorts before, with or after the second
+     */
+    private int compareSuffixes(final long left, final long right) {
+        final String leftName = names[idOf(left)];
+        final String rightName = names[idOf(right)];
+        final int leftStart = startOf(left);
+        final int rightStart = startOf(right);
+        final int length = Math.min(leftName.length() - leftStart, rightName.length() - rightStart);
+        for (int i = 0; i < length; i++) {
+            final int difference = leftName.charAt(leftStart + i) - rightName.charAt(rightStart + i);
+            if (difference != 0) {
+                return difference;
+            }
+        }
+        return (leftName.length() - leftStart) - (rightName.length() - rightStart);
+    }
+
+    /**
+     * Merge sort a range of suffixes.
+     *
+     * @param values  the packed suffixes, sorted in place
+     * @param scratch scratch space as long as the suffixes
+     * @param from    first index, inclusive
+     * @param to      last index, exclusive
+     */
+    private void mergeSort(final long[] values, final long[] scratch, final int from, final int to) {
+        if (to - from < 2) {
+            return;
+        }
+        final int middle = (from + to) >>> 1;
+        mergeSort(values, scratch, from, middle);
+        mergeSort(values, scratch, middle, to);
+        if (compareSuffixes(values[middle - 1], values[middle]) <= 0) {
+            return;
+        }
+        System.arraycopy(values, from, scratch, from, to - from);
+        int left = from;
+        int right = middle;
+        for (int i = from; i < to; i++) {
+            if (right >= to || left < middle && compareSuffixes(scratch[left], scratch[right]) <= 0) {
+                values[i] = scratch[left++];
+            } else {
+                values[i] = scratch[right++];
+            }
+        }
+    }
+
+    private static long suffix(final int id, final int start) {
+        return (long) id << START_BITS | start;
+    }
+
+    private static int idOf(final long packed) {
+        return (int) (packed >>> START_BITS);
+    }
+
+    private static int startOf(final long packed) {
+        return (int) packed;
+    }
+}
@@ -0,0 +1,178 @@
+package com.moviefeaster.model;
+
+import java.util.Collection;
+import java.util.concurrent.atomic.DoubleAdder;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Running totals of the in-app ratings of a movie. Ratings are folded in as they arrive
+ * instead of being kept one by one, so the count, average, variance and distribution are
+ * read in constant time however many ratings a movie has collected.
+ *
+ * <p>Thread-safe: concurrent ratings are added to striped adders without locking. A read
+ * racing an add may combine totals from just before and just after it.
+ */
+public final class RatingAggregate {
+
+    /** Number of histogram buckets, one per whole star from 0 to 5. */
+    public static final int BUCKETS = 6;
+
+    /** Number of ratings. */
+    private final LongAdder count = new LongAdder();
+
+    /** Sum of the ratings. */
+    private final DoubleAdder sum = new DoubleAdder();
+
+    /** Sum of the squared ratings. */
+    private final DoubleAdder sumOfSquares = new DoubleAdder();
+
+    /** Number of ratings per whole star, see {@link #bucketOf}. */
+    private final LongAdder[] histogram = new LongAdder[BUCKETS];
+
+    /**
+     * Constructs an aggregate of no ratings.
+     */
+    public RatingAggregate() {
+        for (int i = 0; i < BUCKETS; i++) {
+            histogram[i] = new LongAdder();
+        }
+    }
+
+    /**
+     * Build the aggregate of a collection of ratings.
+     *
+     * @param ratings the ratings, possibly null or holding nulls, which are skipped
+     * @return the aggregate
+     */
+    public static RatingAggregate of(final Collection<Double> ratings) {
+        final RatingAggregate aggregate = new RatingAggregate();
+        if (ratings != null) {
+            for (final Double rating : ratings) {
+                if (rating != null) {
+                    aggregate.add(rating);
+                }
+            }
+        }
+        return aggregate;
+    }
+
+    /**
+     * Rebuild an aggregate from its saved totals.
+     *
+     * @param count        number of ratings
+     * @param sum          sum of the ratings
+     * @param sumOfSquares sum of the squared ratings
+     * @param histogram    number of ratings per whole star; missing buckets count as 0
+     * @return the aggregate
+     */
+    public static RatingAggregate restore(final long count, final double sum, final double sumOfSquares,
+                                          final long[] histogram) {
+        final RatingAggregate aggregate = new RatingAggregate();
+        aggregate.count.add(count);
+        aggregate.sum.add(sum);
+        aggregate.sumOfSquares.add(sumOfSquares);
+        for (int i = 0; i < Math.min(BUCKETS, histogram.length); i++) {
+            aggregate.histogram[i].add(histogram[i]);
+        }
+        return aggregate;
+    }
+
+    /**
+     * Add a rating.
+     *
+     * @param rating the rating
+     */
+    public void add(final double rating) {
+        sum.add(rating);
+        sumOfSquares.add(rating * rating);
+        histogram[bucketOf(rating)].increment();
+        count.increment();
+    }
+
+    /**
+     * Gets the number of ratings.
+     *
+     * @return the number of ratings
+     */
+    public long getCount() {
+        return count.sum();
+    }
+
+    /**
+     * Gets the sum of the ratings.
+     *
+     * @return the sum
+     */
+    public double getSum() {
+        return sum.sum();
+    }
+
+    /**
+     * Gets the sum of the squared ratings.
+     *
+     * @return the sum of squares
+     */
+    public double getSumOfSquares() {
+        return sumOfSquares.sum();
+    }
+
+    /**
+     * Gets the average rating.
+     *
+     * @return the average, 0.0 without ratings
+     */
+    public double getAverage() {
+        final long n = count.sum();
+        return n == 0 ? 0.0 : sum.sum() / n;
+    }
+
+    /**
+     * Gets the population variance of the ratings.
+     *
+     * @return the variance, 0.0 without ratings
+     */
+    public double getVariance() {
+        final long n = count.sum();
+        if (n == 0) {
+            return 0.0;
+        }
+        final double mean = sum.sum() / n;
+        return Math.max(0.0, sumOfSquares.sum() / n - mean * mean);
+    }
+
+    /**
+     * Gets the number of ratings per whole star.
+     *
+     * @return a new array of {@link #BUCKETS} counts, index 0 for 0 stars up to 5 stars
+     */
+    public long[] getHistogram() {
+        final long[] counts = new long[BUCKETS];
+        for (int i = 0; i < BUCKETS; i++) {
+            counts[i] = histogram[i].sum();
+        }
+        return counts;
+    }
+
+    /**
+     * Get the histogram bucket of a rating: the nearest whole star, clamped to 0 to 5.
+     *
+     * @param rating the rating
+     * @return the bucket index
+     */
+    static int bucketOf(final double rating) {
+        if (!(rating > 0)) {
+            return 0;
+        }
+        return (int) Math.min(BUCKETS - 1, Math.round(rating));
+    }
+
+    /**
+     * Returns a string representation of the aggregate.
+     *
+     * @return the count and average
+     */
+    @Override
+    public String toString() {
+        return "RatingAggregate{count=" + getCount() + ", average=" + getAverage() + '}';
+    }
+}
@@ -0,0 +1,276 @@
+package com.moviefeaster.model;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Inverted index from the trigrams of lower-case titles to the rows holding them, answering
+ * the same substring queries as {@code title.toLowerCase(Locale.ROOT).contains(keyword)}.
+ * A keyword of three or more characters can only occur in a title holding all of its
+ * trigrams, so the posting lists of those trigrams are intersected; the remaining candidates
+ * are checked with {@code contains} only when the keyword is longer than one trigram.
+ * Shorter keywords are answered by scanning the titles of the rows still in question.
+ *
+ * <p>The index is immutable once built. Building the index of the next catalog version from
+ * the previous index reuses the trigrams of every title that did not change, so only new and
+ * renamed titles are tokenized again.
+ */
+public final class TitleIndex {
+
+    /** Characters in a gram. */
+    static final int GRAM_LENGTH = 3;
+
+    /** Lower-case title of each row. */
+    private final String[] titles;
+
+    /** Every distinct trigram, sorted, packed by {@link #gram}. */
+    private final long[] grams;
+
+    /** Start of each trigram's rows in {@link #postings}; one more entry than there are trigrams. */
+    private final int[] offsets;
+
+    /** Rows of all trigrams, ascending within each trigram. */
+    private final int[] postings;
+
+    /** Sorted distinct trigrams of each distinct title, kept for building the next index. */
+    private final Map<String, long[]> gramsByTitle;
+
+    /**
+     * Builds the index of a set of titles.
+     *
+     * @param titles   the lower-case title of each row; the array is not copied
+     * @param previous the index of the previous catalog version to reuse trigrams from, or null
+     */
+    public TitleIndex(final String[] titles, final TitleIndex previous) {
+        this.titles = titles;
+        this.gramsByTitle = new HashMap<>(titles.length * 4 / 3 + 1);
+
+        final long[][] rowGrams = new long[titles.length][];
+        final Map<Long, Integer> counts = new HashMap<>();
+        for (int row = 0; row < titles.length; row++) {
+            long[] tokens = gramsByTitle.get(titles[row]);
+            if (tokens == null) {
+                tokens = previous != null ? previous.gramsByTitle.get(titles[row]) : null;
+                if (tokens == null) {
+                    tokens = tokenize(titles[row]);
+                }
+                gramsByTitle.put(titles[row], tokens);
+            }
+            rowGrams[row] = tokens;
+            for (final long token : tokens) {
+                counts.merge(token, 1, Integer::sum);
+            }
+        }
+
+        this.grams = new long[counts.size()];
+        int next = 0;
+        for (final long token : counts.keySet()) {
+            grams[next++] = token;
+        }
+        Arrays.sort(grams);
+
+        this.offsets = new int[grams.length + 1];
+        for (int i = 0; i < grams.length; i++) {
+            offsets[i + 1] = offsets[i] + counts.get(grams[i]);
+        }
+        this.postings = new int[offsets[grams.length]];
+        final int[] fill = Arrays.copyOf(offsets, grams.length);
+        for (int row = 0; row < titles.length; row++) {
+            for (final long token : rowGrams[row]) {
+                postings[fill[Arrays.binarySearch(grams, token)]++] = row;
+            }
+        }
+    }
+
+    /**
+     * Find the rows whose title contains a keyword.
+     *
+     * @param keyword the keyword in lower case
+     * @return the matching rows
+     */
+    public BitSet contains(final String keyword) {
+        return contains(keyword, null);
+    }
+
+    /**
+     * Find the rows among some rows whose title contains a keyword. A keyword shorter than a
+     * trigram only tests the titles of the given rows.
+     *
+     * @param keyword the keyword in lower case
+     * @param within  the rows to consider, or null for every row
+     * @return the matching rows
+     */
+    public BitSet contains(final String keyword, final BitSet within) {
+        final BitSet result = new BitSet(titles.length);
+        if (keyword.length() < GRAM_LENGTH) {
+            if (within == null) {
+                for (int row = 0; row < titles.length; row++) {
+                    if (titles[row].contains(keyword)) {
+                        result.set(row);
+                    }
+                }
+            } else {
+                for (int row = within.nextSetBit(0); row >= 0 && row < titles.length;
+                     row = within.nextSetBit(row + 1)) {
+                    if (titles[row].contains(keyword)) {
+                        result.set(row);
+                    }
+                }
+            }
+            return result;
+        }
+
+        final int[] lists = postingListsOf(keyword);
+        if (lists == null) {
+            return result;
+        }
+
+        int[] candidates = Arrays.copyOfRange(postings, offsets[lists[0]], offsets[lists[0] + 1]);
+        int count = candidates.length;
+        for (int i = 1; i < lists.length && count > 0; i++) {
+            count = intersect(candidates, count, offsets[lists[i]], offsets[lists[i] + 1]);
+        }
+
+        final boolean verify = keyword.length() > GRAM_LENGTH;
+        for (int i = 0; i < count; i++) {
+            final int row = candidates[i];
+            if ((within == null || within.get(row)) && (!verify || titles[row].contains(keyword))) {
+                result.set(row);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Estimate how many rows have a title containing a keyword, without intersecting postings.
+     * The estimate is the length of the keyword's shortest trigram posting list, which bounds
+     * the matches from above; a keyword shorter than a trigram may match every row.
+     *
+     * @param keyword the keyword in lower case
+     * @return the most rows that can match
+     */
+    public int estimate(final String keyword) {
+        if (keyword.length() < GRAM_LENGTH) {
+            return titles.length;
+        }
+        final int[] lists = postingListsOf(keyword);
+        return lists == null ? 0 : offsets[lists[0] + 1] - offsets[lists[0]];
+    }
+
+    /**
+     * Gets the number of distinct trigrams indexed.
+     *
+     * @return the number of trigrams
+     */
+    public int getGramCount() {
+        return grams.length;
+    }
+
+    /**
+     * Get the trigrams indexed for a title.
+     *
+     * @param title the lower-case title
+     * @return the sorted distinct trigrams, or null if no row has the title
+     */
+    long[] gramsOf(final String title) {
+        return gramsByTitle.get(title);
+    }
+
+    /**
+     * Get the sorted distinct trigrams of a text.
+     *
+     * @param text the text
+     * @return the packed trigrams, empty for text shorter than a trigram
+     */
+    static long[] tokenize(final String text) {
+        final int count = Math.max(0, text.length() - GRAM_LENGTH + 1);
+        final long[] tokens = new long[count];
+        for (int i = 0; i < count; i++) {
+            tokens[i] = gram(text.charAt(i), text.charAt(i + 1), text.charAt(i + 2));
+        }
+        Arrays.sort(tokens);
+        int distinct = 0;
+        for (int i = 0; i < count; i++) {
+            if (i == 0 || tokens[i] != tokens[i - 1]) {
+                tokens[distinct++] = tokens[i];
+            }
+        }
+        return distinct == count ? tokens : Arrays.copyOf(tokens, distinct);
+    }
+
+    /**
+     * Pack three characters into a trigram key.
+     *
+     * @param first  the first character
+     * @param second the second character
+     * @param third  the third character
+     * @return the trigram key
+     */
+    private static long gram(final char first, final char second, final char third) {
+        return (long) first << 32 | (long) second << 16 | third;
+    }
+
+    /**
+     * Find the posting lists of the trigrams of a keyword, shortest first.
+     *
+     * @param keyword the keyword, at least a trigram long
+     * @return the trigram indexes, or null if some trigram occurs in no title
+     */
+    private int[] postingListsOf(final String keyword) {
+        final long[] tokens = tokenize(keyword);
+        final int[] lists = new int[tokens.length];
+        for (int i = 0; i < tokens.length; i++) {
+            lists[i] = Arrays.binarySearch(grams, tokens[i]);
+            if (lists[i] < 0) {
+                return null;
+            }
+        }
+        sortByLength(lists);
+        return lists;
+    }
+
+    /**
+     * Order trigram indexes by the length of their posting lists, shortest first, so the
+     * candidates start small.
+     *
+     * @param lists the trigram indexes, sorted in place
+     */
+    private void sortByLength(final int[] lists) {
+        for (int i = 1; i < lists.length; i++) {
+            final int list = lists[i];
+            final int length = offsets[list + 1] - offsets[list];
+            int j = i - 1;
+            while (j >= 0 && offsets[lists[j] + 1] - offsets[lists[j]] > length) {
+                lists[j + 1] = lists[j];
+                j--;
+            }
+            lists[j + 1] = list;
+        }
+    }
+
+    /**
+     * Keep the candidates that also appear in a posting list.
+     *
+     * @param candidates ascending candidate rows, compacted in place
+     * @param count      number of candidates in use
+     * @param from       start of the posting list in {@link #postings}, inclusive
+     * @param to         end of the posting list, exclusive
+     * @return number of candidates kept
+     */
+    private int intersect(final int[] candidates, final int count, final int from, final int to) {
+        int kept = 0;
+        int position = from;
+        for (int i = 0; i < count && position < to; i++) {
+            final int row = candidates[i];
+            while (position < to && postings[position] < row) {
+                position++;
+            }
+            if (position < to && postings[position] == row) {
+                candidates[kept++] = row;
+            }
+        }
+        return kept;
+    }
+}
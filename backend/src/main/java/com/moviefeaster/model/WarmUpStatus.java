@@ -0,0 +1,108 @@
+package com.moviefeaster.model;
+
+/**
+ * Class to report how far loading the movie catalog has progressed.
+ */
+public final class WarmUpStatus {
+
+    /** Current loading state. */
+    private final CatalogState state;
+
+    /** Number of movies processed so far in the current load. */
+    private final int moviesLoaded;
+
+    /** Number of movies the current load is expected to process. */
+    private final int moviesTarget;
+
+    /** Number of movies currently served. */
+    private final int moviesServed;
+
+    /** Version of the catalog currently served, 0 before the first load. */
+    private final long catalogVersion;
+
+    /** Time spent in the current or last load, in milliseconds. */
+    private final long elapsedMillis;
+
+    /**
+     * Constructs a warm-up status snapshot.
+     *
+     * @param state          current loading state
+     * @param moviesLoaded   movies processed so far
+     * @param moviesTarget   movies expected in total
+     * @param moviesServed   movies currently served
+     * @param catalogVersion version of the catalog currently served
+     * @param elapsedMillis  time spent loading, in milliseconds
+     */
+    public WarmUpStatus(final CatalogState state, final int moviesLoaded, final int moviesTarget,
+                        final int moviesServed, final long catalogVersion, final long elapsedMillis) {
+        this.state = state;
+        this.moviesLoaded = moviesLoaded;
+        this.moviesTarget = moviesTarget;
+        this.moviesServed = moviesServed;
+        this.catalogVersion = catalogVersion;
+        this.elapsedMillis = elapsedMillis;
+    }
+
+    /**
+     * Gets the loading state.
+     *
+     * @return the loading state
+     */
+    public CatalogState getState() {
+        return state;
+    }
+
+    /**
+     * Gets the number of movies processed so far.
+     *
+     * @return movies processed in the current load
+     */
+    public int getMoviesLoaded() {
+        return moviesLoaded;
+    }
+
+    /**
+     * Gets the number of movies the load is expected to process.
+     *
+     * @return expected number of movies, 0 while still unknown
+     */
+    public int getMoviesTarget() {
+        return moviesTarget;
+    }
+
+    /**
+     * Gets the number of movies currently served.
+     *
+     * @return size of the served catalog
+     */
+    public int getMoviesServed() {
+        return moviesServed;
+    }
+
+    /**
+     * Gets the version of the catalog currently served.
+     *
+     * @return the catalog version, 0 before the first load
+     */
+    public long getCatalogVersion() {
+        return catalogVersion;
+    }
+
+    /**
+     * Gets the time spent loading.
+     *
+     * @return elapsed time in milliseconds
+     */
+    public long getElapsedMillis() {
+        return elapsedMillis;
+    }
+
+    /**
+     * Check whether the catalog is ready to be served.
+     *
+     * @return true once a load has completed
+     */
+    public boolean isReady() {
+        return state == CatalogState.READY;
+    }
+}
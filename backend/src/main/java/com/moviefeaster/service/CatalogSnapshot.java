@@ -0,0 +1,317 @@
+package com.moviefeaster.service;
+
+import com.moviefeaster.model.Genre;
+import com.moviefeaster.model.Movie;
+import com.moviefeaster.model.RatingAggregate;
+import com.moviefeaster.utils.NamePool;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Class to save the movie catalog to a compact binary file and load it back.
+ *
+ * <p>Layout, all numbers big-endian:
+ * <pre>
+ * header   int magic, int version, int movie count, int string count
+ * strings  per string: int byte length, UTF-8 bytes
+ * movies   per movie: int id, int year, double rating,
+ *          int title, int overview, int image URL (string indexes, -1 for null),
+ *          directors, castings, comments (int count, string indexes),
+ *          genres (int count, TMDB genre IDs),
+ *          in-app ratings (long count, double sum, double sum of squares,
+ *          six longs counting the ratings per whole star),
+ *          int runtime, int original language (string index)
+ * </pre>
+ * Files of any other version are rejected and the catalog is loaded from the source instead.
+ * Every distinct string is stored once, so names shared across movies cost four bytes
+ * per use. The file is read through a memory-mapped buffer; restored directors and cast
+ * are interned in the shared {@link NamePool}. Poster srcsets are not stored but rebuilt
+ * from the image URL on read.
+ */
+public final class CatalogSnapshot {
+
+    /** Marks a catalog snapshot file ("MFCS"). */
+    static final int MAGIC = 0x4D464353;
+
+    /** Format version written by this class. */
+    static final int VERSION = 1;
+
+    /** Oldest format version this class can read. */
+    static final int MIN_VERSION = VERSION;
+
+    /** String index written for a null string. */
+    private static final int NULL_STRING = -1;
+
+    /** Private constructor preventing instantiation. */
+    private CatalogSnapshot() {
+        // Prevent instantiation
+    }
+
+    /**
+     * Write movies to a snapshot file. The file is written next to the target and moved
+     * into place, so a crash never leaves a half-written snapshot behind.
+     *
+     * @param movies the movies to save
+     * @param path   the snapshot file
+     * @throws IOException if the file cannot be written
+     */
+    public static void write(final List<Movie> movies, final Path path) throws IOException {
+        final Path parent = path.toAbsolutePath().getParent();
+        Files.createDirectories(parent);
+        final Path temp = Files.createTempFile(parent, path.getFileName().toString(), ".tmp");
+        try {
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temp)))) {
+                writeTo(movies, out);
+            }
+            try {
+                Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    /**
+     * Read movies from a snapshot file.
+     *
+     * @param path the snapshot file
+     * @return the saved movies, in their saved order
+     * @throws IOException if the file cannot be read, is not a snapshot, is corrupt
+     *                     or has an unsupported version
+     */
+    public static List<Movie> read(final Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            final MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            return readFrom(buffer);
+        } catch (BufferUnderflowException | IllegalArgumentException | IndexOutOfBoundsException
+                 | NegativeArraySizeException e) {
+            throw new IOException("Catalog snapshot is truncated or corrupt: " + path, e);
+        }
+    }
+
+    /**
+     * Write the header, string table and movies. Comments keep arriving while the catalog is
+     * saved, so each movie's comments are copied once and both passes write that copy.
+     *
+     * @param movies the movies to save
+     * @param out    the destination
+     * @throws IOException if writing fails
+     */
+    private static void writeTo(final List<Movie> movies, final DataOutputStream out) throws IOException {
+        final Map<String, Integer> indexes = new HashMap<>();
+        final List<String> strings = new ArrayList<>();
+        final List<List<String>> comments = new ArrayList<>(movies.size());
+        for (final Movie movie : movies) {
+            comments.add(List.copyOf(movie.getComments()));
+            index(movie.getTitle(), indexes, strings);
+            index(movie.getOverview(), indexes, strings);
+            index(movie.getImgUrl(), indexes, strings);
+            indexAll(movie.getDirectors(), indexes, strings);
+            indexAll(movie.getCastings(), indexes, strings);
+            indexAll(comments.get(comments.size() - 1), indexes, strings);
+            index(movie.getOriginalLanguage(), indexes, strings);
+        }
+
+        out.writeInt(MAGIC);
+        out.writeInt(VERSION);
+        out.writeInt(movies.size());
+        out.writeInt(strings.size());
+        for (final String value : strings) {
+            final byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+            out.writeInt(bytes.length);
+            out.write(bytes);
+        }
+
+        for (int i = 0; i < movies.size(); i++) {
+            final Movie movie = movies.get(i);
+            out.writeInt(movie.getMovieId());
+            out.writeInt(movie.getYear());
+            out.writeDouble(movie.getRating());
+            out.writeInt(ref(movie.getTitle(), indexes));
+            out.writeInt(ref(movie.getOverview(), indexes));
+            out.writeInt(ref(movie.getImgUrl(), indexes));
+            writeRefs(movie.getDirectors(), indexes, out);
+            writeRefs(movie.getCastings(), indexes, out);
+            writeRefs(comments.get(i), indexes, out);
+
+            final List<Genre> genres = movie.getGenres() != null ? movie.getGenres() : List.of();
+            out.writeInt(genres.size());
+            for (final Genre genre : genres) {
+                out.writeInt(genre.getGenreId());
+            }
+
+            final RatingAggregate ratings = movie.getInAppRatingStats();
+            out.writeLong(ratings.getCount());
+            out.writeDouble(ratings.getSum());
+            out.writeDouble(ratings.getSumOfSquares());
+            for (final long bucket : ratings.getHistogram()) {
+                out.writeLong(bucket);
+            }
+
+            out.writeInt(movie.getRuntime());
+            out.writeInt(ref(movie.getOriginalLanguage(), indexes));
+        }
+    }
+
+    /**
+     * Check the header and decode the string table and movies.
+     *
+     * @param buffer the snapshot contents
+     * @return the saved movies
+     * @throws IOException if the buffer is not a snapshot of a supported version
+     */
+    private static List<Movie> readFrom(final MappedByteBuffer buffer) throws IOException {
+        if (buffer.remaining() < Integer.BYTES || buffer.getInt() != MAGIC) {
+            throw new IOException("Not a catalog snapshot.");
+        }
+        final int version = buffer.getInt();
+        if (version < MIN_VERSION || version > VERSION) {
+            throw new IOException("Unsupported catalog snapshot version " + version + ".");
+        }
+        final int movieCount = buffer.getInt();
+        final String[] strings = new String[buffer.getInt()];
+        byte[] scratch = new byte[256];
+        for (int i = 0; i < strings.length; i++) {
+            final int length = buffer.getInt();
+            if (length > scratch.length) {
+                scratch = new byte[Math.max(length, scratch.length * 2)];
+            }
+            buffer.get(scratch, 0, length);
+            strings[i] = new String(scratch, 0, length, StandardCharsets.UTF_8);
+        }
+
+        final List<Movie> movies = new ArrayList<>(movieCount);
+        for (int i = 0; i < movieCount; i++) {
+            final int movieId = buffer.getInt();
+            final int year = buffer.getInt();
+            final double rating = buffer.getDouble();
+            final String title = string(buffer.getInt(), strings);
+            final String overview = string(buffer.getInt(), strings);
+            final String imgUrl = string(buffer.getInt(), strings);
+            final List<String> directors = internAll(readStrings(buffer, strings));
+            final List<String> castings = internAll(readStrings(buffer, strings));
+            final List<String> comments = readStrings(buffer, strings);
+
+            final int genreCount = buffer.getInt();
+            final List<Genre> genres = new ArrayList<>(genreCount);
+            for (int g = 0; g < genreCount; g++) {
+                final Genre genre = Genre.fromId(buffer.getInt());
+                if (genre != null) {
+                    genres.add(genre);
+                }
+            }
+
+            final RatingAggregate ratings = readRatings(buffer);
+            final int runtime = buffer.getInt();
+            final String originalLanguage = string(buffer.getInt(), strings);
+
+            final Movie movie = new Movie.Builder()
+                    .movieId(movieId)
+                    .title(title)
+                    .year(year)
+                    .rating(rating)
+                    .overview(overview)
+                    .imgUrl(imgUrl)
+                    .posterSrcset(MovieParser.posterSrcsetOf(imgUrl))
+                    .directors(directors)
+                    .castings(castings)
+                    .genres(genres)
+                    .runtime(runtime)
+                    .originalLanguage(originalLanguage)
+                    .build();
+            movie.setComments(comments);
+            movie.setInAppRatingStats(ratings);
+            movies.add(movie);
+        }
+        return movies;
+    }
+
+    /**
+     * Read in-app rating totals.
+     *
+     * @param buffer buffer positioned at the totals
+     * @return the totals
+     */
+    private static RatingAggregate readRatings(final MappedByteBuffer buffer) {
+        final long count = buffer.getLong();
+        final double sum = buffer.getDouble();
+        final double sumOfSquares = buffer.getDouble();
+        final long[] histogram = new long[RatingAggregate.BUCKETS];
+        for (int b = 0; b < histogram.length; b++) {
+            histogram[b] = buffer.getLong();
+        }
+        return RatingAggregate.restore(count, sum, sumOfSquares, histogram);
+    }
+
+    private static void index(final String value, final Map<String, Integer> indexes, final List<String> strings) {
+        if (value != null && !indexes.containsKey(value)) {
+            indexes.put(value, strings.size());
+            strings.add(value);
+        }
+    }
+
+    private static void indexAll(final List<String> values, final Map<String, Integer> indexes,
+                                 final List<String> strings) {
+        if (values != null) {
+            for (final String value : values) {
+                index(value, indexes, strings);
+            }
+        }
+    }
+
+    private static int ref(final String value, final Map<String, Integer> indexes) {
+        return value == null ? NULL_STRING : indexes.get(value);
+    }
+
+    private static void writeRefs(final List<String> values, final Map<String, Integer> indexes,
+                                  final DataOutputStream out) throws IOException {
+        final List<String> list = values != null ? values : List.of();
+        out.writeInt(list.size());
+        for (final String value : list) {
+            out.writeInt(ref(value, indexes));
+        }
+    }
+
+    private static String string(final int index, final String[] strings) throws IOException {
+        if (index == NULL_STRING) {
+            return null;
+        }
+        if (index < 0 || index >= strings.length) {
+            throw new IOException("Catalog snapshot refers to missing string " + index + ".");
+        }
+        return strings[index];
+    }
+
+    private static List<String> internAll(final List<String> names) {
+        final NamePool pool = NamePool.shared();
+        names.replaceAll(pool::intern);
+        return names;
+    }
+
+    private static List<String> readStrings(final MappedByteBuffer buffer, final String[] strings)
+            throws IOException {
+        final int count = buffer.getInt();
+        final List<String> values = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            values.add(string(buffer.getInt(), strings));
+        }
+        return values;
+    }
+}
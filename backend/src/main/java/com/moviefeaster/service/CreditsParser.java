@@ -0,0 +1,175 @@
+package com.moviefeaster.service;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.moviefeaster.utils.NamePool;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+
+/**
+ * Utility class that extracts directors and cast from a TMDB credits document by walking
+ * its tokens. Only the fields that are kept are read; everything else is skipped without
+ * building a tree. Kept names are interned in the shared {@link NamePool}.
+ */
+public final class CreditsParser {
+
+    /** Shared factory for streaming parsers; thread-safe. */
+    private static final JsonFactory FACTORY = new JsonFactory();
+
+    /** Cast members ordered by billing, earliest position breaking ties. */
+    private static final Comparator<CastMember> BILLING_ORDER =
+            Comparator.comparingInt((CastMember member) -> member.order)
+                    .thenComparingInt(member -> member.position);
+
+    /** Private constructor to prevent instantiation. */
+    private CreditsParser() { }
+
+    /**
+     * Parse a credits document.
+     *
+     * @param json    the credits response body
+     * @param maxCast maximum number of cast members to keep, lowest billing order first
+     * @return the directors in document order and at most {@code maxCast} cast members in billing order
+     * @throws IOException if the stream is not valid JSON
+     */
+    public static MovieParser.Credits parse(final InputStream json, final int maxCast) throws IOException {
+        MovieParser.Credits credits = MovieParser.Credits.empty();
+        try (JsonParser parser = FACTORY.createParser(json)) {
+            if (parser.nextToken() == JsonToken.START_OBJECT) {
+                credits = readCredits(parser, maxCast);
+            }
+        }
+        return credits;
+    }
+
+    /**
+     * Read a credits object from a parser, e.g. one embedded in a larger document.
+     *
+     * @param parser  parser positioned at the start of the credits object; left at its end
+     * @param maxCast maximum number of cast members to keep, lowest billing order first
+     * @return the directors in document order and at most {@code maxCast} cast members in billing order
+     * @throws IOException if the stream is not valid JSON
+     */
+    static MovieParser.Credits readCredits(final JsonParser parser, final int maxCast) throws IOException {
+        final List<String> directors = new ArrayList<>();
+        final PriorityQueue<CastMember> cast = new PriorityQueue<>(BILLING_ORDER.reversed());
+
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            final String field = parser.currentName();
+            final JsonToken value = parser.nextToken();
+            if ("crew".equals(field) && value == JsonToken.START_ARRAY) {
+                readDirectors(parser, directors);
+            } else if ("cast".equals(field) && value == JsonToken.START_ARRAY) {
+                readCast(parser, cast, Math.max(0, maxCast));
+            } else {
+                parser.skipChildren();
+            }
+        }
+
+        final List<CastMember> billed = new ArrayList<>(cast);
+        billed.sort(BILLING_ORDER);
+        final List<String> castings = new ArrayList<>(billed.size());
+        for (final CastMember member : billed) {
+            castings.add(NamePool.shared().intern(member.name));
+        }
+        return new MovieParser.Credits(directors, castings);
+    }
+
+    /**
+     * Read the crew array, keeping the names of members whose job is Director.
+     *
+     * @param parser    parser positioned at the start of the crew array
+     * @param directors receives the director names
+     * @throws IOException if the stream is not valid JSON
+     */
+    private static void readDirectors(final JsonParser parser, final List<String> directors) throws IOException {
+        while (parser.nextToken() == JsonToken.START_OBJECT) {
+            String name = null;
+            boolean isDirector = false;
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                final String field = parser.currentName();
+                parser.nextToken();
+                if ("job".equals(field)) {
+                    isDirector = "Director".equals(parser.getValueAsString());
+                } else if ("name".equals(field)) {
+                    name = parser.getValueAsString();
+                } else {
+                    parser.skipChildren();
+                }
+            }
+            if (isDirector && name != null) {
+                directors.add(NamePool.shared().intern(name));
+            }
+        }
+    }
+
+    /**
+     * Read the cast array, keeping only the {@code maxCast} best billed members.
+     *
+     * @param parser  parser positioned at the start of the cast array
+     * @param cast    heap holding the best billed members seen so far, worst billed on top
+     * @param maxCast maximum number of members to keep
+     * @throws IOException if the stream is not valid JSON
+     */
+    private static void readCast(final JsonParser parser, final PriorityQueue<CastMember> cast,
+                                 final int maxCast) throws IOException {
+        int position = 0;
+        while (parser.nextToken() == JsonToken.START_OBJECT) {
+            String name = null;
+            int order = Integer.MAX_VALUE;
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                final String field = parser.currentName();
+                final JsonToken value = parser.nextToken();
+                if ("name".equals(field)) {
+                    name = parser.getValueAsString();
+                } else if ("order".equals(field) && value == JsonToken.VALUE_NUMBER_INT) {
+                    order = parser.getIntValue();
+                } else {
+                    parser.skipChildren();
+                }
+            }
+            if (name != null && maxCast > 0) {
+                final CastMember member = new CastMember(name, order, position);
+                if (cast.size() < maxCast) {
+                    cast.add(member);
+                } else if (BILLING_ORDER.compare(member, cast.peek()) < 0) {
+                    cast.poll();
+                    cast.add(member);
+                }
+            }
+            position++;
+        }
+    }
+
+    /** A cast member's name together with their billing position. */
+    private static final class CastMember {
+
+        /** Name of the cast member. */
+        private final String name;
+
+        /** TMDB billing order; lower is billed higher. */
+        private final int order;
+
+        /** Position in the document, used to break ties. */
+        private final int position;
+
+        /**
+         * Constructs a cast member.
+         *
+         * @param name     the cast member's name
+         * @param order    the billing order
+         * @param position the position in the document
+         */
+        private CastMember(final String name, final int order, final int position) {
+            this.name = name;
+            this.order = order;
+            this.position = position;
+        }
+    }
+}
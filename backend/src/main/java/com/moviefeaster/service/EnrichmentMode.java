@@ -0,0 +1,55 @@
+package com.moviefeaster.service;
+
+/**
+ * Enum representing how discover entries are enriched into complete movies.
+ */
+public enum EnrichmentMode {
+    /** One {@code /movie/{id}/credits} request per movie; other fields come from the discover entry. */
+    CREDITS("credits"),
+
+    /**
+     * One {@code /movie/{id}?append_to_response=credits} request per movie, which also brings
+     * the runtime and original language.
+     */
+    DETAILS("details");
+
+    /**
+     * The string representation of the mode.
+     */
+    private final String value;
+
+    /**
+     * Constructs an enum constant with the associated string value.
+     *
+     * @param value the string identifier for the mode
+     */
+    EnrichmentMode(final String value) {
+        this.value = value;
+    }
+
+    /**
+     * Returns the string value associated with this mode.
+     *
+     * @return the string representation (e.g., "details")
+     */
+    public String getValue() {
+        return value;
+    }
+
+    /**
+     * Get the enum constant from the string value.
+     *
+     * @param value the string representation like "credits"
+     * @return matching EnrichmentMode or null if not found
+     */
+    public static EnrichmentMode fromValue(final String value) {
+        EnrichmentMode result = null;
+        for (final EnrichmentMode mode : values()) {
+            if (mode.value.equalsIgnoreCase(value)) {
+                result = mode;
+                break;
+            }
+        }
+        return result;
+    }
+}
@@ -0,0 +1,126 @@
+package com.moviefeaster.service;
+
+import com.moviefeaster.utils.StreamHandler;
+
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Movie source reading TMDB documents saved on disk, for offline and reproducible runs.
+ *
+ * <p>The root is either a single discover document, read as page 1 with no credits, or a
+ * directory laid out as:
+ * <pre>
+ * discover/page-1.json, discover/page-2.json, ...
+ * credits/{movieId}.json
+ * details/{movieId}.json
+ * </pre>
+ * Pages are counted from 1 up to the first missing file. Missing credits or details yield the fallback.
+ */
+public final class FixtureMovieSource implements MovieSource {
+
+    /** The fixture directory or single discover document. */
+    private final Path root;
+
+    /**
+     * Constructs a fixture source.
+     *
+     * @param root the fixture directory or a single discover document
+     */
+    public FixtureMovieSource(final Path root) {
+        this.root = root;
+    }
+
+    @Override
+    public int discoverPageCount() {
+        int count = 0;
+        if (Files.isRegularFile(root)) {
+            count = 1;
+        } else {
+            while (Files.isRegularFile(discoverPath(root, count + 1))) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    @Override
+    public <T> T readDiscoverPage(final int page, final StreamHandler<T> handler, final T fallback)
+            throws IOException {
+        final Path file;
+        if (Files.isRegularFile(root)) {
+            file = page == 1 ? root : null;
+        } else {
+            file = discoverPath(root, page);
+        }
+        return read(file, handler, fallback);
+    }
+
+    @Override
+    public <T> T readCredits(final int movieId, final StreamHandler<T> handler, final T fallback)
+            throws IOException {
+        return Files.isDirectory(root) ? read(creditsPath(root, movieId), handler, fallback) : fallback;
+    }
+
+    @Override
+    public <T> T readDetails(final int movieId, final StreamHandler<T> handler, final T fallback)
+            throws IOException {
+        return Files.isDirectory(root) ? read(detailsPath(root, movieId), handler, fallback) : fallback;
+    }
+
+    /**
+     * Get the file of a discover page in a fixture directory.
+     *
+     * @param root the fixture directory
+     * @param page the page number, starting at 1
+     * @return the page's file
+     */
+    static Path discoverPath(final Path root, final int page) {
+        return root.resolve("discover").resolve("page-" + page + ".json");
+    }
+
+    /**
+     * Get the file of a movie's credits in a fixture directory.
+     *
+     * @param root    the fixture directory
+     * @param movieId the TMDB movie ID
+     * @return the credits file
+     */
+    static Path creditsPath(final Path root, final int movieId) {
+        return root.resolve("credits").resolve(movieId + ".json");
+    }
+
+    /**
+     * Get the file of a movie's details in a fixture directory.
+     *
+     * @param root    the fixture directory
+     * @param movieId the TMDB movie ID
+     * @return the details file
+     */
+    static Path detailsPath(final Path root, final int movieId) {
+        return root.resolve("details").resolve(movieId + ".json");
+    }
+
+    /**
+     * Hand a file to the handler, or return the fallback if it does not exist.
+     *
+     * @param file     the file, possibly null
+     * @param handler  reads the document
+     * @param fallback value returned for a missing file
+     * @param <T>      result type
+     * @return the handler's result, or the fallback
+     * @throws IOException if the file cannot be read
+     */
+    private static <T> T read(final Path file, final StreamHandler<T> handler, final T fallback)
+            throws IOException {
+        if (file == null || !Files.isRegularFile(file)) {
+            return fallback;
+        }
+        try (InputStream in = new BufferedInputStream(Files.newInputStream(file))) {
+            return handler.handle(in);
+        }
+    }
+}
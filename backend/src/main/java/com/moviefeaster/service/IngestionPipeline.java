@@ -0,0 +1,512 @@
+package com.moviefeaster.service;
+
+import com.moviefeaster.model.Movie;
+import com.moviefeaster.utils.AppConfig;
+import com.moviefeaster.utils.ConcurrentFetcher;
+import com.moviefeaster.utils.IntHashSet;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
+
+/**
+ * Loads a catalog of any size as a staged pipeline:
+ * <pre>
+ * page fetch (n threads) -&gt; parse (1 thread) -&gt; credits enrichment (n threads) -&gt; index (caller)
+ * </pre>
+ * Full loads and refreshes run the same stages; a refresh passes {@link #run(Function)} a hook
+ * that rebuilds movies already in the catalog from their new summary, so only new movies are
+ * enriched.
+ * Stages are connected by bounded queues, so a slow stage holds back the ones before it and
+ * the memory in flight stays the same whatever the catalog size. Only a window of discover
+ * pages is fetched ahead of the page being parsed, and parsing stops requesting pages once
+ * the catalog size is reached. Movies keep their discover order; a movie listed again on a
+ * later page, as happens when popularity shifts during the load, is dropped before enrichment.
+ *
+ * <p>Every stage ends its output stream however it stops, so the stages after it always finish.
+ * A movie that cannot be built even without credits is skipped; any other failure of a stage
+ * makes {@link #run} throw once the remaining stages have drained.
+ */
+public final class IngestionPipeline {
+
+    /** Logger instance for logging skipped pages and credits. */
+    private static final Logger LOGGER = LoggerFactory.getLogger(IngestionPipeline.class);
+
+    /** Number of discover pages fetched at once. */
+    private static final int PAGE_PARALLELISM = AppConfig.getInt("TMDB_PAGE_PARALLELISM", 10);
+
+    /** Capacity of the queues between the parse, enrichment and index stages. */
+    private static final int QUEUE_CAPACITY = AppConfig.getInt("INGEST_QUEUE_CAPACITY", 256);
+
+    /** Largest number of movie IDs the duplicate filter is sized for up front. */
+    private static final int MAX_PRESIZE = 1 << 16;
+
+    /** Page handed on when every discover page has been fetched. */
+    private static final Page LAST_PAGE = new Page(-1, null);
+
+    /** Movie handed on when a stage has no more movies. */
+    private static final Positioned<?> END = new Positioned<>(-1, null);
+
+    /** Where the discover pages and credits come from. */
+    private final MovieSource source;
+
+    /** Maximum number of movies to load. */
+    private final int catalogSize;
+
+    /** Number of discover pages fetched at once. */
+    private final int pageParallelism;
+
+    /** Number of credits read at once. */
+    private final int creditsParallelism;
+
+    /** Which document the enrichment stage reads per movie. */
+    private final EnrichmentMode enrichmentMode;
+
+    /** Maximum time in milliseconds one movie's request may take before it gets no credits. */
+    private final long enrichTimeoutMillis;
+
+    /** Capacity of the queues between the parse, enrichment and index stages. */
+    private final int queueCapacity;
+
+    /** Movies handed to enrichment so far. */
+    private final AtomicInteger moviesQueued = new AtomicInteger();
+
+    /** Movies enriched so far. */
+    private final AtomicInteger moviesEnriched = new AtomicInteger();
+
+    /** Movies built by the reuse hook instead of being enriched. */
+    private final AtomicInteger moviesReused = new AtomicInteger();
+
+    /** Movies dropped because an earlier page already listed them. */
+    private final AtomicInteger duplicatesDropped = new AtomicInteger();
+
+    /** First unexpected failure of a stage, or null. */
+    private final AtomicReference<Throwable> failure = new AtomicReference<>();
+
+    /** Set once the catalog size is reached, so no further pages are fetched. */
+    private volatile boolean enoughMovies;
+
+    /**
+     * Constructs a pipeline with the configured catalog size, parallelism, queue capacity,
+     * enrichment mode and timeout.
+     *
+     * @param source where the discover pages and credits come from
+     */
+    public IngestionPipeline(final MovieSource source) {
+        this(source, MovieParser.CATALOG_SIZE, PAGE_PARALLELISM, MovieParser.CREDITS_PARALLELISM, QUEUE_CAPACITY,
+                MovieParser.ENRICHMENT_MODE, MovieParser.CREDITS_TIMEOUT_MS);
+    }
+
+    /**
+     * Constructs a pipeline with the configured enrichment timeout.
+     *
+     * @param source             where the discover pages and credits come from
+     * @param catalogSize        maximum number of movies to load
+     * @param pageParallelism    number of discover pages fetched at once
+     * @param creditsParallelism number of credits read at once
+     * @param queueCapacity      capacity of the queues between the later stages
+     * @param enrichmentMode     which document the enrichment stage reads per movie
+     */
+    public IngestionPipeline(final MovieSource source, final int catalogSize, final int pageParallelism,
+                             final int creditsParallelism, final int queueCapacity,
+                             final EnrichmentMode enrichmentMode) {
+        this(source, catalogSize, pageParallelism, creditsParallelism, queueCapacity, enrichmentMode,
+                MovieParser.CREDITS_TIMEOUT_MS);
+    }
+
+    /**
+     * Constructs a pipeline.
+     *
+     * @param source              where the discover pages and credits come from
+     * @param catalogSize         maximum number of movies to load
+     * @param pageParallelism     number of discover pages fetched at once
+     * @param creditsParallelism  number of credits read at once
+     * @param queueCapacity       capacity of the queues between the later stages
+     * @param enrichmentMode      which document the enrichment stage reads per movie
+     * @param enrichTimeoutMillis maximum time one movie's request may take
+     */
+    public IngestionPipeline(final MovieSource source, final int catalogSize, final int pageParallelism,
+                             final int creditsParallelism, final int queueCapacity,
+                             final EnrichmentMode enrichmentMode, final long enrichTimeoutMillis) {
+        this.source = source;
+        this.catalogSize = Math.max(0, catalogSize);
+        this.pageParallelism = Math.max(1, pageParallelism);
+        this.creditsParallelism = Math.max(1, creditsParallelism);
+        this.queueCapacity = Math.max(1, queueCapacity);
+        this.enrichmentMode = enrichmentMode;
+        this.enrichTimeoutMillis = enrichTimeoutMillis;
+    }
+
+    /**
+     * Get the number of movies handed to enrichment so far, which becomes the catalog size once
+     * every page has been parsed.
+     *
+     * @return the number of movies found
+     */
+    public int getMoviesQueued() {
+        return moviesQueued.get();
+    }
+
+    /**
+     * Get the number of movies enriched so far.
+     *
+     * @return the number of movies done
+     */
+    public int getMoviesEnriched() {
+        return moviesEnriched.get();
+    }
+
+    /**
+     * Get the number of movies the reuse hook built so far without a request.
+     *
+     * @return the number of movies reused
+     */
+    public int getMoviesReused() {
+        return moviesReused.get();
+    }
+
+    /**
+     * Get the number of movies dropped so far because an earlier discover page already listed them.
+     *
+     * @return the number of duplicates skipped before enrichment
+     */
+    public int getDuplicatesDropped() {
+        return duplicatesDropped.get();
+    }
+
+    /**
+     * Run every stage and wait for the catalog.
+     * Pages and credits that cannot be read are logged and skipped, as in a normal load.
+     *
+     * @return the movies in discover order, at most the catalog size
+     * @throws InterruptedException  if interrupted while waiting; the stages are stopped
+     * @throws IllegalStateException if a stage failed unexpectedly
+     */
+    public List<Movie> run() throws InterruptedException {
+        return run(summary -> null);
+    }
+
+    /**
+     * Run every stage and wait for the catalog, building a movie with the reuse hook instead of
+     * enriching it whenever the hook returns one.
+     *
+     * @param reuse builds a movie from its summary without a request, or returns null to enrich
+     *              it; called from the enrichment threads
+     * @return the movies in discover order, at most the catalog size
+     * @throws InterruptedException  if interrupted while waiting; the stages are stopped
+     * @throws IllegalStateException if a stage failed unexpectedly
+     */
+    public List<Movie> run(final Function<MovieParser.MovieSummary, Movie> reuse) throws InterruptedException {
+        final int pageCount = source.discoverPageCount();
+        final int pageWindow = 2 * pageParallelism;
+        final Semaphore window = new Semaphore(pageWindow);
+        final BlockingQueue<Page> pages = new ArrayBlockingQueue<>(pageWindow + 1);
+        final BlockingQueue<Positioned<MovieParser.MovieSummary>> summaries = new ArrayBlockingQueue<>(queueCapacity);
+        final BlockingQueue<Positioned<Movie>> movies = new ArrayBlockingQueue<>(queueCapacity);
+
+        final AtomicInteger nextPage = new AtomicInteger(1);
+        final AtomicInteger fetchersLeft = new AtomicInteger(pageParallelism);
+        final ExecutorService executor = Executors.newFixedThreadPool(pageParallelism + 1 + creditsParallelism,
+                new NamedDaemonThreadFactory());
+        try {
+            for (int i = 0; i < pageParallelism; i++) {
+                executor.execute(() -> runStage(() -> fetchPages(pageCount, nextPage, window, pages), () -> {
+                    if (fetchersLeft.decrementAndGet() == 0) {
+                        pages.put(LAST_PAGE);
+                    }
+                }));
+            }
+            executor.execute(() -> runStage(() -> parsePages(pages, window, summaries),
+                    () -> endOfStream(summaries, creditsParallelism)));
+            final Semaphore requests = new Semaphore(creditsParallelism);
+            for (int i = 0; i < creditsParallelism; i++) {
+                executor.execute(() -> runStage(() -> enrich(summaries, movies, requests, reuse),
+                        () -> endOfStream(movies, 1)));
+            }
+            final List<Movie> result = index(movies);
+            final Throwable failed = failure.get();
+            if (failed != null) {
+                throw new IllegalStateException("Ingestion stage failed: " + failed.getMessage(), failed);
+            }
+            return result;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Run a stage on a pipeline thread, then end its output stream whether it finished or
+     * failed, so the stages after it finish too. A failure is recorded for {@link #run}. An
+     * interrupted stage ends nothing: the run is being stopped and nobody waits for it.
+     *
+     * @param stage the stage's work
+     * @param end   tells the next stage that no more input follows
+     */
+    private void runStage(final Step stage, final Step end) {
+        try {
+            stage.run();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return;
+        } catch (RuntimeException | Error e) {
+            LOGGER.error("Ingestion stage {} failed", Thread.currentThread().getName(), e);
+            failure.compareAndSet(null, e);
+        }
+        try {
+            end.run();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Page fetch stage: read raw discover pages while the window allows.
+     *
+     * @throws InterruptedException if interrupted while waiting
+     */
+    private void fetchPages(final int pageCount, final AtomicInteger nextPage, final Semaphore window,
+                            final BlockingQueue<Page> pages) throws InterruptedException {
+        while (!enoughMovies) {
+            window.acquire();
+            final int page = nextPage.getAndIncrement();
+            if (page > pageCount || enoughMovies) {
+                window.release();
+                break;
+            }
+            pages.put(new Page(page, readPage(page)));
+        }
+    }
+
+    /**
+     * Parse stage: put fetched pages back in page order and hand their movies on one at a time,
+     * numbering them by discover position. Movie IDs already handed on are skipped.
+     *
+     * @throws InterruptedException if interrupted while waiting
+     */
+    private void parsePages(final BlockingQueue<Page> pages, final Semaphore window,
+                            final BlockingQueue<Positioned<MovieParser.MovieSummary>> summaries)
+            throws InterruptedException {
+        final Map<Integer, Page> pending = new TreeMap<>();
+        final IntHashSet seen = new IntHashSet(Math.min(catalogSize, MAX_PRESIZE));
+        int expected = 1;
+        int position = 0;
+        Page page = pages.take();
+        while (page != LAST_PAGE) {
+            pending.put(page.number, page);
+            Page next = pending.remove(expected);
+            while (next != null) {
+                window.release();
+                expected++;
+                if (!enoughMovies) {
+                    for (final MovieParser.MovieSummary summary : parse(next)) {
+                        if (position >= catalogSize) {
+                            break;
+                        }
+                        if (!seen.add(summary.getMovieID())) {
+                            duplicatesDropped.incrementAndGet();
+                            continue;
+                        }
+                        summaries.put(new Positioned<>(position++, summary));
+                        moviesQueued.incrementAndGet();
+                    }
+                    enoughMovies = position >= catalogSize;
+                }
+                next = pending.remove(expected);
+            }
+            page = pages.take();
+        }
+    }
+
+    /**
+     * Enrichment stage: read the credits or details of each movie the reuse hook does not build,
+     * and build the movie. Each request runs on a fetcher thread under the enrichment timeout; a request that fails
+     * or times out leaves its movie without credits. A timed out request keeps its permit until
+     * it really returns, so hung requests never add up to more than the enrichment parallelism.
+     * A movie that cannot be built even without credits is logged and skipped.
+     *
+     * @throws InterruptedException if interrupted while waiting
+     */
+    private void enrich(final BlockingQueue<Positioned<MovieParser.MovieSummary>> summaries,
+                        final BlockingQueue<Positioned<Movie>> movies, final Semaphore requests,
+                        final Function<MovieParser.MovieSummary, Movie> reuse) throws InterruptedException {
+        Positioned<MovieParser.MovieSummary> summary = summaries.take();
+        while (summary != END) {
+            Movie movie = reuse.apply(summary.value);
+            if (movie != null) {
+                moviesReused.incrementAndGet();
+            } else {
+                try {
+                    movie = ConcurrentFetcher.fetch(summary.value,
+                            value -> MovieParser.enrich(source, value, enrichmentMode),
+                            value -> MovieParser.toMovie(value, MovieParser.Credits.empty()),
+                            requests, enrichTimeoutMillis);
+                } catch (IllegalStateException e) {
+                    LOGGER.warn("Skipping movie ID {}: {}", summary.value.getMovieID(), e.getCause());
+                }
+            }
+            if (movie != null) {
+                movies.put(new Positioned<>(summary.position, movie));
+            }
+            moviesEnriched.incrementAndGet();
+            summary = summaries.take();
+        }
+    }
+
+    /**
+     * Index stage: place every enriched movie at its discover position.
+     *
+     * @param movies the enriched movies, in any order
+     * @return the movies in discover order
+     * @throws InterruptedException if interrupted while waiting
+     */
+    private List<Movie> index(final BlockingQueue<Positioned<Movie>> movies) throws InterruptedException {
+        Movie[] slots = new Movie[Math.min(catalogSize, queueCapacity)];
+        int count = 0;
+        int enrichersLeft = creditsParallelism;
+        while (enrichersLeft > 0) {
+            final Positioned<Movie> movie = movies.take();
+            if (movie == END) {
+                enrichersLeft--;
+            } else {
+                if (movie.position >= slots.length) {
+                    slots = Arrays.copyOf(slots, Math.max(movie.position + 1, slots.length * 2));
+                }
+                slots[movie.position] = movie.value;
+                count = Math.max(count, movie.position + 1);
+            }
+        }
+        final List<Movie> result = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            if (slots[i] != null) {
+                result.add(slots[i]);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Fetch the raw body of a discover page.
+     *
+     * @param page the page number
+     * @return the body, or null if the page could not be fetched
+     */
+    private byte[] readPage(final int page) {
+        byte[] body = null;
+        try {
+            body = source.readDiscoverPage(page, InputStream::readAllBytes, null);
+        } catch (IOException | RuntimeException e) {
+            LOGGER.warn("Skipping movies page {}: {}", page, e.getMessage());
+        }
+        return body;
+    }
+
+    /**
+     * Parse the movies of a fetched page.
+     *
+     * @param page the fetched page
+     * @return the page's movies, empty if it could not be fetched or parsed
+     */
+    private static List<MovieParser.MovieSummary> parse(final Page page) {
+        List<MovieParser.MovieSummary> result = List.of();
+        if (page.body != null) {
+            try {
+                result = MovieParser.readSummaries(new ByteArrayInputStream(page.body));
+            } catch (IOException | RuntimeException e) {
+                LOGGER.warn("Skipping unreadable movies page {}: {}", page.number, e.getMessage());
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Tell the consumers of a queue that no more movies follow.
+     *
+     * @param queue     the queue
+     * @param consumers number of threads taking from the queue
+     * @param <T>       movie type
+     * @throws InterruptedException if interrupted while waiting for room
+     */
+    @SuppressWarnings("unchecked")
+    private static <T> void endOfStream(final BlockingQueue<Positioned<T>> queue, final int consumers)
+            throws InterruptedException {
+        for (int i = 0; i < consumers; i++) {
+            queue.put((Positioned<T>) END);
+        }
+    }
+
+    /** Work of a pipeline stage. */
+    @FunctionalInterface
+    private interface Step {
+
+        /**
+         * Do the work.
+         *
+         * @throws InterruptedException if interrupted while waiting
+         */
+        void run() throws InterruptedException;
+    }
+
+    /** A fetched discover page. */
+    private static final class Page {
+
+        /** The page number. */
+        private final int number;
+
+        /** The raw page, or null if it could not be fetched. */
+        private final byte[] body;
+
+        Page(final int number, final byte[] body) {
+            this.number = number;
+            this.body = body;
+        }
+    }
+
+    /**
+     * A movie with its discover position.
+     *
+     * @param <T> movie type
+     */
+    private static final class Positioned<T> {
+
+        /** Position in discover order, from 0. */
+        private final int position;
+
+        /** The movie. */
+        private final T value;
+
+        Positioned(final int position, final T value) {
+            this.position = position;
+            this.value = value;
+        }
+    }
+
+    /** Creates the daemon threads of a pipeline run. */
+    private static final class NamedDaemonThreadFactory implements ThreadFactory {
+
+        /** Number of the next thread. */
+        private final AtomicInteger count = new AtomicInteger();
+
+        @Override
+        public Thread newThread(final Runnable task) {
+            final Thread thread = new Thread(task, "ingest-" + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+}
@@ -0,0 +1,125 @@
+package com.moviefeaster.service;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.moviefeaster.model.Movie;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+/**
+ * Utility class that maps a TMDB movie details document fetched with
+ * {@code append_to_response=credits} into a movie in one pass over its tokens.
+ * The embedded credits are read like a credits document; unused fields are skipped.
+ */
+public final class MovieDetailsParser {
+
+    /** Shared factory for streaming parsers; thread-safe. */
+    private static final JsonFactory FACTORY = new JsonFactory();
+
+    /** Private constructor to prevent instantiation. */
+    private MovieDetailsParser() { }
+
+    /**
+     * Parse a movie details document.
+     *
+     * @param json    the details response body
+     * @param maxCast maximum number of cast members to keep, lowest billing order first
+     * @return the movie, or null if the document is not an object
+     * @throws IOException if the stream is not valid JSON
+     */
+    public static Movie parse(final InputStream json, final int maxCast) throws IOException {
+        Movie movie = null;
+        try (JsonParser parser = FACTORY.createParser(json)) {
+            if (parser.nextToken() == JsonToken.START_OBJECT) {
+                movie = readMovie(parser, maxCast);
+            }
+        }
+        return movie;
+    }
+
+    /**
+     * Read the fields of the details object.
+     *
+     * @param parser  parser positioned at the start of the details object
+     * @param maxCast maximum number of cast members to keep
+     * @return the movie
+     * @throws IOException if the stream is not valid JSON
+     */
+    private static Movie readMovie(final JsonParser parser, final int maxCast) throws IOException {
+        final MovieParser.MovieSummary summary = new MovieParser.MovieSummary();
+        MovieParser.Credits credits = MovieParser.Credits.empty();
+        int runtime = 0;
+        String originalLanguage = null;
+
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            final String field = parser.currentName();
+            final JsonToken value = parser.nextToken();
+            if (value == JsonToken.VALUE_NULL) {
+                continue;
+            }
+            if (value.isStructStart() && !"genres".equals(field) && !"credits".equals(field)) {
+                parser.skipChildren();
+                continue;
+            }
+            switch (field) {
+                case "id" -> summary.setMovieID(parser.getValueAsInt());
+                case "title" -> summary.setTitle(parser.getValueAsString());
+                case "overview" -> summary.setOverview(parser.getValueAsString());
+                case "release_date" -> summary.setReleaseDate(parser.getValueAsString());
+                case "popularity" -> summary.setRating(parser.getValueAsDouble());
+                case "poster_path" -> summary.setPosterPath(parser.getValueAsString());
+                case "runtime" -> runtime = parser.getValueAsInt();
+                case "original_language" -> originalLanguage = parser.getValueAsString();
+                case "genres" -> summary.setGenreID(readGenreIds(parser));
+                case "credits" -> {
+                    if (value == JsonToken.START_OBJECT) {
+                        credits = CreditsParser.readCredits(parser, maxCast);
+                    }
+                }
+                default -> parser.skipChildren();
+            }
+        }
+
+        final Movie movie = MovieParser.toMovie(summary, credits);
+        movie.setRuntime(runtime);
+        movie.setOriginalLanguage(originalLanguage);
+        return movie;
+    }
+
+    /**
+     * Read the IDs of a genres array of {@code {"id": ..., "name": ...}} objects.
+     *
+     * @param parser parser positioned at the start of the genres value
+     * @return the genre IDs in document order
+     * @throws IOException if the stream is not valid JSON
+     */
+    private static Set<Integer> readGenreIds(final JsonParser parser) throws IOException {
+        final Set<Integer> ids = new LinkedHashSet<>();
+        if (parser.currentToken() != JsonToken.START_ARRAY) {
+            parser.skipChildren();
+            return ids;
+        }
+        JsonToken element = parser.nextToken();
+        while (element != null && element != JsonToken.END_ARRAY) {
+            if (element == JsonToken.START_OBJECT) {
+                while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                    final String field = parser.currentName();
+                    final JsonToken value = parser.nextToken();
+                    if ("id".equals(field) && value == JsonToken.VALUE_NUMBER_INT) {
+                        ids.add(parser.getIntValue());
+                    } else {
+                        parser.skipChildren();
+                    }
+                }
+            } else {
+                parser.skipChildren();
+            }
+            element = parser.nextToken();
+        }
+        return ids;
+    }
+}
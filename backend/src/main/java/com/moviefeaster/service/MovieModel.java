@@ -2,6 +2,10 @@ package com.moviefeaster.service;
 
 import com.moviefeaster.utils.*;
 import com.moviefeaster.model.*;
+import jakarta.annotation.PreDestroy;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 
 import org.slf4j.Logger;
@@ -10,10 +14,21 @@ import org.slf4j.LoggerFactory;
 import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.util.Locale;
 import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
 
 /**
  * Service class that implements MovieModelInterface to provide movie filtering,
@@ -25,8 +40,21 @@ public class MovieModel implements MovieModelInterface {
     /** Logger instance for this class. */
     private static final Logger LOGGER = LoggerFactory.getLogger(MovieModel.class);
 
-    /** List of all movies. */
-    private List<Movie> movies;
+    /** Delay before the first retry of a failed load, in milliseconds; it doubles with every failure. */
+    private static final long RETRY_INITIAL_DELAY_MS = AppConfig.getLong("CATALOG_RETRY_INITIAL_DELAY_MS", 30_000L);
+
+    /** Longest delay between retries of a failed load, in milliseconds. */
+    private static final long RETRY_MAX_DELAY_MS = AppConfig.getLong("CATALOG_RETRY_MAX_DELAY_MS", 30L * 60 * 1000);
+
+    /** Runs the retries of failed loads. */
+    private static final ScheduledExecutorService RETRIES = Executors.newSingleThreadScheduledExecutor(task -> {
+        final Thread thread = new Thread(task, "catalog-retry");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    /** The published catalog; replaced as a whole by every load and refresh. */
+    private final AtomicReference<Catalog> catalog;
 
     /** List of filtered movies. */
     private List<Movie> processedMovies;
@@ -34,31 +62,373 @@ public class MovieModel implements MovieModelInterface {
     /** Default sorting type for movies. */
     private MovieSorterType defaultSortType;
 
+    /** Loading state of the catalog. */
+    private volatile CatalogState state;
+
+    /** Pipeline of the current or last load, or null before the first load. */
+    private volatile IngestionPipeline pipeline;
+
+    /** Start of the current or last load, from {@link System#currentTimeMillis()}. */
+    private volatile long loadStartedMillis;
+
+    /** End of the last load, or 0 while loading. */
+    private volatile long loadFinishedMillis;
+
+    /** File the catalog is saved to and restored from on startup. */
+    private final Path snapshotPath;
+
+    /** Where movies are loaded from. */
+    private final MovieSource source;
+
+    /** Delay before the first retry of a failed load, in milliseconds. */
+    private final long retryInitialDelayMillis;
+
+    /** Delay before the next retry of a failed load, in milliseconds; guarded by {@code this}. */
+    private long retryDelayMillis;
+
+    /** The scheduled retry of a failed load, or null if none is pending; guarded by {@code this}. */
+    private ScheduledFuture<?> pendingRetry;
+
     /**
      * Public constructor initializes movie lists and default sort type.
+     * Movies are not loaded here; see {@link #startWarmUp()}.
      */
     public MovieModel() {
-        this.movies = new ArrayList<>();
+        this(MovieSource.fromConfig(),
+                Paths.get(AppConfig.getString("CATALOG_SNAPSHOT_PATH", ".cache/catalog.snapshot")));
+    }
+
+    /**
+     * Constructor saving and restoring the catalog with the given snapshot file.
+     *
+     * @param snapshotPath the catalog snapshot file
+     */
+    MovieModel(final Path snapshotPath) {
+        this(MovieSource.fromConfig(), snapshotPath);
+    }
+
+    /**
+     * Constructor loading movies from the given source.
+     *
+     * @param source       where movies are loaded from
+     * @param snapshotPath the catalog snapshot file
+     */
+    MovieModel(final MovieSource source, final Path snapshotPath) {
+        this(source, snapshotPath, RETRY_INITIAL_DELAY_MS);
+    }
+
+    /**
+     * Constructor loading movies from the given source and retrying failed loads after the
+     * given delay.
+     *
+     * @param source           where movies are loaded from
+     * @param snapshotPath     the catalog snapshot file
+     * @param retryDelayMillis delay before the first retry of a failed load, in milliseconds
+     */
+    MovieModel(final MovieSource source, final Path snapshotPath, final long retryDelayMillis) {
+        this.source = source;
+        this.snapshotPath = snapshotPath;
+        this.retryInitialDelayMillis = retryDelayMillis;
+        this.retryDelayMillis = retryDelayMillis;
+        this.catalog = new AtomicReference<>(Catalog.empty());
         this.processedMovies = new ArrayList<>();
         this.defaultSortType = MovieSorterType.TITLE_ASC;
-        fetchMovies();
+        this.state = CatalogState.COLD;
+    }
+
+    /**
+     * Start loading the catalog in the background once the application is up,
+     * so startup does not wait on the TMDB API. A saved snapshot is served right away
+     * and then refreshed; without one the catalog is fetched in full.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void startWarmUp() {
+        final Runnable load = loadSnapshot() ? this::refreshMovies : this::fetchMovies;
+        final Thread warmUp = new Thread(load, "catalog-warm-up");
+        warmUp.setDaemon(true);
+        warmUp.start();
     }
 
     /**
-     * Fetch movie's data from TMDB API and ingest into a movie list.
+     * Fetch movie's data from the movie source and ingest into a movie list.
+     * The previous list keeps being served until the new one is complete. A load that fails or
+     * returns no movies publishes nothing, leaves the catalog {@link CatalogState#FAILED} and is
+     * retried after a delay that doubles with every failure.
      */
     @Override
     public void fetchMovies() {
-        this.movies = MovieParser.getMoviesFromApi();
+        final IngestionPipeline current = new IngestionPipeline(this.source);
+        this.state = CatalogState.WARMING;
+        this.pipeline = current;
+        this.loadStartedMillis = System.currentTimeMillis();
+        this.loadFinishedMillis = 0;
+        try {
+            final List<Movie> movies = current.run();
+            if (movies.isEmpty()) {
+                this.state = CatalogState.FAILED;
+                LOGGER.warn("Loading the movie catalog returned no movies; still serving version {}.",
+                        this.catalog.get().getVersion());
+                scheduleRetry();
+                return;
+            }
+            final Catalog loaded = publish(movies);
+            this.state = CatalogState.READY;
+            resetRetries();
+            LOGGER.info("Catalog version {} loaded: {} movies in {} ms.",
+                    loaded.getVersion(), loaded.size(), System.currentTimeMillis() - this.loadStartedMillis);
+            releaseNames(loaded);
+            saveSnapshot();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            this.state = CatalogState.FAILED;
+            LOGGER.warn("Loading the movie catalog was interrupted.");
+        } catch (RuntimeException e) {
+            this.state = CatalogState.FAILED;
+            LOGGER.error("Failed to load the movie catalog", e);
+            scheduleRetry();
+        } finally {
+            this.loadFinishedMillis = System.currentTimeMillis();
+        }
+    }
+
+    /**
+     * Report how far loading the catalog has progressed.
+     *
+     * @return the current warm-up status
+     */
+    public WarmUpStatus getWarmUpStatus() {
+        final long end = this.loadFinishedMillis > 0 ? this.loadFinishedMillis : System.currentTimeMillis();
+        final long elapsed = this.loadStartedMillis > 0 ? end - this.loadStartedMillis : 0;
+        final IngestionPipeline current = this.pipeline;
+        final int loaded = current != null ? current.getMoviesEnriched() : 0;
+        final int target = current != null ? current.getMoviesQueued() : 0;
+        final Catalog published = this.catalog.get();
+        return new WarmUpStatus(this.state, loaded, target, published.size(), published.getVersion(), elapsed);
+    }
+
+    /**
+     * Check whether there is no catalog to serve yet. This covers a model that has not started
+     * loading, a first load still running, and a first load that failed and is waiting for a retry.
+     *
+     * @return true while nothing is published and the catalog is not ready
+     */
+    public boolean isCatalogUnavailable() {
+        return this.state != CatalogState.READY && this.catalog.get().isEmpty();
+    }
+
+    /**
+     * Refresh the catalog from the movie source on a schedule.
+     * Movies still in the top list keep their credits, comments and in-app ratings and only have
+     * their catalog data updated; credits are fetched for new movies and for movies whose credits
+     * are still empty. The refresh runs through the same {@link IngestionPipeline} as a full load,
+     * so its memory stays flat whatever the catalog size. A refresh that fails or finds no movies
+     * leaves the catalog as it is.
+     */
+    @Override
+    @Scheduled(initialDelayString = "${moviefeaster.refresh.interval-ms:3600000}",
+            fixedDelayString = "${moviefeaster.refresh.interval-ms:3600000}")
+    public void refreshMovies() {
+        if (this.state == CatalogState.WARMING) {
+            LOGGER.info("Skipping catalog refresh: the catalog is still loading.");
+            return;
+        }
+        try {
+            if (refreshMovies(new IngestionPipeline(this.source))) {
+                this.state = CatalogState.READY;
+                resetRetries();
+                saveSnapshot();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            LOGGER.warn("Refreshing the movie catalog was interrupted.");
+        } catch (RuntimeException e) {
+            LOGGER.error("Failed to refresh the movie catalog", e);
+        }
+    }
+
+    /**
+     * Schedule another load after a failed one, unless one is already pending, and double the
+     * delay before the next retry up to {@code CATALOG_RETRY_MAX_DELAY_MS}.
+     */
+    private synchronized void scheduleRetry() {
+        if (this.pendingRetry != null) {
+            return;
+        }
+        final long delay = this.retryDelayMillis;
+        this.retryDelayMillis = Math.min(delay * 2, Math.max(RETRY_MAX_DELAY_MS, this.retryInitialDelayMillis));
+        LOGGER.info("Retrying the catalog load in {} ms.", delay);
+        this.pendingRetry = RETRIES.schedule(this::retryLoad, delay, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Run a scheduled retry, unless a load or refresh has succeeded since it was scheduled.
+     */
+    private void retryLoad() {
+        synchronized (this) {
+            this.pendingRetry = null;
+        }
+        if (this.state == CatalogState.FAILED) {
+            fetchMovies();
+        }
+    }
+
+    /**
+     * Cancel any pending retry and start the next run of failures from the initial delay.
+     */
+    private synchronized void resetRetries() {
+        this.retryDelayMillis = this.retryInitialDelayMillis;
+        if (this.pendingRetry != null) {
+            this.pendingRetry.cancel(false);
+            this.pendingRetry = null;
+        }
+    }
+
+    /**
+     * Restore the catalog from the snapshot file, if there is a readable one.
+     *
+     * @return true if movies were restored
+     */
+    boolean loadSnapshot() {
+        boolean loaded = false;
+        if (Files.isRegularFile(this.snapshotPath)) {
+            final long start = System.currentTimeMillis();
+            try {
+                final List<Movie> restored = CatalogSnapshot.read(this.snapshotPath);
+                LOGGER.info("Catalog snapshot loaded: {} movies in {} ms.",
+                        restored.size(), System.currentTimeMillis() - start);
+                if (!restored.isEmpty()) {
+                    releaseNames(publish(restored));
+                    this.state = CatalogState.READY;
+                    loaded = true;
+                }
+            } catch (IOException e) {
+                LOGGER.warn("Ignoring catalog snapshot {}: {}", this.snapshotPath, e.getMessage());
+            }
+        }
+        return loaded;
+    }
+
+    /**
+     * Save the catalog, including comments and in-app ratings, to the snapshot file.
+     * Runs after every successful load and when the application shuts down; a failure is
+     * logged and leaves the previous snapshot in place.
+     */
+    @PreDestroy
+    public void saveSnapshot() {
+        final List<Movie> current = this.catalog.get().getMovies();
+        if (current.isEmpty()) {
+            return;
+        }
+        try {
+            CatalogSnapshot.write(current, this.snapshotPath);
+            LOGGER.info("Catalog snapshot saved: {} movies.", current.size());
+        } catch (IOException e) {
+            LOGGER.error("Failed to save catalog snapshot: {}", e.getMessage());
+        } catch (RuntimeException e) {
+            LOGGER.error("Failed to save catalog snapshot", e);
+        }
+    }
+
+    /**
+     * Run a refresh through a pipeline and publish the result. Every movie of the new version is
+     * a new object, so the published catalog is never changed: kept movies are rebuilt from their
+     * new summary with their old credits, without a request, and take over their comments and
+     * in-app ratings. New movies, and kept movies whose credits are still empty from an earlier
+     * failed fetch, are enriched by the pipeline.
+     *
+     * @param refresh the pipeline reading the new top list
+     * @return true if a new version was published, false if the source returned no movies
+     * @throws InterruptedException if interrupted while waiting for the pipeline
+     */
+    boolean refreshMovies(final IngestionPipeline refresh) throws InterruptedException {
+        final Map<Integer, Movie> current = new HashMap<>();
+        for (final Movie movie : this.catalog.get().getMovies()) {
+            current.put(movie.getMovieId(), movie);
+        }
+
+        final List<Movie> refreshed = refresh.run(summary -> {
+            final Movie existing = current.get(summary.getMovieID());
+            return existing == null || hasNoCredits(existing) ? null : MovieParser.toMovie(summary,
+                    new MovieParser.Credits(existing.getDirectors(), existing.getCastings()));
+        });
+        if (refreshed.isEmpty()) {
+            LOGGER.warn("Skipping catalog refresh: no movies returned from the source.");
+            return false;
+        }
+
+        int kept = 0;
+        for (final Movie movie : refreshed) {
+            final Movie existing = current.get(movie.getMovieId());
+            if (existing != null) {
+                movie.keepUserDataOf(existing);
+                kept++;
+            }
+        }
+
+        final Catalog published = publish(refreshed);
+        LOGGER.info("Catalog refreshed to version {}: {} movies, {} new, {} dropped, {} enriched.",
+                published.getVersion(), refreshed.size(), refreshed.size() - kept, current.size() - kept,
+                refreshed.size() - refresh.getMoviesReused());
+        releaseNames(published);
+        return true;
+    }
+
+    /**
+     * Check whether a movie has neither directors nor cast, as when fetching its credits failed.
+     *
+     * @param movie the movie
+     * @return true if the movie has no credits
+     */
+    private static boolean hasNoCredits(final Movie movie) {
+        return movie.getDirectors().isEmpty() && movie.getCastings().isEmpty();
+    }
+
+    /**
+     * Log what the name pool saved while building a catalog version, then prune the pool to the
+     * names of that version and reset its counters, so names of dropped movies can be collected
+     * and the next build is counted on its own.
+     *
+     * @param published the catalog version just published
+     */
+    private static void releaseNames(final Catalog published) {
+        final NamePool pool = NamePool.shared();
+        final Set<String> names = new HashSet<>();
+        for (final Movie movie : published.getMovies()) {
+            names.addAll(movie.getDirectors());
+            names.addAll(movie.getCastings());
+        }
+        final int dropped = pool.retainAll(names);
+        LOGGER.info("Name pool: {} lookups saved about {} KiB; {} names kept, {} released.",
+                pool.getLookups(), pool.getBytesSaved() / 1024, pool.size(), dropped);
+        pool.resetCounters();
+    }
+
+    /**
+     * Publish a new catalog version in a single atomic swap.
+     *
+     * @param movies the movies of the new version
+     * @return the published catalog
+     */
+    private Catalog publish(final List<Movie> movies) {
+        return this.catalog.updateAndGet(previous -> previous.next(movies));
+    }
+
+    /**
+     * Get the currently published catalog.
+     *
+     * @return the catalog
+     */
+    public Catalog getCatalog() {
+        return this.catalog.get();
     }
 
     /**
      * Get the original movies fetched from the TMDB API.
      *
-     * @return list of original movies
+     * @return unmodifiable list of original movies
      */
     public List<Movie> getMovies() {
-        return this.movies;
+        return this.catalog.get().getMovies();
     }
 
     /**
@@ -68,14 +438,7 @@ public class MovieModel implements MovieModelInterface {
      * @return movie with matching ID or null if not found
      */
     public Movie getMovieById(final int movieId) {
-        Movie result = null;
-        for (final Movie movie : this.movies) {
-            if (movie.getMovieId() == movieId) {
-                result = movie;
-                break;
-            }
-        }
-        return result;
+        return this.catalog.get().getMovie(movieId);
     }
 
     /**
@@ -95,7 +458,7 @@ public class MovieModel implements MovieModelInterface {
      */
     @Override
     public void writeFile(final boolean useProcessedMovie, final Format format) {
-        final List<Movie> moviesToWrite = useProcessedMovie ? this.processedMovies : this.movies;
+        final List<Movie> moviesToWrite = useProcessedMovie ? this.processedMovies : getMovies();
 
         try (OutputStream out = new FileOutputStream("output." + format.toString().toLowerCase(Locale.ROOT))) {
             DataFormatter.write(moviesToWrite, format, out);
@@ -113,17 +476,18 @@ public class MovieModel implements MovieModelInterface {
     @Override
     public void searchByFilter(final Map<MovieFilterType, Object> filtersStrategy) {
         if (filtersStrategy == null || filtersStrategy.isEmpty()) {
-            this.processedMovies = this.movies;
+            this.processedMovies = getMovies();
             sortMovieList(this.defaultSortType);
             return;
         }
 
-        final List<Movie> moviesToFilter = this.movies;
-        this.processedMovies = MovieFilterFacilitator.filter(moviesToFilter, filtersStrategy);
+        this.processedMovies = MovieFilterFacilitator.filter(getCatalog(), filtersStrategy);
         sortMovieList(this.defaultSortType);
     }
     /**
      * Sort the current processed movie list by the specified sort type.
+     * Movies of the published catalog are sorted on its columns; a list holding any other
+     * movie, e.g. one filtered from an earlier catalog version, is sorted by its getters.
      *
      * @param sortType sorting strategy to apply
      */
@@ -133,6 +497,11 @@ public class MovieModel implements MovieModelInterface {
         }
 
         final List<Movie> moviesToSort = this.processedMovies;
+        final List<Movie> sorted = getCatalog().getColumns().sort(moviesToSort, sortType);
+        if (sorted != null) {
+            this.processedMovies = sorted;
+            return;
+        }
         this.processedMovies = switch (sortType) {
             case TITLE_ASC -> MovieSorter.sortByTitle(moviesToSort);
             case TITLE_DESC -> MovieSorter.sortByTitleDescending(moviesToSort);
@@ -162,11 +531,9 @@ public class MovieModel implements MovieModelInterface {
      */
     @Override
     public void updateComments(final int movieId, final String comment) {
-        for (final Movie movie : this.movies) {
-            if (movie.getMovieId() == movieId) {
-                movie.addComment(comment);
-                break;
-            }
+        final Movie movie = this.catalog.get().getMovie(movieId);
+        if (movie != null) {
+            movie.addComment(comment);
         }
     }
 
@@ -178,11 +545,9 @@ public class MovieModel implements MovieModelInterface {
      */
     @Override
     public void updateRating(final int movieId, final double rating) {
-        for (final Movie movie : this.movies) {
-            if (movie.getMovieId() == movieId) {
-                movie.addInAppRating(rating);
-                break;
-            }
+        final Movie movie = this.catalog.get().getMovie(movieId);
+        if (movie != null) {
+            movie.addInAppRating(rating);
         }
     }
 }
@@ -16,6 +16,11 @@ public interface MovieModelInterface {
      */
     void fetchMovies();
 
+    /**
+     * Refresh the movie data from api, only fetching details of movies that are new.
+     */
+    void refreshMovies();
+
     /**
      * Write the movie data stored in the model to the file.
      *
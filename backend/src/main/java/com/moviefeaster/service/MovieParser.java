@@ -4,16 +4,21 @@ import com.moviefeaster.model.*;
 import com.moviefeaster.utils.*;
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import com.fasterxml.jackson.annotation.JsonProperty;
-import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
 import org.springframework.stereotype.Service;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.UncheckedIOException;
 import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Utility class to parse movies from a JSON InputStream.
@@ -24,124 +29,278 @@ public final class MovieParser {
     /** Logger instance for logging events and errors. */
     private static final Logger LOGGER = LoggerFactory.getLogger(MovieParser.class);
 
-    /** The deserialized and cleaned list of Movies. */
-    private static final List<Movie> MOVIES = new ArrayList<>();
+    /** Shared mapper; thread-safe once configured. */
+    private static final ObjectMapper MAPPER = new ObjectMapper();
 
-    /** The placeholder class for original JSON structure. */
-    private static List<MovieSummary> moviesSummary;
+    /** Reader binding one discover entry at a time from a streaming parser. */
+    private static final ObjectReader SUMMARY_READER = MAPPER.readerFor(MovieSummary.class);
 
-    /** The number of movies we're trying to parse. */
-    private static final int NUMBER_OF_MOVIES = 200;
+    /** The number of movies in the catalog. */
+    static final int CATALOG_SIZE = NetUtil.CATALOG_SIZE;
 
-    /** The root image URL to TMDB poster. */
-    private static final String IMAGE_BASE_URL = "https://image.tmdb.org/t/p/w500";
+    /** Maximum number of credits requests in flight at once. */
+    static final int CREDITS_PARALLELISM = AppConfig.getInt("TMDB_CREDITS_PARALLELISM", 8);
+
+    /** Maximum time in milliseconds a single credits request may take before its movie gets no credits. */
+    static final long CREDITS_TIMEOUT_MS = NetUtil.CREDITS_TIMEOUT_MS;
+
+    /** How movies are enriched, selected by the {@code ENRICHMENT_MODE} setting. */
+    static final EnrichmentMode ENRICHMENT_MODE = enrichmentModeFromConfig();
+
+    /** Maximum number of cast members kept per movie, in billing order. */
+    private static final int MAX_CAST = AppConfig.getInt("TMDB_MAX_CAST", 50);
+
+    /**
+     * The root URL of poster images, followed by a size and the file name: TMDB by default,
+     * or the poster proxy (e.g. {@code http://localhost:8080/api/posters}) so clients never
+     * reach TMDB directly.
+     */
+    private static final String IMAGE_BASE_URL = AppConfig.getString("POSTER_BASE_URL",
+            "https://image.tmdb.org/t/p");
+
+    /** The poster size used for the image URL. */
+    private static final String IMAGE_SIZE = AppConfig.getString("POSTER_SIZE", "w500");
+
+    /** Source used when none is given, selected by the {@code MOVIE_SOURCE} setting. */
+    private static final MovieSource DEFAULT_SOURCE = MovieSource.fromConfig();
 
     /** Private constructor to prevent instantiation. */
     private MovieParser() { }
 
     /**
-     * Get the TOP 50 movie list of the month from TMDB api.
+     * Get the top movie list of the month from TMDB api.
+     * Every call builds a new list; nothing is kept between calls.
      *
      * @return List of parsed movies
      */
     public static List<Movie> getMoviesFromApi() {
+        List<Movie> movies = new ArrayList<>();
         try {
-            parseMovies();
-            cleanMovieSummary();
-        } catch (IOException e) {
+            movies = new IngestionPipeline(DEFAULT_SOURCE).run();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            LOGGER.warn("Interrupted while loading movies from the API");
+        } catch (RuntimeException e) {
             LOGGER.error("Failed to parse movies from API", e);
         }
-        return MOVIES;
+        return movies;
     }
 
     /**
-     * Getter for the parsed movies with original form.
+     * Getter for the parsed movies with original form: the top list read through the ingestion
+     * pipeline without fetching any credits.
      *
-     * @return Collection of movie summaries
+     * @return Collection of movie summaries in discover order
      */
     public static Collection<MovieSummary> getParsedMoviesSummary() {
-        parseMovies();
-        return moviesSummary == null ? Collections.emptyList() : moviesSummary;
+        final Map<Integer, MovieSummary> byId = new ConcurrentHashMap<>();
+        final List<MovieSummary> summaries = new ArrayList<>();
+        try {
+            final List<Movie> movies = new IngestionPipeline(DEFAULT_SOURCE).run(summary -> {
+                byId.put(summary.getMovieID(), summary);
+                return toMovie(summary, Credits.empty());
+            });
+            for (final Movie movie : movies) {
+                summaries.add(byId.get(movie.getMovieId()));
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            LOGGER.warn("Interrupted while parsing movie summary");
+        } catch (RuntimeException e) {
+            LOGGER.error("Error while parsing movie summary", e);
+        }
+        return summaries;
+    }
+
+    /**
+     * Read movie summaries token by token from a discover response, without building a tree
+     * of the whole document. Accepts either an object with a {@code results} array or a bare array.
+     *
+     * @param json the discover response body
+     * @return the movie summaries in document order
+     * @throws IOException if the stream is not valid JSON
+     */
+    public static List<MovieSummary> readSummaries(final InputStream json) throws IOException {
+        final List<MovieSummary> summaries = new ArrayList<>();
+        try (JsonParser parser = MAPPER.getFactory().createParser(json)) {
+            JsonToken token = parser.nextToken();
+            if (token == JsonToken.START_OBJECT) {
+                token = advanceToField(parser, "results");
+            }
+            if (token == JsonToken.START_ARRAY) {
+                while (parser.nextToken() == JsonToken.START_OBJECT) {
+                    summaries.add(SUMMARY_READER.readValue(parser));
+                }
+            }
+        }
+        return summaries;
     }
 
     /**
-     * Parses the top N movies JSON into a list of MovieSummary objects.
+     * Move the parser to the value of a field of the current object, skipping other fields.
+     *
+     * @param parser    parser positioned at the start of an object
+     * @param fieldName name of the field to find
+     * @return the first token of the field's value, or null if the object has no such field
+     * @throws IOException if the stream is not valid JSON
      */
-    private static void parseMovies() {
-        try (InputStream jsonStream = NetUtil.getTop50MoviesJson()) {
-            final ObjectMapper mapper = new ObjectMapper();
-            final JsonNode root = mapper.readTree(jsonStream);
-
-            if (root.isArray()) {
-                moviesSummary = mapper.readerForListOf(MovieSummary.class).readValue(root);
-            } else {
-                final JsonNode results = root.path("results");
-                moviesSummary = mapper.readerForListOf(MovieSummary.class).readValue(results);
+    private static JsonToken advanceToField(final JsonParser parser, final String fieldName) throws IOException {
+        JsonToken result = null;
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            final String name = parser.currentName();
+            final JsonToken value = parser.nextToken();
+            if (fieldName.equals(name)) {
+                result = value;
+                break;
             }
+            parser.skipChildren();
+        }
+        return result;
+    }
+
+    /**
+     * Build a single movie from its summary with one request to the source. In
+     * {@link EnrichmentMode#CREDITS} mode the credits are read and the other fields come from the
+     * summary; in {@link EnrichmentMode#DETAILS} mode the details document with embedded credits
+     * supplies every field, falling back to the summary alone if the source has no details.
+     *
+     * @param source  where the credits or details come from
+     * @param summary the movie summary from the discover list
+     * @param mode    which document to read
+     * @return the movie
+     * @throws UncheckedIOException if the document cannot be read
+     */
+    static Movie enrich(final MovieSource source, final MovieSummary summary, final EnrichmentMode mode) {
+        final int movieId = summary.getMovieID();
+        if (mode != EnrichmentMode.DETAILS) {
+            return toMovie(summary, fetchCredits(source, movieId));
+        }
+        final Movie movie;
+        try {
+            movie = source.readDetails(movieId, body -> MovieDetailsParser.parse(body, MAX_CAST), null);
         } catch (IOException e) {
-            LOGGER.error("Error while parsing movie summary", e);
-            moviesSummary = Collections.emptyList();
+            throw new UncheckedIOException("Failed to read details for movie ID " + movieId, e);
         }
+        return movie != null ? movie : toMovie(summary, Credits.empty());
     }
 
     /**
-     * Transfer a movie type from the original JSON form to a conform movie type.
+     * Build a single movie from its summary and credits.
      *
-     * @throws IOException If the NetUtil unable to connect TMDB api to acquire a crew list by ID
+     * @param movie   the movie summary from the discover list
+     * @param credits the movie's directors and cast
+     * @return the movie
      */
-    private static void cleanMovieSummary() throws IOException {
-        for (final MovieSummary movie : moviesSummary) {
-            final int movieId = movie.getMovieID();
-            final String title = movie.getTitle();
-
-            final String releaseDate = movie.getReleaseDate();
-            final LocalDate date = LocalDate.parse(releaseDate);
-            final int year = date.getYear();
-
-            final List<Genre> genre = convertGenreIds(movie.getGenreID());
-            final String overview = movie.getOverview();
-            final List<String> directors = new ArrayList<>();
-            final List<String> castings = new ArrayList<>();
-            final double rating = movie.getRating();
-            final String imgUrl = IMAGE_BASE_URL + movie.getPosterPath();
-
-            try (InputStream crewJson = NetUtil.getCrewJsonStream(movie.getMovieID())) {
-                if (crewJson != null) {
-                    final ObjectMapper mapper = new ObjectMapper();
-                    final JsonNode root = mapper.readTree(crewJson);
-
-                    final JsonNode crewArray = root.get("crew");
-                    for (final JsonNode member : crewArray) {
-                        if ("Director".equals(member.get("job").asText())) {
-                            directors.add(member.get("name").asText());
-                        }
-                    }
-
-                    final JsonNode castArray = root.get("cast");
-                    for (final JsonNode actor : castArray) {
-                        final String actorName = actor.get("name").asText();
-                        castings.add(actorName);
-                    }
-                }
+    public static Movie toMovie(final MovieSummary movie, final Credits credits) {
+        final int movieId = movie.getMovieID();
+        final String title = movie.getTitle();
+        final int year = parseYear(movie.getReleaseDate());
+        final List<Genre> genre = convertGenreIds(movie.getGenreID());
+        final String overview = movie.getOverview();
+        final double rating = movie.getRating();
+        final String imgUrl = IMAGE_BASE_URL + "/" + IMAGE_SIZE + movie.getPosterPath();
+
+        return new Movie.Builder()
+                .movieId(movieId)
+                .title(title)
+                .directors(credits.getDirectors())
+                .year(year)
+                .rating(rating)
+                .genres(genre)
+                .overview(overview)
+                .castings(credits.getCastings())
+                .imgUrl(imgUrl)
+                .posterSrcset(posterSrcset(movie.getPosterPath()))
+                .build();
+    }
+
+    /**
+     * List the poster's thumbnail variants narrower than the image URL's size, smallest first,
+     * followed by the image URL itself, as srcset entries.
+     *
+     * @param posterPath the poster's TMDB path, e.g. {@code /abc.jpg}
+     * @return the srcset entries, empty if the movie has no poster
+     */
+    private static List<String> posterSrcset(final String posterPath) {
+        final List<String> srcset = new ArrayList<>();
+        if (posterPath == null || posterPath.isBlank()) {
+            return srcset;
+        }
+        final int imageWidth = IMAGE_SIZE.matches("w\\d+") ? Integer.parseInt(IMAGE_SIZE.substring(1)) : 0;
+        for (final int width : PosterThumbnailer.getWidths()) {
+            if (imageWidth == 0 || width < imageWidth) {
+                srcset.add(IMAGE_BASE_URL + "/w" + width + posterPath + " " + width + "w");
             }
+        }
+        if (imageWidth > 0) {
+            srcset.add(IMAGE_BASE_URL + "/" + IMAGE_SIZE + posterPath + " " + imageWidth + "w");
+        }
+        return srcset;
+    }
 
-            Movie movieToAdd = new Movie.Builder()
-                    .movieId(movieId)
-                    .title(title)
-                    .directors(directors)
-                    .year(year)
-                    .rating(rating)
-                    .genres(genre)
-                    .overview(overview)
-                    .castings(castings)
-                    .imgUrl(imgUrl)
-                    .build();
-            MOVIES.add(movieToAdd);
-
-            if (MOVIES.size() >= NUMBER_OF_MOVIES) {
-                break;
+    /**
+     * Rebuild the srcset entries of a poster from its image URL, whose last path segment is the
+     * poster's TMDB file name. Used for movies restored from a snapshot, which stores only the
+     * image URL; the entries follow the current poster settings.
+     *
+     * @param imgUrl the image URL, e.g. {@code https://image.tmdb.org/t/p/w500/abc.jpg}
+     * @return the srcset entries, empty if the URL names no poster file
+     */
+    static List<String> posterSrcsetOf(final String imgUrl) {
+        if (imgUrl == null) {
+            return new ArrayList<>();
+        }
+        final String posterPath = imgUrl.substring(imgUrl.lastIndexOf('/') + 1);
+        return posterPath.indexOf('.') > 0 ? posterSrcset("/" + posterPath) : new ArrayList<>();
+    }
+
+    /**
+     * Extract the year of a TMDB release date.
+     *
+     * @param releaseDate date in ISO format, possibly blank
+     * @return the year, or 0 if the date is missing or malformed
+     */
+    private static int parseYear(final String releaseDate) {
+        int year = 0;
+        if (releaseDate != null && !releaseDate.isBlank()) {
+            try {
+                year = LocalDate.parse(releaseDate).getYear();
+            } catch (DateTimeParseException e) {
+                LOGGER.warn("Ignoring malformed release date '{}'", releaseDate);
             }
         }
+        return year;
+    }
+
+    /**
+     * Fetch and parse the credits of a single movie.
+     *
+     * @param source  where the credits come from
+     * @param movieId the TMDB movie ID
+     * @return the directors and cast of the movie
+     * @throws UncheckedIOException if the credits document cannot be read
+     */
+    static Credits fetchCredits(final MovieSource source, final int movieId) {
+        try {
+            return source.readCredits(movieId, body -> CreditsParser.parse(body, MAX_CAST), Credits.empty());
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to read credits for movie ID " + movieId, e);
+        }
+    }
+
+    /**
+     * Read the enrichment mode from the {@code ENRICHMENT_MODE} setting, {@code credits} by default.
+     *
+     * @return the configured mode
+     */
+    private static EnrichmentMode enrichmentModeFromConfig() {
+        final String value = AppConfig.getString("ENRICHMENT_MODE", EnrichmentMode.CREDITS.getValue());
+        EnrichmentMode mode = EnrichmentMode.fromValue(value);
+        if (mode == null) {
+            LOGGER.warn("Unknown ENRICHMENT_MODE '{}', using credits.", value);
+            mode = EnrichmentMode.CREDITS;
+        }
+        return mode;
     }
 
     /**
@@ -152,6 +311,9 @@ public final class MovieParser {
      */
     private static List<Genre> convertGenreIds(final Set<Integer> genreIds) {
         final List<Genre> genres = new ArrayList<>();
+        if (genreIds == null) {
+            return genres;
+        }
         for (final Integer id : genreIds) {
             final Genre genre = Genre.fromId(id);
             if (genre != null) {
@@ -161,6 +323,52 @@ public final class MovieParser {
         return genres;
     }
 
+    /** Inner class holding the directors and cast extracted from a TMDB credits document. */
+    public static final class Credits {
+
+        /** Names of the movie's directors. */
+        private final List<String> directors;
+
+        /** Names of the movie's cast members. */
+        private final List<String> castings;
+
+        /**
+         * Constructs credits from already extracted names.
+         *
+         * @param directors names of the directors
+         * @param castings  names of the cast members
+         */
+        public Credits(final List<String> directors, final List<String> castings) {
+            this.directors = directors;
+            this.castings = castings;
+        }
+
+        /**
+         * Credits used when a movie's credits could not be fetched.
+         *
+         * @return credits with no directors and no cast
+         */
+        public static Credits empty() {
+            return new Credits(new ArrayList<>(), new ArrayList<>());
+        }
+
+        /**
+         * Gets the directors.
+         * @return the director names
+         */
+        public List<String> getDirectors() {
+            return directors;
+        }
+
+        /**
+         * Gets the cast members.
+         * @return the cast names
+         */
+        public List<String> getCastings() {
+            return castings;
+        }
+    }
+
     /** Inner class to map individual movie entries from TMDb API. */
     @JsonIgnoreProperties(ignoreUnknown = true)
     public static class MovieSummary {
@@ -0,0 +1,90 @@
+package com.moviefeaster.service;
+
+import com.moviefeaster.utils.AppConfig;
+import com.moviefeaster.utils.StreamHandler;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Locale;
+
+/**
+ * Where the raw movie documents come from: discover pages and per-movie credits, in the
+ * TMDB JSON format. Each document is handed to a handler as a stream while it is open.
+ */
+public interface MovieSource {
+
+    /**
+     * Get the number of discover pages to read.
+     *
+     * @return the number of pages, numbered from 1
+     */
+    int discoverPageCount();
+
+    /**
+     * Read one discover page.
+     *
+     * @param page     the page number, starting at 1
+     * @param handler  reads the discover document
+     * @param fallback value returned when the page is not available
+     * @param <T>      result type
+     * @return the handler's result, or the fallback
+     * @throws IOException if the page cannot be read
+     */
+    <T> T readDiscoverPage(int page, StreamHandler<T> handler, T fallback) throws IOException;
+
+    /**
+     * Read the credits of one movie.
+     *
+     * @param movieId  the TMDB movie ID
+     * @param handler  reads the credits document
+     * @param fallback value returned when the credits are not available
+     * @param <T>      result type
+     * @return the handler's result, or the fallback
+     * @throws IOException if the credits cannot be read
+     */
+    <T> T readCredits(int movieId, StreamHandler<T> handler, T fallback) throws IOException;
+
+    /**
+     * Read the details of one movie with its credits embedded under {@code credits}.
+     *
+     * @param movieId  the TMDB movie ID
+     * @param handler  reads the details document
+     * @param fallback value returned when the details are not available
+     * @param <T>      result type
+     * @return the handler's result, or the fallback
+     * @throws IOException if the details cannot be read
+     */
+    <T> T readDetails(int movieId, StreamHandler<T> handler, T fallback) throws IOException;
+
+    /**
+     * Create the source selected by the {@code MOVIE_SOURCE} setting: {@code tmdb} (default)
+     * for the live API, {@code fixture} to read the directory or file named by
+     * {@code MOVIE_SOURCE_DIR}, or {@code record} to replay that directory and record whatever
+     * it is missing from the live API.
+     *
+     * @return the configured source
+     */
+    static MovieSource fromConfig() {
+        final String type = AppConfig.getString("MOVIE_SOURCE", "tmdb").toLowerCase(Locale.ROOT);
+        final Path dir = Paths.get(AppConfig.getString("MOVIE_SOURCE_DIR", "fixtures/tmdb"));
+        final MovieSource source;
+        switch (type) {
+            case "fixture":
+                source = new FixtureMovieSource(dir);
+                break;
+            case "record":
+                source = new RecordReplayMovieSource(new TmdbMovieSource(), dir);
+                break;
+            case "tmdb":
+                source = new TmdbMovieSource();
+                break;
+            default:
+                LoggerFactory.getLogger(MovieSource.class).warn("Unknown MOVIE_SOURCE '{}', using tmdb.", type);
+                source = new TmdbMovieSource();
+                break;
+        }
+        return source;
+    }
+}
@@ -0,0 +1,574 @@
+package com.moviefeaster.service;
+
+import com.moviefeaster.utils.AppConfig;
+import com.moviefeaster.utils.TmdbHttpClient;
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import okhttp3.Response;
+import okhttp3.ResponseBody;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.channels.FileChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.DigestOutputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+import java.util.regex.Pattern;
+
+/**
+ * Bounded on-disk cache of poster images fetched from an upstream image server.
+ * Posters are stored under their TMDB file name and evicted least recently used first once
+ * the cache holds more than its byte budget. Every poster gets a strong ETag derived from
+ * its content. Downscaled variants are stored in {@code w<width>/} subdirectories, count
+ * towards their poster's size and are evicted with it.
+ */
+@Service
+public class PosterCache {
+
+    /** Logger instance for logging fetched and evicted posters. */
+    private static final Logger LOGGER = LoggerFactory.getLogger(PosterCache.class);
+
+    /** Upstream serving posters by file name, TMDB's w500 variant by default. */
+    private static final String UPSTREAM_URL = AppConfig.getString("POSTER_UPSTREAM_URL",
+            "https://image.tmdb.org/t/p/w500");
+
+    /** Directory the posters are stored in. */
+    private static final String CACHE_DIR = AppConfig.getString("POSTER_CACHE_DIR", ".cache/posters");
+
+    /** Maximum total size of the cached posters in bytes. */
+    private static final long CACHE_MAX_BYTES = AppConfig.getLong("POSTER_CACHE_MAX_BYTES", 256L * 1024 * 1024);
+
+    /** File names accepted as posters; anything else is never requested upstream. */
+    private static final Pattern FILE_NAME = Pattern.compile("[A-Za-z0-9_-]{1,128}\\.(jpg|jpeg|png|webp)");
+
+    /** Names of the subdirectories holding downscaled variants. */
+    private static final Pattern VARIANT_DIR = Pattern.compile("w\\d{1,4}");
+
+    /** Number of digest bytes used in an ETag. */
+    private static final int ETAG_BYTES = 16;
+
+    /** Client used for upstream requests. */
+    private final OkHttpClient client;
+
+    /** Upstream base URL, without a trailing slash. */
+    private final String upstream;
+
+    /** Directory the posters are stored in. */
+    private final Path directory;
+
+    /** Maximum total size of the cached posters in bytes. */
+    private final long maxBytes;
+
+    /** Cached posters by file name, least recently used first; guarded by this. */
+    private final LinkedHashMap<String, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+
+    /** Total size of the cached posters in bytes; guarded by this. */
+    private long totalBytes;
+
+    /** One lock per poster being fetched, so concurrent misses fetch it once. */
+    private final Map<String, Object> fetchLocks = new ConcurrentHashMap<>();
+
+    /** Called with the file name of every poster fetched from upstream. */
+    private volatile Consumer<String> storedListener = fileName -> { };
+
+    /**
+     * Constructs the cache with the configured upstream, directory and size.
+     */
+    public PosterCache() {
+        this(TmdbHttpClient.configure(new OkHttpClient.Builder()).build(), UPSTREAM_URL,
+                Paths.get(CACHE_DIR), CACHE_MAX_BYTES);
+    }
+
+    /**
+     * Constructs a cache, picking up posters already stored in the directory.
+     *
+     * @param client    client used for upstream requests
+     * @param upstream  base URL the file names are appended to
+     * @param directory directory the posters are stored in
+     * @param maxBytes  maximum total size of the cached posters in bytes
+     */
+    public PosterCache(final OkHttpClient client, final String upstream, final Path directory, final long maxBytes) {
+        this.client = client;
+        this.upstream = upstream.endsWith("/") ? upstream.substring(0, upstream.length() - 1) : upstream;
+        this.directory = directory;
+        this.maxBytes = Math.max(0, maxBytes);
+        loadIndex();
+    }
+
+    /**
+     * Check whether a name can be a poster file name.
+     *
+     * @param fileName the name to check
+     * @return true if the name is a plain image file name
+     */
+    public static boolean isPosterFileName(final String fileName) {
+        return fileName != null && FILE_NAME.matcher(fileName).matches();
+    }
+
+    /**
+     * Open a poster, fetching it from upstream first if it is not cached.
+     * The caller must close the returned poster.
+     *
+     * @param fileName the poster's file name, e.g. {@code abc.jpg}
+     * @return the open poster, or null if the upstream does not have it
+     * @throws IllegalArgumentException if the name is not a poster file name
+     * @throws IOException              if the poster cannot be fetched or read
+     */
+    public Poster open(final String fileName) throws IOException {
+        if (!isPosterFileName(fileName)) {
+            throw new IllegalArgumentException("Not a poster file name: " + fileName);
+        }
+        Poster poster = openCached(fileName);
+        if (poster == null) {
+            final Object lock = fetchLocks.computeIfAbsent(fileName, name -> new Object());
+            try {
+                synchronized (lock) {
+                    poster = openCached(fileName);
+                    if (poster == null && fetch(fileName)) {
+                        poster = openCached(fileName);
+                        storedListener.accept(fileName);
+                    }
+                }
+            } finally {
+                fetchLocks.remove(fileName, lock);
+            }
+        }
+        return poster;
+    }
+
+    /**
+     * Open a downscaled variant of a cached poster. The variant's ETag is its poster's ETag
+     * tagged with the width, as the variant is derived from the poster's content alone.
+     * The caller must close the returned poster.
+     *
+     * @param fileName the poster's file name
+     * @param width    the variant's width in pixels
+     * @return the open variant, or null if the poster or the variant is not cached
+     * @throws IOException if the cached file cannot be read
+     */
+    public synchronized Poster openVariant(final String fileName, final int width) throws IOException {
+        final Entry entry = entries.get(fileName);
+        if (entry == null || !entry.variants.containsKey(width)) {
+            return null;
+        }
+        if (entry.etag == null) {
+            entry.etag = etagOf(directory.resolve(fileName));
+        }
+        final String etag = entry.etag.substring(0, entry.etag.length() - 1) + "-w" + width + "\"";
+        final FileChannel channel = FileChannel.open(variantPath(fileName, width), StandardOpenOption.READ);
+        return new Poster(variantPath(fileName, width), channel, entry.variants.get(width), etag,
+                contentType(fileName));
+    }
+
+    /**
+     * Check whether a variant of a poster is cached.
+     *
+     * @param fileName the poster's file name
+     * @param width    the variant's width in pixels
+     * @return true if the variant is cached
+     */
+    public synchronized boolean hasVariant(final String fileName, final int width) {
+        final Entry entry = entries.get(fileName);
+        return entry != null && entry.variants.containsKey(width);
+    }
+
+    /**
+     * Check whether a poster is known to be no wider than a width, so it needs no variant of
+     * that width and serves as one itself.
+     *
+     * @param fileName the poster's file name
+     * @param width    the variant's width in pixels
+     * @return true if the poster's width is known and at most the given width
+     */
+    public synchronized boolean fitsWidth(final String fileName, final int width) {
+        final Entry entry = entries.get(fileName);
+        return entry != null && entry.width > 0 && entry.width <= width;
+    }
+
+    /**
+     * Record the width of a cached poster, read when the poster is decoded.
+     *
+     * @param fileName the poster's file name
+     * @param width    the poster's width in pixels
+     */
+    public synchronized void setWidth(final String fileName, final int width) {
+        final Entry entry = entries.get(fileName);
+        if (entry != null) {
+            entry.width = width;
+        }
+    }
+
+    /**
+     * Get the file a variant of a poster is stored in.
+     *
+     * @param fileName the poster's file name
+     * @param width    the variant's width in pixels
+     * @return the variant's file
+     */
+    public Path variantPath(final String fileName, final int width) {
+        return directory.resolve("w" + width).resolve(fileName);
+    }
+
+    /**
+     * Add a variant written to {@link #variantPath}. If its poster has been evicted in the
+     * meantime the variant is deleted instead.
+     *
+     * @param fileName the poster's file name
+     * @param width    the variant's width in pixels
+     * @return true if the variant was added
+     * @throws IOException if the variant's size cannot be read
+     */
+    public synchronized boolean addVariant(final String fileName, final int width) throws IOException {
+        final Path file = variantPath(fileName, width);
+        final Entry entry = entries.get(fileName);
+        if (entry == null) {
+            Files.deleteIfExists(file);
+            return false;
+        }
+        final long bytes = Files.size(file);
+        final Long previous = entry.variants.put(width, bytes);
+        final long added = bytes - (previous != null ? previous : 0L);
+        entry.size += added;
+        totalBytes += added;
+        evict(fileName);
+        return true;
+    }
+
+    /**
+     * Get the file names of the cached posters, least recently used first.
+     *
+     * @return the file names
+     */
+    public synchronized List<String> fileNames() {
+        return new ArrayList<>(entries.keySet());
+    }
+
+    /**
+     * Set the callback told about every poster fetched from upstream, e.g. to derive variants.
+     *
+     * @param listener called with the poster's file name after it is stored
+     */
+    public void setStoredListener(final Consumer<String> listener) {
+        this.storedListener = listener != null ? listener : fileName -> { };
+    }
+
+    /**
+     * Get the total size of the cached posters.
+     *
+     * @return the size in bytes
+     */
+    public synchronized long getTotalBytes() {
+        return totalBytes;
+    }
+
+    /**
+     * Get the number of cached posters.
+     *
+     * @return the number of posters
+     */
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    /**
+     * Open a cached poster without fetching it and mark it as recently used. Opening and eviction
+     * hold the same lock, so an opened poster stays readable even if it is evicted while being served.
+     * The caller must close the returned poster.
+     *
+     * @param fileName the poster's file name
+     * @return the open poster, or null if it is not cached
+     * @throws IOException if the cached file cannot be read
+     */
+    public synchronized Poster openCached(final String fileName) throws IOException {
+        final Entry entry = entries.get(fileName);
+        if (entry == null) {
+            return null;
+        }
+        if (entry.etag == null) {
+            entry.etag = etagOf(directory.resolve(fileName));
+        }
+        final Path file = directory.resolve(fileName);
+        final FileChannel channel = FileChannel.open(file, StandardOpenOption.READ);
+        return new Poster(file, channel, channel.size(), entry.etag, contentType(fileName));
+    }
+
+    /**
+     * Download a poster into the directory and add it to the cache.
+     *
+     * @param fileName the poster's file name
+     * @return true if the poster was stored, false if the upstream does not have it
+     * @throws IOException if the request or the write fails
+     */
+    private boolean fetch(final String fileName) throws IOException {
+        final Request request = new Request.Builder().url(upstream + "/" + fileName).get().build();
+        try (Response response = client.newCall(request).execute()) {
+            final ResponseBody body = response.body();
+            if (!response.isSuccessful() || body == null) {
+                LOGGER.warn("Poster {} not available upstream: HTTP status {}", fileName, response.code());
+                return false;
+            }
+            Files.createDirectories(directory);
+            final Path temp = Files.createTempFile(directory, fileName, ".tmp");
+            try {
+                final MessageDigest digest = sha256();
+                try (InputStream in = body.byteStream();
+                     OutputStream out = new DigestOutputStream(Files.newOutputStream(temp), digest)) {
+                    in.transferTo(out);
+                }
+                final Path file = directory.resolve(fileName);
+                try {
+                    Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+                } catch (AtomicMoveNotSupportedException e) {
+                    Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING);
+                }
+                add(fileName, new Entry(Files.size(file), etag(digest.digest())));
+            } finally {
+                Files.deleteIfExists(temp);
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Add a stored poster and evict the least recently used ones until the cache fits its budget.
+     *
+     * @param fileName the poster's file name
+     * @param entry    the poster's size and ETag
+     */
+    private synchronized void add(final String fileName, final Entry entry) {
+        final Entry previous = entries.put(fileName, entry);
+        totalBytes += entry.size - (previous != null ? previous.size : 0);
+        evict(fileName);
+    }
+
+    /**
+     * Evict the least recently used posters with their variants until the cache fits its budget.
+     * The given poster is never evicted, so a poster larger than the budget is still served.
+     *
+     * @param keep the file name of the poster to keep
+     */
+    private synchronized void evict(final String keep) {
+        final Iterator<Map.Entry<String, Entry>> eldest = entries.entrySet().iterator();
+        while (totalBytes > maxBytes && eldest.hasNext()) {
+            final Map.Entry<String, Entry> victim = eldest.next();
+            if (victim.getKey().equals(keep)) {
+                continue;
+            }
+            eldest.remove();
+            totalBytes -= victim.getValue().size;
+            try {
+                Files.deleteIfExists(directory.resolve(victim.getKey()));
+                for (final Integer width : victim.getValue().variants.keySet()) {
+                    Files.deleteIfExists(variantPath(victim.getKey(), width));
+                }
+            } catch (IOException e) {
+                LOGGER.warn("Could not delete evicted poster {}: {}", victim.getKey(), e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Index the posters and variants already in the directory, oldest first, and trim them to
+     * the budget. Variants whose poster is gone are deleted.
+     */
+    private void loadIndex() {
+        if (!Files.isDirectory(directory)) {
+            return;
+        }
+        final List<Path> files = new ArrayList<>();
+        final List<Path> variantDirs = new ArrayList<>();
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory)) {
+            for (final Path file : stream) {
+                final String name = file.getFileName().toString();
+                if (Files.isRegularFile(file) && isPosterFileName(name)) {
+                    files.add(file);
+                } else if (Files.isDirectory(file) && VARIANT_DIR.matcher(name).matches()) {
+                    variantDirs.add(file);
+                }
+            }
+            files.sort(Comparator.comparingLong(PosterCache::lastModified));
+            for (final Path file : files) {
+                add(file.getFileName().toString(), new Entry(Files.size(file), null));
+            }
+            for (final Path variantDir : variantDirs) {
+                final int width = Integer.parseInt(variantDir.getFileName().toString().substring(1));
+                try (DirectoryStream<Path> variants = Files.newDirectoryStream(variantDir)) {
+                    for (final Path variant : variants) {
+                        final String name = variant.getFileName().toString();
+                        if (isPosterFileName(name)) {
+                            addVariant(name, width);
+                        }
+                    }
+                }
+            }
+        } catch (IOException e) {
+            LOGGER.warn("Could not index poster cache {}: {}", directory, e.getMessage());
+        }
+        LOGGER.info("Poster cache holds {} posters, {} bytes", size(), getTotalBytes());
+    }
+
+    private static long lastModified(final Path file) {
+        try {
+            return Files.getLastModifiedTime(file).toMillis();
+        } catch (IOException e) {
+            return 0L;
+        }
+    }
+
+    private static String etagOf(final Path file) throws IOException {
+        final MessageDigest digest = sha256();
+        try (InputStream in = Files.newInputStream(file);
+             OutputStream out = new DigestOutputStream(OutputStream.nullOutputStream(), digest)) {
+            in.transferTo(out);
+        }
+        return etag(digest.digest());
+    }
+
+    private static String etag(final byte[] digest) {
+        return "\"" + HexFormat.of().formatHex(digest, 0, ETAG_BYTES) + "\"";
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    private static String contentType(final String fileName) {
+        final String extension = fileName.substring(fileName.lastIndexOf('.') + 1).toLowerCase(Locale.ROOT);
+        return switch (extension) {
+            case "png" -> "image/png";
+            case "webp" -> "image/webp";
+            default -> "image/jpeg";
+        };
+    }
+
+    /**
+     * Size, variants, width and ETag of a cached poster; the width and ETag are computed on first
+     * use for posters found on disk.
+     */
+    private static final class Entry {
+
+        /** Size of the poster and its variants in bytes. */
+        private long size;
+
+        /** Strong ETag, or null until computed. */
+        private String etag;
+
+        /** Width of the poster in pixels, or 0 until known. */
+        private int width;
+
+        /** Sizes of the cached variants in bytes, by width. */
+        private final Map<Integer, Long> variants = new HashMap<>();
+
+        Entry(final long size, final String etag) {
+            this.size = size;
+            this.etag = etag;
+        }
+    }
+
+    /**
+     * A cached poster opened for reading.
+     */
+    public static final class Poster implements Closeable {
+
+        /** The poster file. */
+        private final Path path;
+
+        /** Channel reading the poster file. */
+        private final FileChannel channel;
+
+        /** Size of the poster in bytes. */
+        private final long size;
+
+        /** Strong ETag of the poster's content, quoted. */
+        private final String etag;
+
+        /** Media type of the poster. */
+        private final String contentType;
+
+        Poster(final Path path, final FileChannel channel, final long size, final String etag,
+               final String contentType) {
+            this.path = path;
+            this.channel = channel;
+            this.size = size;
+            this.etag = etag;
+            this.contentType = contentType;
+        }
+
+        /**
+         * Get the poster file, for handing to a container that sends files by name.
+         *
+         * @return the path of the poster file
+         */
+        public Path getPath() {
+            return path;
+        }
+
+        /**
+         * Get the channel reading the poster file.
+         *
+         * @return the channel
+         */
+        public FileChannel getChannel() {
+            return channel;
+        }
+
+        /**
+         * Get the size of the poster.
+         *
+         * @return the size in bytes
+         */
+        public long getSize() {
+            return size;
+        }
+
+        /**
+         * Get the strong ETag of the poster's content.
+         *
+         * @return the quoted ETag
+         */
+        public String getEtag() {
+            return etag;
+        }
+
+        /**
+         * Get the media type of the poster.
+         *
+         * @return the media type, e.g. {@code image/jpeg}
+         */
+        public String getContentType() {
+            return contentType;
+        }
+
+        @Override
+        public void close() throws IOException {
+            channel.close();
+        }
+    }
+}
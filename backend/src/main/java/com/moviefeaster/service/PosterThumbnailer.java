@@ -0,0 +1,334 @@
+package com.moviefeaster.service;
+
+import com.moviefeaster.utils.AppConfig;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReader;
+import javax.imageio.stream.ImageInputStream;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Background pipeline downscaling cached posters into smaller width variants for list grids.
+ * Each poster is decoded once and scaled down to every configured width, largest first, each
+ * variant from the previous one; posters are processed in parallel on one thread per core.
+ * Variants are stored in the {@link PosterCache} next to their poster. A poster no wider than a
+ * width needs no variant of it; its width is recorded in the cache so it is not decoded again.
+ */
+@Service
+public class PosterThumbnailer {
+
+    /** Logger instance for logging failed posters. */
+    private static final Logger LOGGER = LoggerFactory.getLogger(PosterThumbnailer.class);
+
+    /** Variant widths in pixels, smallest first; all are sizes TMDB serves as well. */
+    static final List<Integer> WIDTHS = parseWidths(AppConfig.getString("POSTER_THUMBNAIL_WIDTHS", "92,185,342"));
+
+    /** Number of posters scaled at once. */
+    private static final int THREADS = AppConfig.getInt("POSTER_THUMBNAIL_THREADS",
+            Runtime.getRuntime().availableProcessors());
+
+    /** Cache the posters are read from and the variants are stored in. */
+    private final PosterCache cache;
+
+    /** Variant widths in pixels, largest first. */
+    private final List<Integer> widths;
+
+    /** Threads scaling the posters. */
+    private final ExecutorService executor;
+
+    /** Posters queued or being scaled, so a poster is never scaled twice at once. */
+    private final Map<String, CompletableFuture<Void>> pending = new ConcurrentHashMap<>();
+
+    /**
+     * Constructs the pipeline with the configured widths and one thread per core, and has it
+     * scale every poster the cache fetches from now on.
+     *
+     * @param cache the poster cache
+     */
+    @Autowired
+    public PosterThumbnailer(final PosterCache cache) {
+        this(cache, WIDTHS, THREADS);
+    }
+
+    /**
+     * Constructs the pipeline and has it scale every poster the cache fetches from now on.
+     *
+     * @param cache   the poster cache
+     * @param widths  the variant widths in pixels
+     * @param threads the number of posters scaled at once
+     */
+    public PosterThumbnailer(final PosterCache cache, final List<Integer> widths, final int threads) {
+        this.cache = cache;
+        final List<Integer> descending = new ArrayList<>(widths);
+        descending.sort(Collections.reverseOrder());
+        this.widths = List.copyOf(descending);
+        final AtomicInteger count = new AtomicInteger();
+        this.executor = Executors.newFixedThreadPool(Math.max(1, threads), task -> {
+            final Thread thread = new Thread(task, "poster-thumbnail-" + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        cache.setStoredListener(this::submit);
+    }
+
+    /**
+     * Get the variant widths, smallest first.
+     *
+     * @return the widths in pixels
+     */
+    public static List<Integer> getWidths() {
+        return WIDTHS;
+    }
+
+    /**
+     * Queue every cached poster that is missing a variant, so posters cached before a restart
+     * or a change of widths get their variants too. Widths are not kept across restarts, so a
+     * poster missing a variant first has its width read from the image header; posters too
+     * narrow for the missing variants are not queued.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void scheduleCachedPosters() {
+        int queued = 0;
+        for (final String fileName : cache.fileNames()) {
+            if (missesVariant(fileName) && (!readWidth(fileName) || missesVariant(fileName))) {
+                submit(fileName);
+                queued++;
+            }
+        }
+        LOGGER.info("Queued {} cached posters for thumbnails", queued);
+    }
+
+    /**
+     * Queue a cached poster for scaling unless it is already queued.
+     *
+     * @param fileName the poster's file name
+     * @return completes once the poster's variants have been written or skipped
+     */
+    public CompletableFuture<Void> submit(final String fileName) {
+        final CompletableFuture<Void> created = new CompletableFuture<>();
+        final CompletableFuture<Void> existing = pending.putIfAbsent(fileName, created);
+        if (existing != null) {
+            return existing;
+        }
+        try {
+            executor.execute(() -> {
+                try {
+                    generate(fileName);
+                } finally {
+                    pending.remove(fileName, created);
+                    created.complete(null);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            pending.remove(fileName, created);
+            created.complete(null);
+        }
+        return created;
+    }
+
+    /**
+     * Stop scaling; queued posters are dropped and get their variants on the next start.
+     */
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Check whether a poster lacks a variant it is wide enough for, or whose width is unknown.
+     *
+     * @param fileName the poster's file name
+     * @return true if a variant is missing
+     */
+    private boolean missesVariant(final String fileName) {
+        for (final int width : widths) {
+            if (!cache.hasVariant(fileName, width) && !cache.fitsWidth(fileName, width)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Read a cached poster's width from its image header, without decoding the image, and
+     * record it in the cache.
+     *
+     * @param fileName the poster's file name
+     * @return true if the width was recorded
+     */
+    private boolean readWidth(final String fileName) {
+        try (PosterCache.Poster poster = cache.openCached(fileName)) {
+            if (poster == null) {
+                return false;
+            }
+            try (ImageInputStream input = ImageIO.createImageInputStream(
+                    Channels.newInputStream(poster.getChannel()))) {
+                final Iterator<ImageReader> readers = input != null
+                        ? ImageIO.getImageReaders(input) : Collections.emptyIterator();
+                if (!readers.hasNext()) {
+                    return false;
+                }
+                final ImageReader reader = readers.next();
+                try {
+                    reader.setInput(input, true, true);
+                    cache.setWidth(fileName, reader.getWidth(0));
+                    return true;
+                } finally {
+                    reader.dispose();
+                }
+            }
+        } catch (IOException | RuntimeException e) {
+            LOGGER.debug("Could not read the width of poster {}: {}", fileName, e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * Decode a cached poster, record its width and write each missing variant narrower than the poster.
+     * Posters that are no longer cached or cannot be decoded are skipped.
+     *
+     * @param fileName the poster's file name
+     */
+    private void generate(final String fileName) {
+        try {
+            final BufferedImage image;
+            try (PosterCache.Poster poster = cache.openCached(fileName)) {
+                if (poster == null) {
+                    return;
+                }
+                image = ImageIO.read(Channels.newInputStream(poster.getChannel()));
+            }
+            if (image == null) {
+                LOGGER.debug("Poster {} has no decoder, skipping thumbnails", fileName);
+                return;
+            }
+            cache.setWidth(fileName, image.getWidth());
+            final String format = format(fileName);
+            BufferedImage source = image;
+            for (final int width : widths) {
+                if (width >= image.getWidth() || cache.hasVariant(fileName, width)) {
+                    continue;
+                }
+                source = scale(source, width, "png".equals(format));
+                write(source, format, cache.variantPath(fileName, width));
+                if (!cache.addVariant(fileName, width)) {
+                    return;
+                }
+            }
+        } catch (IOException | RuntimeException e) {
+            LOGGER.warn("Could not create thumbnails for poster {}: {}", fileName, e.getMessage());
+        }
+    }
+
+    /**
+     * Scale an image down to a width, keeping its aspect ratio. The size is at most halved per
+     * step, so bilinear filtering samples every source pixel.
+     *
+     * @param source the image to scale
+     * @param width  the target width, smaller than the source's
+     * @param alpha  whether to keep an alpha channel
+     * @return the scaled image
+     */
+    static BufferedImage scale(final BufferedImage source, final int width, final boolean alpha) {
+        final int height = Math.max(1, (int) Math.round((double) source.getHeight() * width / source.getWidth()));
+        final int type = alpha ? BufferedImage.TYPE_INT_ARGB : BufferedImage.TYPE_INT_RGB;
+        BufferedImage current = source;
+        int currentWidth = source.getWidth();
+        int currentHeight = source.getHeight();
+        do {
+            currentWidth = Math.max(width, currentWidth / 2);
+            currentHeight = Math.max(height, currentHeight / 2);
+            final BufferedImage next = new BufferedImage(currentWidth, currentHeight, type);
+            final Graphics2D graphics = next.createGraphics();
+            try {
+                graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION,
+                        RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+                graphics.drawImage(current, 0, 0, currentWidth, currentHeight, null);
+            } finally {
+                graphics.dispose();
+            }
+            current = next;
+        } while (currentWidth != width || currentHeight != height);
+        return current;
+    }
+
+    /**
+     * Encode an image next to its target and move it into place, so a variant file is never
+     * seen half-written.
+     *
+     * @param image  the image to encode
+     * @param format the ImageIO format name
+     * @param file   the variant file
+     * @throws IOException if the image cannot be encoded or written
+     */
+    private static void write(final BufferedImage image, final String format, final Path file) throws IOException {
+        Files.createDirectories(file.getParent());
+        final Path temp = Files.createTempFile(file.getParent(), file.getFileName().toString(), ".tmp");
+        try {
+            if (!ImageIO.write(image, format, temp.toFile())) {
+                throw new IOException("No " + format + " encoder available");
+            }
+            try {
+                Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    private static String format(final String fileName) {
+        final String extension = fileName.substring(fileName.lastIndexOf('.') + 1).toLowerCase(Locale.ROOT);
+        return "png".equals(extension) ? "png" : "jpg";
+    }
+
+    /**
+     * Parse a comma-separated list of widths, ignoring blank, malformed and non-positive entries.
+     *
+     * @param value the list, e.g. {@code "92,185,342"}
+     * @return the distinct widths, smallest first
+     */
+    static List<Integer> parseWidths(final String value) {
+        final List<Integer> result = new ArrayList<>();
+        for (final String part : value.split(",")) {
+            try {
+                final int width = Integer.parseInt(part.trim());
+                if (width > 0 && !result.contains(width)) {
+                    result.add(width);
+                }
+            } catch (NumberFormatException e) {
+                LOGGER.warn("Ignoring malformed thumbnail width '{}'", part);
+            }
+        }
+        Collections.sort(result);
+        return List.copyOf(result);
+    }
+}
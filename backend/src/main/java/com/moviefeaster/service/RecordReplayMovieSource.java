@@ -0,0 +1,108 @@
+package com.moviefeaster.service;
+
+import com.moviefeaster.utils.StreamHandler;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+
+/**
+ * Movie source that replays documents recorded on disk and records the ones it is missing.
+ * Documents already in the directory are served from it; any other document is read from the
+ * live source, saved in the {@link FixtureMovieSource} layout and then handed to the handler.
+ * Once a run has recorded everything, the directory can be replayed with a fixture source alone.
+ */
+public final class RecordReplayMovieSource implements MovieSource {
+
+    /** Source of documents that have not been recorded yet. */
+    private final MovieSource live;
+
+    /** Directory the documents are recorded to. */
+    private final Path root;
+
+    /** Reads documents already recorded. */
+    private final FixtureMovieSource replay;
+
+    /**
+     * Constructs a record-and-replay source.
+     *
+     * @param live source of documents that have not been recorded yet
+     * @param root directory the documents are recorded to
+     */
+    public RecordReplayMovieSource(final MovieSource live, final Path root) {
+        this.live = live;
+        this.root = root;
+        this.replay = new FixtureMovieSource(root);
+    }
+
+    @Override
+    public int discoverPageCount() {
+        return live.discoverPageCount();
+    }
+
+    @Override
+    public <T> T readDiscoverPage(final int page, final StreamHandler<T> handler, final T fallback)
+            throws IOException {
+        final Path file = FixtureMovieSource.discoverPath(root, page);
+        if (Files.isRegularFile(file)) {
+            return replay.readDiscoverPage(page, handler, fallback);
+        }
+        return record(file, live.readDiscoverPage(page, InputStream::readAllBytes, null), handler, fallback);
+    }
+
+    @Override
+    public <T> T readCredits(final int movieId, final StreamHandler<T> handler, final T fallback)
+            throws IOException {
+        final Path file = FixtureMovieSource.creditsPath(root, movieId);
+        if (Files.isRegularFile(file)) {
+            return replay.readCredits(movieId, handler, fallback);
+        }
+        return record(file, live.readCredits(movieId, InputStream::readAllBytes, null), handler, fallback);
+    }
+
+    @Override
+    public <T> T readDetails(final int movieId, final StreamHandler<T> handler, final T fallback)
+            throws IOException {
+        final Path file = FixtureMovieSource.detailsPath(root, movieId);
+        if (Files.isRegularFile(file)) {
+            return replay.readDetails(movieId, handler, fallback);
+        }
+        return record(file, live.readDetails(movieId, InputStream::readAllBytes, null), handler, fallback);
+    }
+
+    /**
+     * Save a live document and hand it to the handler. Unavailable documents are not recorded,
+     * so a later run asks the live source again.
+     *
+     * @param file     where the document is recorded
+     * @param body     the document, or null if the live source did not have it
+     * @param handler  reads the document
+     * @param fallback value returned when the document is not available
+     * @param <T>      result type
+     * @return the handler's result, or the fallback
+     * @throws IOException if the document cannot be saved or read
+     */
+    private static <T> T record(final Path file, final byte[] body, final StreamHandler<T> handler,
+                                final T fallback) throws IOException {
+        if (body == null) {
+            return fallback;
+        }
+        Files.createDirectories(file.getParent());
+        final Path temp = Files.createTempFile(file.getParent(), file.getFileName().toString(), ".tmp");
+        try {
+            Files.write(temp, body);
+            try {
+                Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+        return handler.handle(new ByteArrayInputStream(body));
+    }
+}
@@ -0,0 +1,35 @@
+package com.moviefeaster.service;
+
+import com.moviefeaster.utils.NetUtil;
+import com.moviefeaster.utils.StreamHandler;
+
+import java.io.IOException;
+
+/**
+ * Movie source reading from the live TMDB API.
+ */
+public final class TmdbMovieSource implements MovieSource {
+
+    @Override
+    public int discoverPageCount() {
+        return NetUtil.discoverPageCount();
+    }
+
+    @Override
+    public <T> T readDiscoverPage(final int page, final StreamHandler<T> handler, final T fallback)
+            throws IOException {
+        return NetUtil.fetchDiscoverPage(page, handler, fallback);
+    }
+
+    @Override
+    public <T> T readCredits(final int movieId, final StreamHandler<T> handler, final T fallback)
+            throws IOException {
+        return NetUtil.fetchCredits(movieId, handler, fallback);
+    }
+
+    @Override
+    public <T> T readDetails(final int movieId, final StreamHandler<T> handler, final T fallback)
+            throws IOException {
+        return NetUtil.fetchDetails(movieId, handler, fallback);
+    }
+}
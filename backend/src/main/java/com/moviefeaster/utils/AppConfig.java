@@ -0,0 +1,111 @@
+package com.moviefeaster.utils;
+
+import io.github.cdimascio.dotenv.Dotenv;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Class that reads tunable settings from the `.env` file or the process environment.
+ * Every setting has a default, so a missing file or key never prevents startup.
+ */
+public final class AppConfig {
+
+    /** Logger instance for reporting malformed settings. */
+    private static final Logger LOGGER = LoggerFactory.getLogger(AppConfig.class);
+
+    /** Environment variables from the `.env` file, falling back to the process environment. */
+    private static final Dotenv DOTENV = Dotenv.configure().ignoreIfMissing().load();
+
+    /** Private constructor preventing instantiation. */
+    private AppConfig() {
+        // Prevent instantiation
+    }
+
+    /**
+     * Get a string setting.
+     *
+     * @param key          the setting name
+     * @param defaultValue value used when the setting is missing or blank
+     * @return the configured value or the default
+     */
+    public static String getString(final String key, final String defaultValue) {
+        final String value = DOTENV.get(key);
+        return value == null || value.isBlank() ? defaultValue : value.trim();
+    }
+
+    /**
+     * Get an integer setting.
+     *
+     * @param key          the setting name
+     * @param defaultValue value used when the setting is missing or not a number
+     * @return the configured value or the default
+     */
+    public static int getInt(final String key, final int defaultValue) {
+        final String value = getString(key, null);
+        int result = defaultValue;
+        if (value != null) {
+            try {
+                result = Integer.parseInt(value);
+            } catch (NumberFormatException e) {
+                LOGGER.warn("Ignoring non-numeric value '{}' for {}, using {}", value, key, defaultValue);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Get a long setting.
+     *
+     * @param key          the setting name
+     * @param defaultValue value used when the setting is missing or not a number
+     * @return the configured value or the default
+     */
+    public static long getLong(final String key, final long defaultValue) {
+        final String value = getString(key, null);
+        long result = defaultValue;
+        if (value != null) {
+            try {
+                result = Long.parseLong(value);
+            } catch (NumberFormatException e) {
+                LOGGER.warn("Ignoring non-numeric value '{}' for {}, using {}", value, key, defaultValue);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Get a decimal setting.
+     *
+     * @param key          the setting name
+     * @param defaultValue value used when the setting is missing or not a number
+     * @return the configured value or the default
+     */
+    public static double getDouble(final String key, final double defaultValue) {
+        final String value = getString(key, null);
+        double result = defaultValue;
+        if (value != null) {
+            try {
+                result = Double.parseDouble(value);
+            } catch (NumberFormatException e) {
+                LOGGER.warn("Ignoring non-numeric value '{}' for {}, using {}", value, key, defaultValue);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Get a decimal setting that must be a finite positive number, such as a rate.
+     *
+     * @param key          the setting name
+     * @param defaultValue value used when the setting is missing, not a number, or not finite and positive
+     * @return the configured value or the default
+     */
+    public static double getPositiveDouble(final String key, final double defaultValue) {
+        double result = getDouble(key, defaultValue);
+        if (!Double.isFinite(result) || result <= 0.0) {
+            LOGGER.warn("Ignoring value {} for {}, which must be positive, using {}", result, key, defaultValue);
+            result = defaultValue;
+        }
+        return result;
+    }
+}
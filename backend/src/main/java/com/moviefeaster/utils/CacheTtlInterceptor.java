@@ -0,0 +1,49 @@
+package com.moviefeaster.utils;
+
+import okhttp3.Interceptor;
+import okhttp3.Response;
+
+import java.io.IOException;
+import java.util.regex.Pattern;
+
+/**
+ * Network interceptor that overrides the freshness lifetime of responses whose path matches
+ * a pattern, so the HTTP cache serves them without revalidating until the TTL expires.
+ * Used for TMDB credits, which rarely change but are sent with a short server lifetime.
+ */
+public final class CacheTtlInterceptor implements Interceptor {
+
+    /** HTTP status for a successful revalidation. */
+    private static final int NOT_MODIFIED = 304;
+
+    /** Paths whose responses get the overridden lifetime. */
+    private final Pattern pathPattern;
+
+    /** Freshness lifetime applied to matching responses, in seconds. */
+    private final long ttlSeconds;
+
+    /**
+     * Constructs an interceptor.
+     *
+     * @param pathPattern pattern matched against the full encoded request path
+     * @param ttlSeconds  freshness lifetime applied to matching responses, in seconds
+     */
+    public CacheTtlInterceptor(final Pattern pathPattern, final long ttlSeconds) {
+        this.pathPattern = pathPattern;
+        this.ttlSeconds = ttlSeconds;
+    }
+
+    @Override
+    public Response intercept(final Chain chain) throws IOException {
+        final Response response = chain.proceed(chain.request());
+        final boolean cacheable = response.isSuccessful() || response.code() == NOT_MODIFIED;
+        if (!cacheable || !pathPattern.matcher(chain.request().url().encodedPath()).matches()) {
+            return response;
+        }
+        return response.newBuilder()
+                .header("Cache-Control", "public, max-age=" + ttlSeconds)
+                .removeHeader("Pragma")
+                .removeHeader("Expires")
+                .build();
+    }
+}
@@ -0,0 +1,152 @@
+package com.moviefeaster.utils;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+/**
+ * Runs blocking fetches concurrently with bounded parallelism, a per-task timeout
+ * and a per-task fallback, returning the results in the order of the inputs.
+ */
+public final class ConcurrentFetcher {
+
+    /** Logger instance for logging failed or timed out tasks. */
+    private static final Logger LOGGER = LoggerFactory.getLogger(ConcurrentFetcher.class);
+
+    /** Counter used to name worker threads. */
+    private static final AtomicInteger THREAD_COUNTER = new AtomicInteger();
+
+    /** Worker threads; the semaphores of {@link #fetchAll} and {@link #fetch} bound how many run at once. */
+    private static final ExecutorService EXECUTOR = Executors.newCachedThreadPool(runnable -> {
+        final Thread thread = new Thread(runnable, "fetcher-" + THREAD_COUNTER.incrementAndGet());
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    /** Private constructor preventing instantiation. */
+    private ConcurrentFetcher() {
+        // Prevent instantiation
+    }
+
+    /**
+     * Apply a task to every input concurrently.
+     * At most {@code parallelism} tasks run at the same time. A task that throws or does not
+     * finish within {@code timeoutMillis} of starting is replaced by the fallback for its input.
+     *
+     * @param inputs        the inputs to process
+     * @param task          the blocking task to run for each input
+     * @param fallback      produces the result for an input whose task failed or timed out
+     * @param parallelism   maximum number of tasks running at once
+     * @param timeoutMillis maximum time a single task may run
+     * @param <I>           input type
+     * @param <T>           result type
+     * @return results in the same order as the inputs
+     */
+    public static <I, T> List<T> fetchAll(final List<I> inputs,
+                                          final Function<I, T> task,
+                                          final Function<I, T> fallback,
+                                          final int parallelism,
+                                          final long timeoutMillis) {
+        final Semaphore permits = new Semaphore(Math.max(1, parallelism));
+        final List<CompletableFuture<T>> futures = new ArrayList<>(inputs.size());
+
+        for (final I input : inputs) {
+            CompletableFuture<T> future;
+            try {
+                permits.acquire();
+                future = start(input, task, permits, timeoutMillis);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                future = CompletableFuture.failedFuture(e);
+            }
+            futures.add(withFallback(future, input, fallback));
+        }
+
+        final List<T> results = new ArrayList<>(futures.size());
+        for (final CompletableFuture<T> future : futures) {
+            results.add(future.join());
+        }
+        return results;
+    }
+
+    /**
+     * Apply a task to one input on a worker thread and wait for its result.
+     * The task takes one of the given permits and holds it until it really returns, so callers
+     * sharing the permits never have more tasks running than there are permits, timed out tasks
+     * included. A task that throws or does not finish within {@code timeoutMillis} of starting
+     * is replaced by the fallback for its input.
+     *
+     * @param input         the input to process
+     * @param task          the blocking task to run
+     * @param fallback      produces the result if the task failed or timed out
+     * @param permits       bounds the tasks running at once across all callers
+     * @param timeoutMillis maximum time the task may run
+     * @param <I>           input type
+     * @param <T>           result type
+     * @return the task's result or the fallback
+     * @throws InterruptedException if interrupted while waiting for a permit or the result
+     */
+    public static <I, T> T fetch(final I input,
+                                 final Function<I, T> task,
+                                 final Function<I, T> fallback,
+                                 final Semaphore permits,
+                                 final long timeoutMillis) throws InterruptedException {
+        permits.acquire();
+        try {
+            return withFallback(start(input, task, permits, timeoutMillis), input, fallback).get();
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Fallback failed for " + input, e.getCause());
+        }
+    }
+
+    /**
+     * Start a task on a worker thread for an input whose permit has been taken.
+     *
+     * @param input         the input to process
+     * @param task          the blocking task to run
+     * @param permits       released when the task returns
+     * @param timeoutMillis maximum time the task may run
+     * @param <I>           input type
+     * @param <T>           result type
+     * @return a future of the result that fails once the timeout passes
+     */
+    private static <I, T> CompletableFuture<T> start(final I input,
+                                                     final Function<I, T> task,
+                                                     final Semaphore permits,
+                                                     final long timeoutMillis) {
+        final CompletableFuture<T> running = CompletableFuture.supplyAsync(() -> task.apply(input), EXECUTOR);
+        // The permit follows the real task, so a timed out call still counts until it returns.
+        // orTimeout completes the future it is called on, so the timeout goes on a copy.
+        running.whenComplete((result, error) -> permits.release());
+        return running.copy().orTimeout(timeoutMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Replace a failed or timed out result with the fallback for its input.
+     *
+     * @param future   the future of the task's result
+     * @param input    the task's input
+     * @param fallback produces the result for a failed input
+     * @param <I>      input type
+     * @param <T>      result type
+     * @return a future of the result or the fallback
+     */
+    private static <I, T> CompletableFuture<T> withFallback(final CompletableFuture<T> future,
+                                                            final I input,
+                                                            final Function<I, T> fallback) {
+        return future.exceptionally(error -> {
+            LOGGER.warn("Task for {} failed, using fallback: {}", input, error.toString());
+            return fallback.apply(input);
+        });
+    }
+}
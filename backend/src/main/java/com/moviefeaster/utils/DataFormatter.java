@@ -79,7 +79,7 @@ public final class DataFormatter {
         }
 
         descriptionBuilder.append("App Rating: ").append(movie.getInAppRating())
-                .append(" (Total ratings: ").append(movie.getInAppRating()).append(")\n");
+                .append(" (Total ratings: ").append(movie.getInAppRatingStats().getCount()).append(")\n");
 
         return descriptionBuilder.toString();
     }
@@ -0,0 +1,138 @@
+package com.moviefeaster.utils;
+
+import java.util.Arrays;
+
+/**
+ * Set of primitive ints using open addressing with linear probing, so IDs are kept without
+ * boxing. The table doubles once it is half full. Not thread-safe.
+ */
+public final class IntHashSet {
+
+    /** Marks an empty slot; the value itself is tracked separately. */
+    private static final int EMPTY = 0;
+
+    /** Multiplier spreading sequential IDs over the table (the 32-bit golden ratio). */
+    private static final int MIX = 0x9E3779B9;
+
+    /** Slots of the table; its length is a power of two. */
+    private int[] slots;
+
+    /** Number of values stored in the table, not counting {@link #EMPTY}. */
+    private int tableSize;
+
+    /** Whether {@link #EMPTY} itself is in the set. */
+    private boolean containsEmpty;
+
+    /**
+     * Constructs an empty set.
+     */
+    public IntHashSet() {
+        this(16);
+    }
+
+    /**
+     * Constructs an empty set that holds the expected number of values without growing.
+     *
+     * @param expectedSize number of values the set should hold before growing
+     */
+    public IntHashSet(final int expectedSize) {
+        final int capacity = Integer.highestOneBit(Math.max(4, expectedSize) * 2 - 1) << 1;
+        this.slots = new int[capacity];
+    }
+
+    /**
+     * Add a value.
+     *
+     * @param value the value
+     * @return true if the value was not in the set yet
+     */
+    public boolean add(final int value) {
+        if (value == EMPTY) {
+            final boolean added = !containsEmpty;
+            containsEmpty = true;
+            return added;
+        }
+        int slot = slotOf(value, slots.length);
+        while (slots[slot] != EMPTY) {
+            if (slots[slot] == value) {
+                return false;
+            }
+            slot = (slot + 1) & (slots.length - 1);
+        }
+        slots[slot] = value;
+        tableSize++;
+        if (tableSize * 2 > slots.length) {
+            grow();
+        }
+        return true;
+    }
+
+    /**
+     * Check whether a value is in the set.
+     *
+     * @param value the value
+     * @return true if the set contains the value
+     */
+    public boolean contains(final int value) {
+        if (value == EMPTY) {
+            return containsEmpty;
+        }
+        int slot = slotOf(value, slots.length);
+        while (slots[slot] != EMPTY) {
+            if (slots[slot] == value) {
+                return true;
+            }
+            slot = (slot + 1) & (slots.length - 1);
+        }
+        return false;
+    }
+
+    /**
+     * Get the number of values in the set.
+     *
+     * @return the number of values
+     */
+    public int size() {
+        return tableSize + (containsEmpty ? 1 : 0);
+    }
+
+    /**
+     * Check whether the set is empty.
+     *
+     * @return true if the set has no values
+     */
+    public boolean isEmpty() {
+        return size() == 0;
+    }
+
+    /**
+     * Remove every value, keeping the current capacity.
+     */
+    public void clear() {
+        Arrays.fill(slots, EMPTY);
+        tableSize = 0;
+        containsEmpty = false;
+    }
+
+    /**
+     * Double the table and re-insert every value.
+     */
+    private void grow() {
+        final int[] old = slots;
+        slots = new int[old.length * 2];
+        for (final int value : old) {
+            if (value != EMPTY) {
+                int slot = slotOf(value, slots.length);
+                while (slots[slot] != EMPTY) {
+                    slot = (slot + 1) & (slots.length - 1);
+                }
+                slots[slot] = value;
+            }
+        }
+    }
+
+    private static int slotOf(final int value, final int length) {
+        final int hash = value * MIX;
+        return (hash ^ (hash >>> 16)) & (length - 1);
+    }
+}
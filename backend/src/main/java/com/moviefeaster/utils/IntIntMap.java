@@ -0,0 +1,200 @@
+package com.moviefeaster.utils;
+
+import java.util.Arrays;
+
+/**
+ * Map from primitive int keys to primitive int values using open addressing with linear
+ * probing, so lookups neither box the key nor follow a chain of entries. The table doubles
+ * once it is half full. Not thread-safe for writers; a map that is no longer written to may
+ * be read from any number of threads once it has been safely published.
+ */
+public final class IntIntMap {
+
+    /** Marks an empty slot; a mapping for this key itself is tracked separately. */
+    private static final int EMPTY = 0;
+
+    /** Multiplier spreading sequential keys over the table (the 32-bit golden ratio). */
+    private static final int MIX = 0x9E3779B9;
+
+    /** Value returned for a missing key. */
+    private final int missingValue;
+
+    /** Keys of the table; its length is a power of two. */
+    private int[] keys;
+
+    /** Values of the table, at the slot of their key. */
+    private int[] values;
+
+    /** Number of keys stored in the table, not counting {@link #EMPTY}. */
+    private int tableSize;
+
+    /** Whether {@link #EMPTY} itself is mapped. */
+    private boolean containsEmpty;
+
+    /** Value mapped to {@link #EMPTY}, if it is mapped. */
+    private int emptyValue;
+
+    /**
+     * Constructs an empty map that holds the expected number of keys without growing.
+     *
+     * @param expectedSize number of keys the map should hold before growing
+     * @param missingValue value returned by {@link #get} for a key that is not mapped
+     */
+    public IntIntMap(final int expectedSize, final int missingValue) {
+        final int capacity = Integer.highestOneBit(Math.max(4, expectedSize) * 2 - 1) << 1;
+        this.keys = new int[capacity];
+        this.values = new int[capacity];
+        this.missingValue = missingValue;
+    }
+
+    /**
+     * Map a key to a value, replacing any value it had.
+     *
+     * @param key   the key
+     * @param value the value
+     * @return the previous value, or the missing value if the key was not mapped
+     */
+    public int put(final int key, final int value) {
+        return put(key, value, true);
+    }
+
+    /**
+     * Map a key to a value unless it is already mapped.
+     *
+     * @param key   the key
+     * @param value the value
+     * @return the current value, or the missing value if the key was not mapped and now is
+     */
+    public int putIfAbsent(final int key, final int value) {
+        return put(key, value, false);
+    }
+
+    /**
+     * Get the value of a key.
+     *
+     * @param key the key
+     * @return the value, or the missing value if the key is not mapped
+     */
+    public int get(final int key) {
+        if (key == EMPTY) {
+            return containsEmpty ? emptyValue : missingValue;
+        }
+        int slot = slotOf(key, keys.length);
+        while (keys[slot] != EMPTY) {
+            if (keys[slot] == key) {
+                return values[slot];
+            }
+            slot = (slot + 1) & (keys.length - 1);
+        }
+        return missingValue;
+    }
+
+    /**
+     * Check whether a key is mapped.
+     *
+     * @param key the key
+     * @return true if the key has a value
+     */
+    public boolean containsKey(final int key) {
+        if (key == EMPTY) {
+            return containsEmpty;
+        }
+        int slot = slotOf(key, keys.length);
+        while (keys[slot] != EMPTY) {
+            if (keys[slot] == key) {
+                return true;
+            }
+            slot = (slot + 1) & (keys.length - 1);
+        }
+        return false;
+    }
+
+    /**
+     * Get the number of mapped keys.
+     *
+     * @return the number of keys
+     */
+    public int size() {
+        return tableSize + (containsEmpty ? 1 : 0);
+    }
+
+    /**
+     * Check whether the map is empty.
+     *
+     * @return true if no key is mapped
+     */
+    public boolean isEmpty() {
+        return size() == 0;
+    }
+
+    /**
+     * Remove every mapping, keeping the current capacity.
+     */
+    public void clear() {
+        Arrays.fill(keys, EMPTY);
+        tableSize = 0;
+        containsEmpty = false;
+    }
+
+    /**
+     * Map a key to a value.
+     *
+     * @param key     the key
+     * @param value   the value
+     * @param replace whether to replace the value of a mapped key
+     * @return the value the key had before, or the missing value if it was not mapped
+     */
+    private int put(final int key, final int value, final boolean replace) {
+        if (key == EMPTY) {
+            final int previous = containsEmpty ? emptyValue : missingValue;
+            if (!containsEmpty || replace) {
+                emptyValue = value;
+            }
+            containsEmpty = true;
+            return previous;
+        }
+        int slot = slotOf(key, keys.length);
+        while (keys[slot] != EMPTY) {
+            if (keys[slot] == key) {
+                final int previous = values[slot];
+                if (replace) {
+                    values[slot] = value;
+                }
+                return previous;
+            }
+            slot = (slot + 1) & (keys.length - 1);
+        }
+        keys[slot] = key;
+        values[slot] = value;
+        tableSize++;
+        if (tableSize * 2 > keys.length) {
+            grow();
+        }
+        return missingValue;
+    }
+
+    /**
+     * Double the table and re-insert every mapping.
+     */
+    private void grow() {
+        final int[] oldKeys = keys;
+        final int[] oldValues = values;
+        keys = new int[oldKeys.length * 2];
+        values = new int[oldKeys.length * 2];
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] != EMPTY) {
+                int slot = slotOf(oldKeys[i], keys.length);
+                while (keys[slot] != EMPTY) {
+                    slot = (slot + 1) & (keys.length - 1);
+                }
+                keys[slot] = oldKeys[i];
+                values[slot] = oldValues[i];
+            }
+        }
+    }
+
+    private static int slotOf(final int key, final int length) {
+        final int hash = key * MIX;
+        return (hash ^ (hash >>> 16)) & (length - 1);
+    }
+}
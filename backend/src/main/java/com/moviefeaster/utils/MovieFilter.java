@@ -3,9 +3,12 @@ package com.moviefeaster.utils;
 import com.moviefeaster.model.*;
 
 import java.util.ArrayList;
-import java.util.HashSet;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.IdentityHashMap;
 import java.util.List;
 import java.util.Locale;
+import java.util.Set;
 
 /**
  * MovieFilter provides static methods for filtering a list of movies
@@ -194,22 +197,64 @@ public final class MovieFilter {
             return results;
         }
 
-        final String genreLower = genre.toLowerCase(Locale.ROOT);
+        final long mask = Genre.maskMatching(genre);
+        if (mask == 0) {
+            return results;
+        }
 
         for (final Movie movie : movies) {
-            if (movie.getGenres() != null) {
-                for (final Genre g : movie.getGenres()) {
-                    if (g != null && g.toString().toLowerCase(Locale.ROOT).contains(genreLower)) {
-                        results.add(movie);
-                        break;
-                    }
-                }
+            if ((movie.getGenreMask() & mask) != 0) {
+                results.add(movie);
             }
         }
 
         return results;
     }
 
+    /**
+     * Filters movies having at least one of the given genres.
+     *
+     * @param movies the list of movies to filter
+     * @param genres the genres to look for
+     * @return list of movies with any of the genres, empty if no genres are given
+     */
+    public static List<Movie> filterByAnyGenre(final List<Movie> movies, final Collection<Genre> genres) {
+        final List<Movie> results = new ArrayList<>();
+        final long mask = Genre.maskOf(genres);
+        if (movies == null || mask == 0) {
+            return results;
+        }
+
+        for (final Movie movie : movies) {
+            if ((movie.getGenreMask() & mask) != 0) {
+                results.add(movie);
+            }
+        }
+        return results;
+    }
+
+    /**
+     * Filters movies having every one of the given genres.
+     *
+     * @param movies the list of movies to filter
+     * @param genres the genres to look for
+     * @return list of movies with all of the genres, empty if no genres are given
+     */
+    public static List<Movie> filterByAllGenres(final List<Movie> movies, final Collection<Genre> genres) {
+        final List<Movie> results = new ArrayList<>();
+        final long mask = Genre.maskOf(genres);
+        if (movies == null || mask == 0) {
+            return results;
+        }
+
+        for (final Movie movie : movies) {
+            if ((movie.getGenreMask() & mask) == mask) {
+                results.add(movie);
+            }
+        }
+        return results;
+    }
+
     /**
      * Filters movies by actor name keyword (case-insensitive).
      *
@@ -287,6 +332,9 @@ public final class MovieFilter {
 
     /**
      * Combines two movie lists and returns only movies that are present in both (intersection).
+     * Movies are matched by identity, as {@link Movie} has no value equality; filtering a catalog
+     * with several filters is better done by {@link MovieFilterFacilitator}, which intersects
+     * bitsets of rows instead.
      *
      * @param list1 the first list of movies
      * @param list2 the second list of movies
@@ -295,7 +343,8 @@ public final class MovieFilter {
     public static List<Movie> combineAnd(final List<Movie> list1, final List<Movie> list2) {
         final List<Movie> results = new ArrayList<>();
         if (list1 != null && list2 != null) {
-            final HashSet<Movie> set = new HashSet<>(list2);
+            final Set<Movie> set = Collections.newSetFromMap(new IdentityHashMap<>(list2.size() * 4 / 3 + 1));
+            set.addAll(list2);
             for (final Movie movie : list1) {
                 if (set.contains(movie)) {
                     results.add(movie);
@@ -1,10 +1,15 @@
 package com.moviefeaster.utils;
 
+import com.moviefeaster.model.Catalog;
+import com.moviefeaster.model.ColumnarCatalog;
+import com.moviefeaster.model.Genre;
 import com.moviefeaster.model.Movie;
 import com.moviefeaster.model.MovieFilterType;
 
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
 
 
@@ -22,47 +27,201 @@ public final class MovieFilterFacilitator {
 
     /**
      * Apply multiple filters to the list of movies using a map of filter types and their values.
+     * The list is laid out in columns so the filters run on the same engine as a catalog's.
      *
      * @param movies  the original list of movies
      * @param filters map containing filter types and their corresponding values
-     * @return list of movies that match the applied filters
+     * @return list of movies that match the applied filters, in list order
      */
     public static List<Movie> filter(final List<Movie> movies, final Map<MovieFilterType, Object> filters) {
-        List<Movie> result = new ArrayList<>(movies);
+        final ColumnarCatalog columns = new ColumnarCatalog(movies);
+        return columns.toMovies(toRowFilter(filters).evaluate(columns));
+    }
 
-        for (final Map.Entry<MovieFilterType, Object> entry : filters.entrySet()) {
-            final MovieFilterType type = entry.getKey();
-            final Object value = entry.getValue();
+    /**
+     * Apply multiple filters to a whole catalog using a map of filter types and their values.
+     *
+     * @param catalog the catalog to filter
+     * @param filters map containing filter types and their corresponding values
+     * @return list of movies that match all the applied filters, in catalog order
+     */
+    public static List<Movie> filter(final Catalog catalog, final Map<MovieFilterType, Object> filters) {
+        return filter(catalog, toRowFilter(filters));
+    }
 
-            List<Movie> filteredMovies = result;
+    /**
+     * Apply a row filter, which may combine filters with AND, OR and NOT, to a whole catalog.
+     * Each filter yields a bitset of rows; only the final set is turned into movies.
+     *
+     * @param catalog the catalog to filter
+     * @param filter  the filter
+     * @return list of movies that match the filter, in catalog order
+     */
+    public static List<Movie> filter(final Catalog catalog, final RowFilter filter) {
+        final ColumnarCatalog columns = catalog.getColumns();
+        return columns.toMovies(filter.evaluate(columns));
+    }
+
+    /**
+     * Turn a map of filter types and values into a row filter matching all of them.
+     *
+     * @param filters map containing filter types and their corresponding values
+     * @return the filter
+     */
+    public static RowFilter toRowFilter(final Map<MovieFilterType, Object> filters) {
+        final List<RowFilter> rowFilters = new ArrayList<>(filters.size());
+        for (final Map.Entry<MovieFilterType, Object> entry : filters.entrySet()) {
+            rowFilters.add(toRowFilter(entry.getKey(), entry.getValue()));
+        }
+        return RowFilter.and(rowFilters);
+    }
 
-            filteredMovies = switch (type) {
-                case TITLE_KEYWORD -> MovieFilter.filterByTitle(filteredMovies, (String) value);
-                case EXACT_TITLE -> MovieFilter.filterByExactTitle(filteredMovies, (String) value);
-                case DIRECTOR -> MovieFilter.filterByDirector(filteredMovies, (String) value);
-                case ACTOR -> MovieFilter.filterByActor(filteredMovies, (String) value);
-                case GENRE -> MovieFilter.filterByGenre(filteredMovies, (String) value);
-                case YEAR -> MovieFilter.filterByYear(filteredMovies, (Integer) value);
-                case YEAR_RANGE -> {
-                    final int[] range = (int[]) value;
-                    final int startYear = range[0];
-                    final int endYear = range[1];
-                    final int expectedLength = 2;
-                    if (range.length == expectedLength) {
-                        yield MovieFilter.filterByYearRange(filteredMovies, startYear, endYear);
-                    }
-                    yield filteredMovies;
+    /**
+     * Turn one filter type and value into a row filter, with the semantics of the matching
+     * {@link MovieFilter} method. Title and people keywords are answered from the catalog's
+     * indexes; the other filters scan their column.
+     *
+     * @param type  the filter type
+     * @param value the filter value
+     * @return the filter
+     */
+    public static RowFilter toRowFilter(final MovieFilterType type, final Object value) {
+        return switch (type) {
+            case TITLE_KEYWORD -> {
+                if (isBlank(value)) {
+                    yield RowFilter.none();
+                }
+                final String keyword = lower(value);
+                yield RowFilter.indexed((columns, rows) -> columns.titleContains(keyword, rows),
+                        columns -> columns.estimateTitleContains(keyword));
+            }
+            case EXACT_TITLE -> {
+                if (isBlank(value)) {
+                    yield RowFilter.none();
+                }
+                final String title = lower(value);
+                yield RowFilter.scan((columns, rows) -> columns.titleEquals(title, rows));
+            }
+            case DIRECTOR -> {
+                if (isBlank(value)) {
+                    yield RowFilter.none();
+                }
+                final String name = lower(value);
+                yield RowFilter.indexed((columns, rows) -> columns.directorContains(name),
+                        columns -> columns.estimateDirectorContains(name));
+            }
+            case ACTOR -> {
+                if (isBlank(value)) {
+                    yield RowFilter.none();
+                }
+                final String name = lower(value);
+                yield RowFilter.indexed((columns, rows) -> columns.castContains(name),
+                        columns -> columns.estimateCastContains(name));
+            }
+            case GENRE -> isBlank(value) ? RowFilter.none() : anyGenre(Genre.maskMatching((String) value));
+            case YEAR -> {
+                final int year = (Integer) value;
+                if (year < 0) {
+                    yield RowFilter.none();
+                }
+                yield RowFilter.scan((columns, rows) -> columns.yearBetween(year, year, rows));
+            }
+            case YEAR_RANGE -> {
+                final int[] range = (int[]) value;
+                final int startYear = range[0];
+                final int endYear = range[1];
+                final int expectedLength = 2;
+                if (range.length != expectedLength) {
+                    yield RowFilter.all();
+                }
+                if (startYear < 0 || endYear < 0 || startYear > endYear) {
+                    yield RowFilter.none();
                 }
-                case MIN_RATING -> MovieFilter.filterByMinRating(filteredMovies, (double) value);
-                case MAX_RATING -> MovieFilter.filterByMaxRating(filteredMovies, (double) value);
-                case COMMENT_KEYWORD -> MovieFilter.filterByCommentKeyword(filteredMovies, (String) value);
-                case MIN_INAPP_RATING -> MovieFilter.filterByMinInAppRating(filteredMovies, (Double) value);
-                default -> throw new IllegalStateException("Unexpected value: " + type);
-            };
+                yield RowFilter.scan((columns, rows) -> columns.yearBetween(startYear, endYear, rows));
+            }
+            case MIN_RATING -> {
+                final double minRating = (double) value;
+                if (!isRating(minRating)) {
+                    yield RowFilter.none();
+                }
+                yield RowFilter.scan((columns, rows) ->
+                        columns.ratingBetween(minRating, Double.POSITIVE_INFINITY, rows));
+            }
+            case MAX_RATING -> {
+                final double maxRating = (double) value;
+                if (!isRating(maxRating)) {
+                    yield RowFilter.none();
+                }
+                yield RowFilter.scan((columns, rows) ->
+                        columns.ratingBetween(Double.NEGATIVE_INFINITY, maxRating, rows));
+            }
+            case COMMENT_KEYWORD -> {
+                if (value == null) {
+                    yield RowFilter.none();
+                }
+                final String keyword = lower(value);
+                yield RowFilter.scan((columns, rows) -> columns.commentContains(keyword, rows));
+            }
+            case MIN_INAPP_RATING -> {
+                final double minRating = (Double) value;
+                yield RowFilter.scan((columns, rows) -> columns.inAppRatingAtLeast(minRating, rows));
+            }
+            case ANY_GENRE -> anyGenre(Genre.maskOf(genres(value)));
+            case ALL_GENRES -> {
+                final long mask = Genre.maskOf(genres(value));
+                yield mask == 0 ? RowFilter.none() : RowFilter.scan((columns, rows) -> columns.genreAll(mask, rows));
+            }
+        };
+    }
 
-            result = filteredMovies;
-        }
+    /**
+     * Make a filter for rows with any genre of a mask.
+     *
+     * @param mask the genre mask
+     * @return the filter, matching no row for an empty mask
+     */
+    private static RowFilter anyGenre(final long mask) {
+        return mask == 0 ? RowFilter.none() : RowFilter.scan((columns, rows) -> columns.genreAny(mask, rows));
+    }
+
+    /**
+     * Read a genre collection filter value.
+     *
+     * @param value the filter value, a collection of genres
+     * @return the genres
+     */
+    @SuppressWarnings("unchecked")
+    private static Collection<Genre> genres(final Object value) {
+        return (Collection<Genre>) value;
+    }
 
-        return result;
+    /**
+     * Check whether a text filter value is missing or blank, which matches no movie.
+     *
+     * @param value the filter value
+     * @return true if the value is null or blank
+     */
+    private static boolean isBlank(final Object value) {
+        return value == null || ((String) value).isBlank();
+    }
+
+    /**
+     * Lower-case a text filter value.
+     *
+     * @param value the filter value
+     * @return the value in lower case
+     */
+    private static String lower(final Object value) {
+        return ((String) value).toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Check whether a rating threshold is on the TMDB scale.
+     *
+     * @param rating the threshold
+     * @return true if the threshold is between 0 and 10
+     */
+    private static boolean isRating(final double rating) {
+        return rating >= 0.0 && rating <= 10.0;
     }
 }
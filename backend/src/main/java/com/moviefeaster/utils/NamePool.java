@@ -0,0 +1,146 @@
+package com.moviefeaster.utils;
+
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Dictionary of person names, so a director or cast member appearing in many movies is kept
+ * as one {@link String} instance however often their name is parsed. Duplicates handed to
+ * {@link #intern} become garbage straight away; the pool counts the bytes they would
+ * otherwise have kept alive. The pool holds its names strongly, so after each catalog build it
+ * is pruned with {@link #retainAll} to the names still in use, and its counters are reset with
+ * {@link #resetCounters} before the next build. Thread-safe.
+ */
+public final class NamePool {
+
+    /** Bytes of a String object on a 64-bit JVM with compressed references. */
+    private static final int STRING_OBJECT_BYTES = 24;
+
+    /** Bytes of a byte array header on a 64-bit JVM with compressed references. */
+    private static final int ARRAY_HEADER_BYTES = 16;
+
+    /** Objects are aligned to this many bytes. */
+    private static final int ALIGNMENT = 8;
+
+    /** The pool shared by all parsers. */
+    private static final NamePool SHARED = new NamePool();
+
+    /** The canonical instance of every name seen, keyed by itself. */
+    private final ConcurrentMap<String, String> names = new ConcurrentHashMap<>();
+
+    /** Number of names looked up. */
+    private final LongAdder lookups = new LongAdder();
+
+    /** Estimated bytes of the duplicate instances replaced by pooled ones. */
+    private final LongAdder bytesSaved = new LongAdder();
+
+    /**
+     * Constructs an empty pool.
+     */
+    public NamePool() {
+        // Names are added by intern
+    }
+
+    /**
+     * Get the pool shared by all parsers.
+     *
+     * @return the shared pool
+     */
+    public static NamePool shared() {
+        return SHARED;
+    }
+
+    /**
+     * Get the pooled instance of a name, adding the name if it is new.
+     *
+     * @param name the name, possibly null
+     * @return the pooled instance equal to the name, or null for null
+     */
+    public String intern(final String name) {
+        if (name == null) {
+            return null;
+        }
+        lookups.increment();
+        final String pooled = names.putIfAbsent(name, name);
+        if (pooled == null) {
+            return name;
+        }
+        if (pooled != name) {
+            bytesSaved.add(estimateBytes(name));
+        }
+        return pooled;
+    }
+
+    /**
+     * Drop every name that is not among the given ones, so names of movies that left the catalog
+     * can be collected. A name interned concurrently may be dropped too, which only costs a
+     * duplicate instance later.
+     *
+     * @param keep the names still in use
+     * @return the number of names dropped
+     */
+    public int retainAll(final Collection<String> keep) {
+        final Set<String> kept = keep instanceof Set ? (Set<String>) keep : new HashSet<>(keep);
+        final int before = names.size();
+        names.keySet().removeIf(name -> !kept.contains(name));
+        return Math.max(0, before - names.size());
+    }
+
+    /**
+     * Reset the lookup and saving counters, so they describe one catalog build.
+     */
+    public void resetCounters() {
+        lookups.reset();
+        bytesSaved.reset();
+    }
+
+    /**
+     * Get the number of distinct names in the pool.
+     *
+     * @return the number of names
+     */
+    public int size() {
+        return names.size();
+    }
+
+    /**
+     * Get the number of names looked up so far.
+     *
+     * @return the number of lookups
+     */
+    public long getLookups() {
+        return lookups.sum();
+    }
+
+    /**
+     * Get the estimated heap bytes saved by handing out pooled instances instead of duplicates.
+     *
+     * @return the bytes saved
+     */
+    public long getBytesSaved() {
+        return bytesSaved.sum();
+    }
+
+    /**
+     * Estimate the heap a String takes with compact strings: the object plus its byte array
+     * of one byte per char for Latin-1 text and two otherwise.
+     *
+     * @param value the string
+     * @return the estimated size in bytes
+     */
+    static long estimateBytes(final String value) {
+        int bytesPerChar = 1;
+        for (int i = 0; i < value.length(); i++) {
+            if (value.charAt(i) > 0xFF) {
+                bytesPerChar = 2;
+                break;
+            }
+        }
+        final long array = ARRAY_HEADER_BYTES + (long) value.length() * bytesPerChar;
+        return STRING_OBJECT_BYTES + (array + ALIGNMENT - 1) / ALIGNMENT * ALIGNMENT;
+    }
+}
@@ -3,11 +3,6 @@ package com.moviefeaster.utils;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.node.ArrayNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
-import io.github.cdimascio.dotenv.Dotenv;
-import okhttp3.OkHttpClient;
-import okhttp3.Request;
-import okhttp3.Response;
-
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -15,6 +10,11 @@ import org.slf4j.LoggerFactory;
 import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Function;
 
 /**
  * Class that pulls data from TMDB API.
@@ -26,20 +26,29 @@ public final class NetUtil {
     /** Logger instance for logging errors and debug info. */
     private static final Logger LOGGER = LoggerFactory.getLogger(NetUtil.class);
 
-    /** Loads environment variables from the `.env` file located in the project root. */
-    private static final Dotenv DOTENV = Dotenv.load();
-
-    /** Access Api keys from `.env` file. */
-    private static final String API_TOKEN = DOTENV.get("TMDB_API_TOKEN");
+    /** TMDB api root url. */
+    private static final String API_BASE_URL = AppConfig.getString("TMDB_API_BASE_URL", "https://api.themoviedb.org/3");
 
     /** TMDB default api url. */
-    private static final String API_URL = "https://api.themoviedb.org/3/discover/movie";
+    private static final String API_URL = API_BASE_URL + "/discover/movie";
+
+    /** Number of movies to pull from API, the catalog size; the one place the setting is read. */
+    public static final int CATALOG_SIZE = AppConfig.getInt("CATALOG_SIZE", 200);
+
+    /** Number of movies on one discover page. */
+    private static final int PAGE_SIZE = 20;
 
-    /** Number of movies to pull from API. */
-    private static final int RESULTS_AMOUNT = 200;
+    /** Last discover page TMDB serves; later pages are rejected. */
+    static final int MAX_DISCOVER_PAGES = 500;
 
-    /** OkHttpClient instance used for making HTTP requests to the TMDb API. */
-    private static final OkHttpClient CLIENT = new OkHttpClient();
+    /** Maximum number of discover pages requested at once. */
+    private static final int PAGE_PARALLELISM = AppConfig.getInt("TMDB_PAGE_PARALLELISM", 10);
+
+    /** Maximum time in milliseconds a single credits request may take before its movie gets no credits. */
+    public static final long CREDITS_TIMEOUT_MS = AppConfig.getLong("TMDB_CREDITS_TIMEOUT_MS", 10_000L);
+
+    /** Maximum time in milliseconds a single discover page may take before it is skipped. */
+    private static final long PAGE_TIMEOUT_MS = AppConfig.getLong("TMDB_PAGE_TIMEOUT_MS", 15_000L);
 
     /** Private constructor preventing instantiation. */
     private NetUtil() {
@@ -62,36 +71,25 @@ public final class NetUtil {
 
     /**
      * Get the top 50 movies (with popularity) of this month's as Input stream from TMDB API.
+     * A movie listed on more than one page is kept once, at its first position.
      *
      * @return top 50 movies JSON string as input stream
      */
     public static InputStream getTop50MoviesJson() {
         final ObjectMapper mapper = new ObjectMapper();
         final ArrayNode allResults = mapper.createArrayNode();
-        final int totalPages = (int) Math.ceil(RESULTS_AMOUNT / 20.0);
         InputStream resultStream = InputStream.nullInputStream();
 
         try {
-            for (int page = 1; page <= totalPages; page++) {
-                final String url = buildUrl(page);
-
-                final Request request = new Request.Builder()
-                        .url(url)
-                        .get()
-                        .addHeader("accept", "application/json")
-                        .addHeader("Authorization", "Bearer " + API_TOKEN)
-                        .build();
-
-                try (Response response = CLIENT.newCall(request).execute()) {
-                    if (response.isSuccessful() && response.body() != null) {
-                        final JsonNode root = mapper.readTree(response.body().string());
-                        final JsonNode results = root.path("results");
-                        if (results.isArray()) {
-                            allResults.addAll((ArrayNode) results);
-                        }
-                    } else {
-                        LOGGER.error("Error fetching movies (Page {}): HTTP status {}", page, response.code());
-                    }
+            final List<JsonNode> results = fetchDiscoverPages(body -> {
+                final List<JsonNode> pageResults = new ArrayList<>();
+                mapper.readTree(body).path("results").forEach(pageResults::add);
+                return pageResults;
+            });
+            final IntHashSet seen = new IntHashSet(results.size());
+            for (final JsonNode result : results) {
+                if (seen.add(result.path("id").asInt())) {
+                    allResults.add(result);
                 }
             }
 
@@ -105,35 +103,155 @@ public final class NetUtil {
         return resultStream;
     }
 
+    /**
+     * Fetch every discover page and read each response body straight from the network stream.
+     * All pages are requested concurrently and merged in page order; a page that fails is
+     * logged and skipped rather than dropping the whole batch.
+     *
+     * @param handler reads the entries of one page from its response body
+     * @param <T>     entry type
+     * @return the entries of all pages in page order
+     */
+    public static <T> List<T> fetchDiscoverPages(final StreamHandler<List<T>> handler) {
+        return fetchPages(discoverPageCount(), page -> fetchDiscoverPage(page, handler));
+    }
+
+    /**
+     * Get the number of discover pages holding the configured number of movies.
+     *
+     * @return the number of pages to request
+     */
+    public static int discoverPageCount() {
+        return discoverPageCount(CATALOG_SIZE);
+    }
+
+    /**
+     * Get the number of discover pages holding a number of movies, at most the
+     * {@value #MAX_DISCOVER_PAGES} pages TMDB serves.
+     *
+     * @param catalogSize the number of movies
+     * @return the number of pages to request
+     */
+    static int discoverPageCount(final int catalogSize) {
+        final int pages = (Math.max(0, catalogSize) + PAGE_SIZE - 1) / PAGE_SIZE;
+        if (pages > MAX_DISCOVER_PAGES) {
+            LOGGER.warn("CATALOG_SIZE {} needs {} discover pages; TMDB serves {}, so at most {} movies load.",
+                    catalogSize, pages, MAX_DISCOVER_PAGES, MAX_DISCOVER_PAGES * PAGE_SIZE);
+        }
+        return Math.min(pages, MAX_DISCOVER_PAGES);
+    }
+
+    /**
+     * Read pages concurrently and merge their entries in page order.
+     * A page that fails or times out is logged and skipped rather than dropping the whole batch.
+     *
+     * @param totalPages number of pages, numbered from 1
+     * @param pageReader reads the entries of one page
+     * @param <T>        entry type
+     * @return the entries of all pages in page order
+     */
+    public static <T> List<T> fetchPages(final int totalPages, final Function<Integer, List<T>> pageReader) {
+        final List<Integer> pages = new ArrayList<>(totalPages);
+        for (int page = 1; page <= totalPages; page++) {
+            pages.add(page);
+        }
+
+        final List<List<T>> pageResults = ConcurrentFetcher.fetchAll(
+                pages,
+                pageReader,
+                page -> Collections.emptyList(),
+                PAGE_PARALLELISM,
+                PAGE_TIMEOUT_MS);
+
+        final List<T> allResults = new ArrayList<>();
+        for (final List<T> results : pageResults) {
+            allResults.addAll(results);
+        }
+        return allResults;
+    }
+
+    /**
+     * Fetch a single discover page and hand its body to the handler.
+     *
+     * @param page    the page number, starting at 1
+     * @param handler reads the entries of the page
+     * @param <T>     entry type
+     * @return the page's entries, empty if the request was not successful
+     * @throws UncheckedIOException if the request fails or the page cannot be read
+     */
+    private static <T> List<T> fetchDiscoverPage(final int page, final StreamHandler<List<T>> handler) {
+        try {
+            return fetchDiscoverPage(page, handler, Collections.emptyList());
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to fetch movies page " + page, e);
+        }
+    }
+
+    /**
+     * Fetch a single discover page and hand its body to the handler while the response is open.
+     *
+     * @param page     the page number, starting at 1
+     * @param handler  reads the discover document
+     * @param fallback value returned when the server answers with a non-successful status
+     * @param <T>      result type
+     * @return the handler's result, or the fallback
+     * @throws IOException if the request fails or the body cannot be read
+     */
+    public static <T> T fetchDiscoverPage(final int page, final StreamHandler<T> handler, final T fallback)
+            throws IOException {
+        return TmdbHttpClient.shared().get(buildUrl(page), handler, fallback);
+    }
+
     /**
      * Fetches crew information for a specific movie by ID.
+     * The body is read fully so the response can be released before the stream is returned.
      *
      * @param movieId the TMDB movie ID
      * @return the crew data as InputStream
      */
     public static InputStream getCrewJsonStream(final int movieId) {
-        final String url = "https://api.themoviedb.org/3/movie/" + movieId + "/credits";
-        final OkHttpClient client = new OkHttpClient();
         InputStream stream = InputStream.nullInputStream();
-
-        final Request request = new Request.Builder()
-                .url(url)
-                .get()
-                .addHeader("accept", "application/json")
-                .addHeader("Authorization", "Bearer " + API_TOKEN)
-                .build();
-
         try {
-            final Response response = client.newCall(request).execute();
-            if (!response.isSuccessful()) {
-                LOGGER.error("Failed to fetch crew for movie ID {}: {}", movieId, response.code());
-            } else if (response.body() != null) {
-                stream = response.body().byteStream();
+            final byte[] body = fetchCredits(movieId, InputStream::readAllBytes, null);
+            if (body != null) {
+                stream = new ByteArrayInputStream(body);
             }
         } catch (IOException e) {
             LOGGER.error("Error fetching crew data for movie ID {}: {}", movieId, e.getMessage(), e);
         }
-
         return stream;
     }
+
+    /**
+     * Fetches the credits of a specific movie and hands the response body to the handler
+     * while the response is open.
+     *
+     * @param movieId  the TMDB movie ID
+     * @param handler  reads the credits document
+     * @param fallback value returned when the server answers with a non-successful status
+     * @param <T>      result type
+     * @return the handler's result, or the fallback
+     * @throws IOException if the request fails or the body cannot be read
+     */
+    public static <T> T fetchCredits(final int movieId, final StreamHandler<T> handler, final T fallback)
+            throws IOException {
+        return TmdbHttpClient.shared().get(API_BASE_URL + "/movie/" + movieId + "/credits", handler, fallback);
+    }
+
+    /**
+     * Fetches the details of a specific movie with its credits appended, in one request,
+     * and hands the response body to the handler while the response is open.
+     *
+     * @param movieId  the TMDB movie ID
+     * @param handler  reads the details document
+     * @param fallback value returned when the server answers with a non-successful status
+     * @param <T>      result type
+     * @return the handler's result, or the fallback
+     * @throws IOException if the request fails or the body cannot be read
+     */
+    public static <T> T fetchDetails(final int movieId, final StreamHandler<T> handler, final T fallback)
+            throws IOException {
+        final String url = API_BASE_URL + "/movie/" + movieId + "?append_to_response=credits&language=en-US";
+        return TmdbHttpClient.shared().get(url, handler, fallback);
+    }
 }
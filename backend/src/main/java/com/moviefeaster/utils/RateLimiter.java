@@ -0,0 +1,95 @@
+package com.moviefeaster.utils;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Token bucket rate limiter shared by concurrent callers.
+ * Tokens refill continuously at a fixed rate up to a burst capacity; a caller that finds
+ * the bucket empty reserves the next token and sleeps until it is due.
+ */
+public final class RateLimiter {
+
+    /** Nanoseconds in a second. */
+    private static final double NANOS_PER_SECOND = 1_000_000_000.0;
+
+    /** Nanoseconds it takes to refill one token. */
+    private final double nanosPerToken;
+
+    /** Maximum number of tokens the bucket holds. */
+    private final double capacity;
+
+    /** Tokens currently available; negative when tokens are reserved ahead of time. */
+    private double tokens;
+
+    /** Time of the last refill, from {@link System#nanoTime()}. */
+    private long lastRefillNanos;
+
+    /** No token is handed out before this time, from {@link System#nanoTime()}. */
+    private long blockedUntilNanos;
+
+    /**
+     * Constructs a rate limiter with a full bucket.
+     *
+     * @param permitsPerSecond sustained rate at which tokens are added; finite and positive
+     * @param burst            maximum number of tokens that can be used at once
+     */
+    public RateLimiter(final double permitsPerSecond, final int burst) {
+        if (!Double.isFinite(permitsPerSecond) || permitsPerSecond <= 0.0) {
+            throw new IllegalArgumentException("Rate must be finite and positive.");
+        }
+        this.nanosPerToken = NANOS_PER_SECOND / permitsPerSecond;
+        this.capacity = Math.max(1, burst);
+        this.tokens = this.capacity;
+        this.lastRefillNanos = System.nanoTime();
+        this.blockedUntilNanos = this.lastRefillNanos;
+    }
+
+    /**
+     * Take one token, waiting until it is available.
+     *
+     * @throws InterruptedException if interrupted while waiting
+     */
+    public void acquire() throws InterruptedException {
+        final long waitNanos;
+        synchronized (this) {
+            final long now = System.nanoTime();
+            refill(now);
+            tokens -= 1.0;
+            final long tokenDue = tokens >= 0.0 ? now : now + (long) (-tokens * nanosPerToken);
+            waitNanos = Math.max(tokenDue, blockedUntilNanos) - now;
+        }
+        if (waitNanos > 0) {
+            TimeUnit.NANOSECONDS.sleep(waitNanos);
+        }
+    }
+
+    /**
+     * Hold back every caller for a while, e.g. when the server asked clients to slow down.
+     * Calling this again only ever extends the pause.
+     *
+     * @param delayMillis how long no token is handed out, in milliseconds
+     */
+    public synchronized void pause(final long delayMillis) {
+        final long until = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(Math.max(0, delayMillis));
+        blockedUntilNanos = Math.max(blockedUntilNanos, until);
+    }
+
+    /**
+     * Get how much longer the limiter is paused.
+     *
+     * @return the remaining pause in milliseconds, 0 if not paused
+     */
+    synchronized long getPausedMillis() {
+        return Math.max(0, TimeUnit.NANOSECONDS.toMillis(blockedUntilNanos - System.nanoTime()));
+    }
+
+    /**
+     * Add the tokens earned since the last refill.
+     *
+     * @param now the current time, from {@link System#nanoTime()}
+     */
+    private void refill(final long now) {
+        tokens = Math.min(capacity, tokens + (now - lastRefillNanos) / nanosPerToken);
+        lastRefillNanos = now;
+    }
+}
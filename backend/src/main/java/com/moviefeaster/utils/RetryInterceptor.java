@@ -0,0 +1,207 @@
+package com.moviefeaster.utils;
+
+import okhttp3.Interceptor;
+import okhttp3.Request;
+import okhttp3.Response;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.time.Duration;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Application interceptor that retries rate-limited, unavailable and failed requests.
+ * A {@code Retry-After} header pauses the shared rate limiter for its full length as soon as
+ * it arrives, even when this request then gives up, so other requests in flight also hold
+ * back; the request itself waits that long before retrying. Without the header the delay is
+ * an exponential backoff with full jitter, capped at the maximum delay. Retrying stops once
+ * the next delay would take the request past its retry budget, so a caller waiting with a
+ * timeout gets the last response or error rather than timing out itself.
+ */
+public final class RetryInterceptor implements Interceptor {
+
+    /** Logger instance for logging retries. */
+    private static final Logger LOGGER = LoggerFactory.getLogger(RetryInterceptor.class);
+
+    /** HTTP status sent when the client is over its rate limit. */
+    private static final int TOO_MANY_REQUESTS = 429;
+
+    /** Lowest HTTP status of the retried server errors. */
+    private static final int BAD_GATEWAY = 502;
+
+    /** Highest HTTP status of the retried server errors. */
+    private static final int GATEWAY_TIMEOUT = 504;
+
+    /** Limiter paused when the server sends {@code Retry-After}. */
+    private final RateLimiter rateLimiter;
+
+    /** Maximum number of retries after the first attempt. */
+    private final int maxRetries;
+
+    /** Backoff before the first retry, in milliseconds. */
+    private final long baseDelayMillis;
+
+    /** Upper bound for any single computed backoff, in milliseconds; {@code Retry-After} is not capped. */
+    private final long maxDelayMillis;
+
+    /** Upper bound for the time from the first attempt to the start of the last retry, in milliseconds. */
+    private final long budgetMillis;
+
+    /**
+     * Constructs a retry interceptor.
+     *
+     * @param rateLimiter     limiter paused when the server sends {@code Retry-After}
+     * @param maxRetries      maximum number of retries after the first attempt
+     * @param baseDelayMillis backoff before the first retry, in milliseconds
+     * @param maxDelayMillis  upper bound for any single backoff, in milliseconds
+     */
+    public RetryInterceptor(final RateLimiter rateLimiter, final int maxRetries,
+                            final long baseDelayMillis, final long maxDelayMillis) {
+        this(rateLimiter, maxRetries, baseDelayMillis, maxDelayMillis, Long.MAX_VALUE);
+    }
+
+    /**
+     * Constructs a retry interceptor with a retry budget.
+     *
+     * @param rateLimiter     limiter paused when the server sends {@code Retry-After}
+     * @param maxRetries      maximum number of retries after the first attempt
+     * @param baseDelayMillis backoff before the first retry, in milliseconds
+     * @param maxDelayMillis  upper bound for any single backoff, in milliseconds
+     * @param budgetMillis    upper bound for the time from the first attempt to the start of the
+     *                        last retry, in milliseconds
+     */
+    public RetryInterceptor(final RateLimiter rateLimiter, final int maxRetries,
+                            final long baseDelayMillis, final long maxDelayMillis, final long budgetMillis) {
+        this.rateLimiter = rateLimiter;
+        this.maxRetries = maxRetries;
+        this.baseDelayMillis = baseDelayMillis;
+        this.maxDelayMillis = maxDelayMillis;
+        this.budgetMillis = budgetMillis;
+    }
+
+    @Override
+    public Response intercept(final Chain chain) throws IOException {
+        final Request request = chain.request();
+        final long start = System.nanoTime();
+        int attempt = 0;
+        while (true) {
+            final Response response;
+            try {
+                response = chain.proceed(request);
+            } catch (InterruptedIOException e) {
+                throw e;
+            } catch (IOException e) {
+                final long delay = backoffMillis(attempt);
+                if (attempt >= maxRetries || chain.call().isCanceled() || overBudget(start, delay)) {
+                    throw e;
+                }
+                LOGGER.warn("Request to {} failed ({}), retrying", request.url().encodedPath(), e.getMessage());
+                attempt++;
+                sleep(delay);
+                continue;
+            }
+
+            if (!isRetryable(response.code())) {
+                return response;
+            }
+            final long retryAfter = retryAfterMillis(response.header("Retry-After"));
+            if (retryAfter >= 0) {
+                rateLimiter.pause(retryAfter);
+            }
+            if (attempt >= maxRetries) {
+                return response;
+            }
+
+            final long delay = retryAfter >= 0 ? retryAfter : backoffMillis(attempt);
+            if (overBudget(start, delay)) {
+                LOGGER.warn("Request to {} got HTTP status {}, retry budget spent",
+                        request.url().encodedPath(), response.code());
+                return response;
+            }
+            response.close();
+            LOGGER.warn("Request to {} got HTTP status {}, retrying in {} ms",
+                    request.url().encodedPath(), response.code(), delay);
+            attempt++;
+            sleep(delay);
+        }
+    }
+
+    /**
+     * Check whether waiting before another attempt would pass the retry budget.
+     *
+     * @param start       {@link System#nanoTime()} of the first attempt
+     * @param delayMillis the wait before the next attempt
+     * @return true if the next attempt would start after the budget
+     */
+    private boolean overBudget(final long start, final long delayMillis) {
+        final long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        return elapsedMillis + delayMillis > budgetMillis;
+    }
+
+    /**
+     * Check whether a status is worth retrying.
+     *
+     * @param code the HTTP status
+     * @return true for 429 and 502-504
+     */
+    private static boolean isRetryable(final int code) {
+        return code == TOO_MANY_REQUESTS || code >= BAD_GATEWAY && code <= GATEWAY_TIMEOUT;
+    }
+
+    /**
+     * Exponential backoff with full jitter.
+     *
+     * @param attempt number of retries already made
+     * @return a random delay between zero and the capped exponential delay, in milliseconds
+     */
+    private long backoffMillis(final int attempt) {
+        final long exponential = baseDelayMillis << Math.min(attempt, 20);
+        final long cap = Math.max(1, Math.min(maxDelayMillis, exponential));
+        return ThreadLocalRandom.current().nextLong(cap + 1);
+    }
+
+    /**
+     * Parse a {@code Retry-After} header given either in seconds or as an HTTP date.
+     *
+     * @param header the header value, possibly null
+     * @return the delay in milliseconds, or -1 if absent or unreadable
+     */
+    static long retryAfterMillis(final String header) {
+        long result = -1;
+        if (header != null && !header.isBlank()) {
+            final String value = header.trim();
+            try {
+                result = Math.max(0, Long.parseLong(value) * 1000);
+            } catch (NumberFormatException e) {
+                try {
+                    final ZonedDateTime date = ZonedDateTime.parse(value, DateTimeFormatter.RFC_1123_DATE_TIME);
+                    result = Math.max(0, Duration.between(ZonedDateTime.now(date.getZone()), date).toMillis());
+                } catch (DateTimeParseException ignored) {
+                    LOGGER.debug("Ignoring unreadable Retry-After header '{}'", value);
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Sleep before the next attempt.
+     *
+     * @param millis how long to wait
+     * @throws InterruptedIOException if interrupted while waiting
+     */
+    private static void sleep(final long millis) throws InterruptedIOException {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while backing off");
+        }
+    }
+}
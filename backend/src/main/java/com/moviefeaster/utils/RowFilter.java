@@ -0,0 +1,286 @@
+package com.moviefeaster.utils;
+
+import com.moviefeaster.model.ColumnarCatalog;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.List;
+import java.util.function.BiFunction;
+import java.util.function.ToIntFunction;
+
+/**
+ * A filter over the rows of a {@link ColumnarCatalog}, evaluated to a bitset of row positions.
+ * Leaf filters are answered either from an index, which yields its matching rows outright, or
+ * by scanning a column over the rows still in question. Filters combine with {@link #and},
+ * {@link #or} and {@link #not}, which work a machine word of rows at a time.
+ *
+ * <p>An AND evaluates its index-backed filters first, those with the fewest estimated rows
+ * leading, and hands each filter only the rows that survived the ones before, stopping once
+ * none are left. Scans therefore test the few rows the most selective filter let through
+ * rather than the whole catalog. Only the final bitset is turned into movies, by
+ * {@link ColumnarCatalog#toMovies}.
+ */
+public abstract class RowFilter {
+
+    /** Filter matching every row. */
+    private static final RowFilter ALL = new RowFilter(true) {
+        @Override
+        BitSet evaluate(final ColumnarCatalog columns, final BitSet candidates) {
+            return (BitSet) candidates.clone();
+        }
+    };
+
+    /** Filter matching no row. */
+    private static final RowFilter NONE = new RowFilter(true) {
+        @Override
+        BitSet evaluate(final ColumnarCatalog columns, final BitSet candidates) {
+            return new BitSet();
+        }
+
+        @Override
+        int estimate(final ColumnarCatalog columns) {
+            return 0;
+        }
+    };
+
+    /** Whether the filter is answered without testing rows one by one. */
+    private final boolean indexed;
+
+    /**
+     * Constructs a filter.
+     *
+     * @param indexed whether the filter is answered without testing rows one by one
+     */
+    RowFilter(final boolean indexed) {
+        this.indexed = indexed;
+    }
+
+    /**
+     * Find the candidate rows matching this filter.
+     *
+     * @param columns    the catalog columns
+     * @param candidates the rows to consider; not modified
+     * @return a new set holding the matching candidates
+     */
+    abstract BitSet evaluate(ColumnarCatalog columns, BitSet candidates);
+
+    /**
+     * Estimate how many rows of a catalog match this filter, so an AND can start with the most
+     * selective one. Unless a filter knows better, any row may match.
+     *
+     * @param columns the catalog columns
+     * @return the most rows that can match
+     */
+    int estimate(final ColumnarCatalog columns) {
+        return columns.size();
+    }
+
+    /**
+     * Find the rows of a catalog matching this filter.
+     *
+     * @param columns the catalog columns
+     * @return the matching rows
+     */
+    public BitSet evaluate(final ColumnarCatalog columns) {
+        return evaluate(columns, columns.allRows());
+    }
+
+    /**
+     * Get the filter matching every row.
+     *
+     * @return the filter
+     */
+    public static RowFilter all() {
+        return ALL;
+    }
+
+    /**
+     * Get the filter matching no row.
+     *
+     * @return the filter
+     */
+    public static RowFilter none() {
+        return NONE;
+    }
+
+    /**
+     * Make a filter answered from an index, which finds its rows in one step.
+     *
+     * @param lookup   finds the matching rows among the given candidate rows; the index may
+     *                 return matches outside them, which are dropped
+     * @param estimate estimates from the index how many rows of the catalog match
+     * @return the filter
+     */
+    public static RowFilter indexed(final BiFunction<ColumnarCatalog, BitSet, BitSet> lookup,
+                                    final ToIntFunction<ColumnarCatalog> estimate) {
+        return new RowFilter(true) {
+            @Override
+            BitSet evaluate(final ColumnarCatalog columns, final BitSet candidates) {
+                final BitSet result = lookup.apply(columns, candidates);
+                result.and(candidates);
+                return result;
+            }
+
+            @Override
+            int estimate(final ColumnarCatalog columns) {
+                return estimate.applyAsInt(columns);
+            }
+        };
+    }
+
+    /**
+     * Make a filter answered by scanning a column over the candidate rows.
+     *
+     * @param scan tests the given candidate rows and returns the matching ones
+     * @return the filter
+     */
+    public static RowFilter scan(final BiFunction<ColumnarCatalog, BitSet, BitSet> scan) {
+        return new RowFilter(false) {
+            @Override
+            BitSet evaluate(final ColumnarCatalog columns, final BitSet candidates) {
+                return scan.apply(columns, candidates);
+            }
+        };
+    }
+
+    /**
+     * Combine filters so a row must match all of them.
+     *
+     * @param filters the filters
+     * @return the combined filter, matching every row if there are no filters
+     */
+    public static RowFilter and(final List<RowFilter> filters) {
+        final List<RowFilter> lookups = new ArrayList<>(filters.size());
+        final List<RowFilter> scans = new ArrayList<>(filters.size());
+        for (final RowFilter filter : filters) {
+            (filter.indexed ? lookups : scans).add(filter);
+        }
+        return new RowFilter(scans.isEmpty()) {
+            @Override
+            BitSet evaluate(final ColumnarCatalog columns, final BitSet candidates) {
+                BitSet rows = candidates;
+                for (final RowFilter filter : ordered(columns)) {
+                    if (rows.isEmpty()) {
+                        break;
+                    }
+                    rows = filter.evaluate(columns, rows);
+                }
+                return rows == candidates ? (BitSet) candidates.clone() : rows;
+            }
+
+            @Override
+            int estimate(final ColumnarCatalog columns) {
+                int fewest = columns.size();
+                for (final RowFilter filter : lookups) {
+                    fewest = Math.min(fewest, filter.estimate(columns));
+                }
+                return fewest;
+            }
+
+            /**
+             * Order the filters for a catalog: index-backed ones by their estimate, fewest rows
+             * first, then the scans in the order given.
+             *
+             * @param columns the catalog columns
+             * @return the filters in evaluation order
+             */
+            private List<RowFilter> ordered(final ColumnarCatalog columns) {
+                final List<RowFilter> ordered = new ArrayList<>(lookups.size() + scans.size());
+                if (lookups.size() > 1) {
+                    final int[] estimates = new int[lookups.size()];
+                    final List<Integer> positions = new ArrayList<>(lookups.size());
+                    for (int i = 0; i < lookups.size(); i++) {
+                        estimates[i] = lookups.get(i).estimate(columns);
+                        positions.add(i);
+                    }
+                    positions.sort(Comparator.comparingInt(i -> estimates[i]));
+                    for (final int position : positions) {
+                        ordered.add(lookups.get(position));
+                    }
+                } else {
+                    ordered.addAll(lookups);
+                }
+                ordered.addAll(scans);
+                return ordered;
+            }
+        };
+    }
+
+    /**
+     * Combine filters so a row must match all of them.
+     *
+     * @param filters the filters
+     * @return the combined filter
+     */
+    public static RowFilter and(final RowFilter... filters) {
+        return and(List.of(filters));
+    }
+
+    /**
+     * Combine filters so a row must match at least one of them. Each filter after the first
+     * only considers the rows no earlier filter matched.
+     *
+     * @param filters the filters
+     * @return the combined filter, matching no row if there are no filters
+     */
+    public static RowFilter or(final List<RowFilter> filters) {
+        final List<RowFilter> alternatives = List.copyOf(filters);
+        boolean indexed = true;
+        for (final RowFilter filter : alternatives) {
+            indexed &= filter.indexed;
+        }
+        return new RowFilter(indexed) {
+            @Override
+            int estimate(final ColumnarCatalog columns) {
+                long total = 0;
+                for (final RowFilter filter : alternatives) {
+                    total += filter.estimate(columns);
+                }
+                return (int) Math.min(total, columns.size());
+            }
+
+            @Override
+            BitSet evaluate(final ColumnarCatalog columns, final BitSet candidates) {
+                final BitSet result = new BitSet();
+                final BitSet remaining = (BitSet) candidates.clone();
+                for (final RowFilter filter : alternatives) {
+                    if (remaining.isEmpty()) {
+                        break;
+                    }
+                    final BitSet matches = filter.evaluate(columns, remaining);
+                    result.or(matches);
+                    remaining.andNot(matches);
+                }
+                return result;
+            }
+        };
+    }
+
+    /**
+     * Combine filters so a row must match at least one of them.
+     *
+     * @param filters the filters
+     * @return the combined filter
+     */
+    public static RowFilter or(final RowFilter... filters) {
+        return or(List.of(filters));
+    }
+
+    /**
+     * Invert a filter.
+     *
+     * @param filter the filter
+     * @return a filter matching the rows the given one does not
+     */
+    public static RowFilter not(final RowFilter filter) {
+        return new RowFilter(filter.indexed) {
+            @Override
+            BitSet evaluate(final ColumnarCatalog columns, final BitSet candidates) {
+                final BitSet result = (BitSet) candidates.clone();
+                result.andNot(filter.evaluate(columns, candidates));
+                return result;
+            }
+        };
+    }
+}
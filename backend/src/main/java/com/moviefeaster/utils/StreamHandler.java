@@ -0,0 +1,23 @@
+package com.moviefeaster.utils;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Callback that consumes an HTTP response body while the response is still open.
+ * The stream is closed by the caller once the handler returns.
+ *
+ * @param <T> the type produced from the body
+ */
+@FunctionalInterface
+public interface StreamHandler<T> {
+
+    /**
+     * Read the response body.
+     *
+     * @param body the response body stream
+     * @return the value read from the body
+     * @throws IOException if the body cannot be read
+     */
+    T handle(InputStream body) throws IOException;
+}
@@ -0,0 +1,218 @@
+package com.moviefeaster.utils;
+
+import okhttp3.Cache;
+import okhttp3.ConnectionPool;
+import okhttp3.OkHttpClient;
+import okhttp3.Protocol;
+import okhttp3.Request;
+import okhttp3.Response;
+import okhttp3.ResponseBody;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+/**
+ * HTTP client used for all TMDB traffic.
+ * A single shared instance owns one connection pool, negotiates HTTP/2 where the server
+ * supports it, and always closes a response once its body has been handled. Calls run
+ * synchronously on the caller's thread, so how many are in flight is bounded by the callers,
+ * such as the permits of {@link ConcurrentFetcher}, not by OkHttp's dispatcher.
+ */
+public final class TmdbHttpClient {
+
+    /** Logger instance for logging failed requests. */
+    private static final Logger LOGGER = LoggerFactory.getLogger(TmdbHttpClient.class);
+
+    /** Maximum idle connections kept in the pool. */
+    private static final int MAX_IDLE_CONNECTIONS = AppConfig.getInt("TMDB_HTTP_MAX_IDLE_CONNECTIONS", 16);
+
+    /** How long an idle pooled connection is kept alive, in seconds. */
+    private static final long KEEP_ALIVE_SECONDS = AppConfig.getLong("TMDB_HTTP_KEEP_ALIVE_SECONDS", 300L);
+
+    /** Connect timeout in milliseconds. */
+    private static final long CONNECT_TIMEOUT_MS = AppConfig.getLong("TMDB_HTTP_CONNECT_TIMEOUT_MS", 5_000L);
+
+    /** Read timeout in milliseconds. */
+    private static final long READ_TIMEOUT_MS = AppConfig.getLong("TMDB_HTTP_READ_TIMEOUT_MS", 10_000L);
+
+    /** Timeout for a whole call, including redirects and reading the body, in milliseconds. */
+    private static final long CALL_TIMEOUT_MS = AppConfig.getLong("TMDB_HTTP_CALL_TIMEOUT_MS", 30_000L);
+
+    /** Directory of the on-disk response cache. */
+    private static final String CACHE_DIR = AppConfig.getString("TMDB_HTTP_CACHE_DIR", ".cache/tmdb");
+
+    /** Maximum size of the on-disk response cache in bytes; zero or less disables the cache. */
+    private static final long CACHE_MAX_BYTES = AppConfig.getLong("TMDB_HTTP_CACHE_MAX_BYTES", 100L * 1024 * 1024);
+
+    /** How long cached credits are served without revalidation, in seconds. */
+    private static final long CREDITS_TTL_SECONDS = AppConfig.getLong("TMDB_CREDITS_TTL_SECONDS", 7L * 24 * 60 * 60);
+
+    /** Paths of credits documents, whose cache lifetime is overridden. */
+    private static final Pattern CREDITS_PATH = Pattern.compile(".*/movie/\\d+/credits");
+
+    /** Sustained request rate allowed towards TMDB, per second. */
+    private static final double RATE_LIMIT_PER_SECOND = AppConfig.getPositiveDouble("TMDB_RATE_LIMIT_PER_SECOND", 40.0);
+
+    /** Number of requests that may be sent at once before the rate limit applies. */
+    private static final int RATE_LIMIT_BURST = AppConfig.getInt("TMDB_RATE_LIMIT_BURST", 20);
+
+    /** Maximum number of retries for a rate-limited or failed request. */
+    private static final int MAX_RETRIES = AppConfig.getInt("TMDB_MAX_RETRIES", 3);
+
+    /** Backoff before the first retry, in milliseconds. */
+    private static final long RETRY_BASE_DELAY_MS = AppConfig.getLong("TMDB_RETRY_BASE_DELAY_MS", 500L);
+
+    /** Upper bound for a single backoff, in milliseconds. */
+    private static final long RETRY_MAX_DELAY_MS = AppConfig.getLong("TMDB_RETRY_MAX_DELAY_MS", 10_000L);
+
+    /**
+     * Total time a request may spend on retries, in milliseconds: three quarters of the credits
+     * timeout, so the last retry still starts while the caller is waiting for the result.
+     */
+    private static final long RETRY_BUDGET_MS = NetUtil.CREDITS_TIMEOUT_MS * 3 / 4;
+
+    /** Token bucket shared by every request that reaches the network. */
+    private static final RateLimiter RATE_LIMITER = new RateLimiter(RATE_LIMIT_PER_SECOND, RATE_LIMIT_BURST);
+
+    /** The instance shared by all TMDB requests. */
+    private static final TmdbHttpClient SHARED =
+            new TmdbHttpClient(newHttpClient(), AppConfig.getString("TMDB_API_TOKEN", ""));
+
+    /** The underlying OkHttp client. */
+    private final OkHttpClient client;
+
+    /** Bearer token sent with every request. */
+    private final String apiToken;
+
+    /**
+     * Constructs a client around an existing OkHttp client.
+     *
+     * @param client   the OkHttp client to send requests with
+     * @param apiToken the TMDB bearer token
+     */
+    public TmdbHttpClient(final OkHttpClient client, final String apiToken) {
+        this.client = client;
+        this.apiToken = apiToken;
+    }
+
+    /**
+     * Get the instance shared by all TMDB requests.
+     *
+     * @return the shared client
+     */
+    public static TmdbHttpClient shared() {
+        return SHARED;
+    }
+
+    /**
+     * Build an OkHttp client with the configured pool, dispatcher, protocol, timeout and cache settings.
+     *
+     * @return a new OkHttp client
+     */
+    public static OkHttpClient newHttpClient() {
+        final Cache cache = CACHE_MAX_BYTES > 0 ? new Cache(new File(CACHE_DIR), CACHE_MAX_BYTES) : null;
+        return newHttpClient(cache);
+    }
+
+    /**
+     * Build an OkHttp client with the configured settings and the given response cache.
+     * Responses are stored by URL and revalidated with ETag/Last-Modified once stale;
+     * credits documents are kept fresh for the configured credits TTL.
+     *
+     * @param cache the on-disk response cache, or null for none
+     * @return a new OkHttp client
+     */
+    public static OkHttpClient newHttpClient(final Cache cache) {
+        return newHttpClient(cache, RATE_LIMITER);
+    }
+
+    /**
+     * Build an OkHttp client with the configured settings, the given response cache and rate limiter.
+     * Requests that reach the network take a token from the limiter, so cache hits are free;
+     * rate-limited and failed requests are retried with backoff.
+     *
+     * @param cache       the on-disk response cache, or null for none
+     * @param rateLimiter the token bucket shared by every request of the client
+     * @return a new OkHttp client
+     */
+    public static OkHttpClient newHttpClient(final Cache cache, final RateLimiter rateLimiter) {
+        final OkHttpClient.Builder builder = configure(new OkHttpClient.Builder())
+                .addInterceptor(new RetryInterceptor(rateLimiter, MAX_RETRIES, RETRY_BASE_DELAY_MS, RETRY_MAX_DELAY_MS,
+                        RETRY_BUDGET_MS))
+                .addNetworkInterceptor(chain -> {
+                    try {
+                        rateLimiter.acquire();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        throw new InterruptedIOException("Interrupted while waiting for the rate limiter");
+                    }
+                    return chain.proceed(chain.request());
+                });
+        if (cache != null) {
+            builder.cache(cache)
+                    .addNetworkInterceptor(new CacheTtlInterceptor(CREDITS_PATH, CREDITS_TTL_SECONDS));
+        }
+        return builder.build();
+    }
+
+    /**
+     * Apply the configured pool, protocol and timeout settings to a builder.
+     *
+     * @param builder the builder to configure
+     * @return the same builder
+     */
+    public static OkHttpClient.Builder configure(final OkHttpClient.Builder builder) {
+        return builder
+                .connectionPool(new ConnectionPool(MAX_IDLE_CONNECTIONS, KEEP_ALIVE_SECONDS, TimeUnit.SECONDS))
+                .protocols(List.of(Protocol.HTTP_2, Protocol.HTTP_1_1))
+                .connectTimeout(CONNECT_TIMEOUT_MS, TimeUnit.MILLISECONDS)
+                .readTimeout(READ_TIMEOUT_MS, TimeUnit.MILLISECONDS)
+                .callTimeout(CALL_TIMEOUT_MS, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Get the underlying OkHttp client.
+     *
+     * @return the OkHttp client
+     */
+    public OkHttpClient getClient() {
+        return client;
+    }
+
+    /**
+     * Send an authenticated GET request and hand the body of a successful response to the handler.
+     * The response is closed when this method returns, whatever the outcome.
+     *
+     * @param url      the URL to request
+     * @param handler  reads the response body
+     * @param fallback value returned when the server answers with a non-successful status
+     * @param <T>      result type
+     * @return the handler's result, or the fallback
+     * @throws IOException if the request fails or the handler cannot read the body
+     */
+    public <T> T get(final String url, final StreamHandler<T> handler, final T fallback) throws IOException {
+        final Request request = new Request.Builder()
+                .url(url)
+                .get()
+                .addHeader("accept", "application/json")
+                .addHeader("Authorization", "Bearer " + apiToken)
+                .build();
+
+        T result = fallback;
+        try (Response response = client.newCall(request).execute()) {
+            final ResponseBody body = response.body();
+            if (response.isSuccessful() && body != null) {
+                result = handler.handle(body.byteStream());
+            } else {
+                LOGGER.error("Request to {} failed: HTTP status {}", request.url().encodedPath(), response.code());
+            }
+        }
+        return result;
+    }
+}
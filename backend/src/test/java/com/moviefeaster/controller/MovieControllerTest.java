@@ -6,6 +6,7 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.web.server.ResponseStatusException;
 
 import java.util.*;
 
@@ -416,6 +417,40 @@ public class MovieControllerTest {
         assertEquals(testMovies, result);
     }
 
+    /**
+     * Tests that catalog reads are rejected with 503 while no catalog is available.
+     * Verifies that the model is not queried.
+     */
+    @Test
+    public void testCatalogReadsUnavailableBeforeCatalogLoads() {
+        // Setup
+        movieModel.unavailable = true;
+
+        // Test & Verify
+        ResponseStatusException exception = assertThrows(ResponseStatusException.class,
+                () -> movieController.getAllMovies());
+        assertEquals(HttpStatus.SERVICE_UNAVAILABLE, exception.getStatusCode());
+        assertThrows(ResponseStatusException.class, () -> movieController.getMovieById(1));
+        assertThrows(ResponseStatusException.class,
+                () -> movieController.handleMultiFilterSearch(null, null, null, null, null));
+        assertEquals(0, movieModel.movieByIdCalled);
+        assertFalse(movieModel.searchByFilterCalled);
+    }
+
+    /**
+     * Tests the getStatus method.
+     * Verifies that the status is available before the catalog is loaded.
+     */
+    @Test
+    public void testGetStatus() {
+        // Test
+        WarmUpStatus status = movieController.getStatus();
+
+        // Verify
+        assertEquals(CatalogState.COLD, status.getState());
+        assertFalse(status.isReady());
+    }
+
     /**
      * Tests the getMovieById method with an existing movie ID.
      * Verifies that the method correctly passes the movie ID to the model
@@ -646,6 +681,9 @@ public class MovieControllerTest {
         /** Map to store filter strategy passed to searchByFilter method. */
         private Map<MovieFilterType, Object> filterStrategy = new HashMap<>();
 
+        /** Whether the model reports that no catalog is available. */
+        private boolean unavailable = false;
+
         /** Sort type passed to sortMovieList method. */
         private MovieSorterType sortType;
 
@@ -703,6 +741,11 @@ public class MovieControllerTest {
             return movieById;
         }
 
+        @Override
+        public boolean isCatalogUnavailable() {
+            return unavailable;
+        }
+
         @Override
         public List<Movie> getProcessedMovies() {
             if (throwExceptionOnGetProcessedMovies) {
@@ -0,0 +1,219 @@
+package com.moviefeaster.controller;
+
+import com.moviefeaster.service.PosterCache;
+import com.moviefeaster.service.PosterThumbnailer;
+import okhttp3.OkHttpClient;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okio.Buffer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.server.ResponseStatusException;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class for PosterController.
+ */
+class PosterControllerTest {
+
+    /** Local server standing in for the image server. */
+    private MockWebServer server;
+
+    /** Thumbnail pipeline of the controller. */
+    private PosterThumbnailer thumbnailer;
+
+    /** Controller under test. */
+    private PosterController controller;
+
+    @BeforeEach
+    void setUp(@TempDir Path dir) throws IOException {
+        server = new MockWebServer();
+        server.start();
+        PosterCache cache = new PosterCache(new OkHttpClient(), server.url("/").toString(), dir, 1_000_000);
+        thumbnailer = new PosterThumbnailer(cache, PosterThumbnailer.getWidths(), 2);
+        controller = new PosterController(cache, thumbnailer);
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        thumbnailer.shutdown();
+        server.shutdown();
+    }
+
+    /**
+     * Tests that a poster is served with its bytes, a strong ETag and long-lived cache headers.
+     */
+    @Test
+    void testGetPoster() throws IOException {
+        server.enqueue(new MockResponse().setBody("poster-bytes"));
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        controller.getPoster("p.png", null, new MockHttpServletRequest(), response);
+
+        assertEquals(200, response.getStatus());
+        assertEquals("poster-bytes", response.getContentAsString());
+        assertEquals("image/png", response.getContentType());
+        assertEquals(12, response.getContentLengthLong());
+        assertEquals(PosterController.CACHE_CONTROL, response.getHeader("Cache-Control"));
+        assertTrue(response.getHeader("ETag").startsWith("\""));
+    }
+
+    /**
+     * Tests that a container supporting sendfile is handed the cached file instead of the bytes.
+     */
+    @Test
+    void testGetPosterWithSendfile() throws IOException {
+        server.enqueue(new MockResponse().setBody("poster-bytes"));
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.setAttribute(PosterController.SENDFILE_SUPPORT, Boolean.TRUE);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        controller.getPoster("p.png", null, request, response);
+
+        assertEquals(200, response.getStatus());
+        assertEquals(0, response.getContentAsByteArray().length);
+        assertEquals(12, response.getContentLengthLong());
+        Path file = Path.of((String) request.getAttribute(PosterController.SENDFILE_FILENAME));
+        assertEquals("poster-bytes", Files.readString(file));
+        assertEquals(0L, request.getAttribute(PosterController.SENDFILE_START));
+        assertEquals(12L, request.getAttribute(PosterController.SENDFILE_END));
+    }
+
+    /**
+     * Tests that a matching If-None-Match answers 304 without a body.
+     */
+    @Test
+    void testGetPosterNotModified() throws IOException {
+        server.enqueue(new MockResponse().setBody("poster-bytes"));
+        MockHttpServletResponse first = new MockHttpServletResponse();
+        controller.getPoster("p.jpg", null, new MockHttpServletRequest(), first);
+        MockHttpServletResponse second = new MockHttpServletResponse();
+
+        controller.getPoster("p.jpg", "\"other\", " + first.getHeader("ETag"), new MockHttpServletRequest(), second);
+
+        assertEquals(304, second.getStatus());
+        assertEquals(0, second.getContentAsByteArray().length);
+        assertEquals(first.getHeader("ETag"), second.getHeader("ETag"));
+        assertEquals(1, server.getRequestCount());
+    }
+
+    /**
+     * Tests that a thumbnail size serves the original without long-lived caching until its
+     * variant exists, and the variant afterwards.
+     */
+    @Test
+    void testGetPosterVariant() throws Exception {
+        server.enqueue(new MockResponse().setBody(new Buffer().write(jpeg(500, 750))));
+        int width = PosterThumbnailer.getWidths().get(0);
+        MockHttpServletResponse pending = new MockHttpServletResponse();
+
+        controller.getPosterVariant("w" + width, "v.jpg", null, new MockHttpServletRequest(), pending);
+        thumbnailer.submit("v.jpg").get(10, TimeUnit.SECONDS);
+        MockHttpServletResponse ready = new MockHttpServletResponse();
+        controller.getPosterVariant("w" + width, "v.jpg", null, new MockHttpServletRequest(), ready);
+
+        assertEquals(PosterController.CACHE_CONTROL_PENDING, pending.getHeader("Cache-Control"));
+        assertEquals(PosterController.CACHE_CONTROL, ready.getHeader("Cache-Control"));
+        assertNotEquals(pending.getHeader("ETag"), ready.getHeader("ETag"));
+        BufferedImage image = ImageIO.read(new ByteArrayInputStream(ready.getContentAsByteArray()));
+        assertEquals(width, image.getWidth());
+        assertEquals(1, server.getRequestCount());
+    }
+
+    /**
+     * Tests that a thumbnail width wider than the poster serves the original with long-lived caching
+     * once the poster's width is known.
+     */
+    @Test
+    void testGetPosterVariantWiderThanPoster() throws Exception {
+        int width = PosterThumbnailer.getWidths().get(0);
+        server.enqueue(new MockResponse().setBody(new Buffer().write(jpeg(width / 2, width))));
+        MockHttpServletResponse pending = new MockHttpServletResponse();
+
+        controller.getPosterVariant("w" + width, "n.jpg", null, new MockHttpServletRequest(), pending);
+        thumbnailer.submit("n.jpg").get(10, TimeUnit.SECONDS);
+        MockHttpServletResponse original = new MockHttpServletResponse();
+        controller.getPosterVariant("w" + width, "n.jpg", null, new MockHttpServletRequest(), original);
+
+        assertEquals(PosterController.CACHE_CONTROL_PENDING, pending.getHeader("Cache-Control"));
+        assertEquals(PosterController.CACHE_CONTROL, original.getHeader("Cache-Control"));
+        assertEquals(pending.getHeader("ETag"), original.getHeader("ETag"));
+        assertArrayEquals(pending.getContentAsByteArray(), original.getContentAsByteArray());
+        assertEquals(1, server.getRequestCount());
+    }
+
+    /**
+     * Tests that a size that is not a thumbnail width serves the original and an unknown size answers 400.
+     */
+    @Test
+    void testGetPosterOtherSizes() throws IOException {
+        server.enqueue(new MockResponse().setBody("poster-bytes"));
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        controller.getPosterVariant("w500", "p.jpg", null, new MockHttpServletRequest(), response);
+
+        assertEquals("poster-bytes", response.getContentAsString());
+        assertEquals(PosterController.CACHE_CONTROL, response.getHeader("Cache-Control"));
+        ResponseStatusException exception = assertThrows(ResponseStatusException.class,
+                () -> controller.getPosterVariant("huge", "p.jpg", null,
+                        new MockHttpServletRequest(), new MockHttpServletResponse()));
+        assertEquals(HttpStatus.BAD_REQUEST, exception.getStatusCode());
+    }
+
+    /**
+     * Tests that a poster the upstream does not have answers 404.
+     */
+    @Test
+    void testGetPosterNotFound() {
+        server.enqueue(new MockResponse().setResponseCode(404));
+
+        ResponseStatusException exception = assertThrows(ResponseStatusException.class,
+                () -> controller.getPoster("gone.jpg", null,
+                        new MockHttpServletRequest(), new MockHttpServletResponse()));
+        assertEquals(HttpStatus.NOT_FOUND, exception.getStatusCode());
+    }
+
+    /**
+     * Tests that an invalid file name answers 400.
+     */
+    @Test
+    void testGetPosterInvalidName() {
+        ResponseStatusException exception = assertThrows(ResponseStatusException.class,
+                () -> controller.getPoster("..%2Fx.jpg", null,
+                        new MockHttpServletRequest(), new MockHttpServletResponse()));
+        assertEquals(HttpStatus.BAD_REQUEST, exception.getStatusCode());
+    }
+
+    /**
+     * Tests the weak comparison of If-None-Match values.
+     */
+    @Test
+    void testMatches() {
+        assertTrue(PosterController.matches("W/\"abc\"", "\"abc\""));
+        assertTrue(PosterController.matches("*", "\"abc\""));
+        assertFalse(PosterController.matches("\"abd\"", "\"abc\""));
+        assertFalse(PosterController.matches(null, "\"abc\""));
+    }
+
+    private static byte[] jpeg(int width, int height) throws IOException {
+        BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ImageIO.write(image, "jpg", out);
+        return out.toByteArray();
+    }
+}
@@ -0,0 +1,72 @@
+package com.moviefeaster.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class for Catalog.
+ */
+class CatalogTest {
+
+    /**
+     * Tests that the empty catalog has version 0 and no movies.
+     */
+    @Test
+    void emptyCatalog() {
+        Catalog catalog = Catalog.empty();
+
+        assertEquals(0, catalog.getVersion());
+        assertTrue(catalog.isEmpty());
+        assertNull(catalog.getMovie(1));
+    }
+
+    /**
+     * Tests that each next catalog gets the next version and finds movies by ID.
+     */
+    @Test
+    void nextVersionIndexesMovies() {
+        Movie first = new Movie.Builder().movieId(10).title("First").build();
+        Movie second = new Movie.Builder().movieId(20).title("Second").build();
+
+        Catalog catalog = Catalog.empty().next(List.of(first, second)).next(List.of(second));
+
+        assertEquals(2, catalog.getVersion());
+        assertEquals(1, catalog.size());
+        assertSame(second, catalog.getMovie(20));
+        assertNull(catalog.getMovie(10));
+    }
+
+    /**
+     * Tests that a catalog is not affected by later changes to its source list and cannot be changed.
+     */
+    @Test
+    void catalogIsImmutable() {
+        List<Movie> source = new ArrayList<>();
+        source.add(new Movie.Builder().movieId(1).title("One").build());
+        Catalog catalog = new Catalog(1, source);
+
+        source.add(new Movie.Builder().movieId(2).title("Two").build());
+
+        assertEquals(1, catalog.size());
+        assertNull(catalog.getMovie(2));
+        assertThrows(UnsupportedOperationException.class, () -> catalog.getMovies().clear());
+    }
+
+    /**
+     * Tests that the first of several movies sharing an ID is the one found by that ID.
+     */
+    @Test
+    void repeatedIdFindsFirstMovie() {
+        Movie first = new Movie.Builder().movieId(0).title("First").build();
+        Movie second = new Movie.Builder().movieId(0).title("Second").build();
+
+        Catalog catalog = new Catalog(1, List.of(first, second));
+
+        assertEquals(2, catalog.size());
+        assertSame(first, catalog.getMovie(0));
+    }
+}
@@ -0,0 +1,147 @@
+package com.moviefeaster.model;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.BitSet;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class for ColumnarCatalog.
+ */
+class ColumnarCatalogTest {
+
+    /** First test movie. */
+    private Movie alien;
+
+    /** Second test movie. */
+    private Movie aliens;
+
+    /** Third test movie. */
+    private Movie heat;
+
+    /** Columns of the three test movies. */
+    private ColumnarCatalog columns;
+
+    /**
+     * Sets up test data before each test.
+     */
+    @BeforeEach
+    void setUp() {
+        alien = new Movie.Builder().movieId(348).title("Alien").year(1979).rating(8.1)
+                .directors(List.of("Ridley Scott")).castings(List.of("Sigourney Weaver", "Tom Skerritt"))
+                .genres(List.of(Genre.HORROR, Genre.SCIENCE_FICTION)).build();
+        aliens = new Movie.Builder().movieId(679).title("Aliens").year(1986).rating(7.9)
+                .directors(List.of("James Cameron")).castings(List.of("Sigourney Weaver", "Michael Biehn"))
+                .genres(List.of(Genre.ACTION, Genre.SCIENCE_FICTION)).build();
+        heat = new Movie.Builder().movieId(949).title("Heat").year(1995).rating(7.9)
+                .directors(List.of("Michael Mann")).castings(List.of("Al Pacino", "Robert De Niro"))
+                .genres(List.of(Genre.CRIME)).build();
+        columns = new ColumnarCatalog(List.of(alien, aliens, heat));
+    }
+
+    /**
+     * Tests that rows follow the list order and are found by movie ID.
+     */
+    @Test
+    void rowsFollowListOrder() {
+        assertEquals(3, columns.size());
+        assertSame(aliens, columns.getMovie(1));
+        assertEquals(949, columns.getId(2));
+        assertEquals(2, columns.rowOf(949));
+        assertEquals(-1, columns.rowOf(1));
+    }
+
+    /**
+     * Tests that a name shared by several movies is stored once in the people dictionary.
+     */
+    @Test
+    void peopleAreDictionaryEncoded() {
+        assertEquals(8, columns.getPeopleCount());
+        assertEquals(rows(0, 1), columns.castContains("weaver"));
+        assertEquals(rows(1, 2), columns.directorContains("m"));
+        assertEquals(rows(), columns.castContains("nobody"));
+    }
+
+    /**
+     * Tests the scans over the title, year, rating and genre columns.
+     */
+    @Test
+    void scansColumns() {
+        assertEquals(rows(0, 1), columns.titleContains("alien"));
+        assertEquals(rows(0), columns.titleEquals("alien"));
+        assertEquals(rows(1, 2), columns.yearBetween(1980, 2000));
+        assertEquals(rows(1, 2), columns.ratingBetween(0, 8.0));
+        long sciFi = 1L << Genre.SCIENCE_FICTION.ordinal();
+        long crime = 1L << Genre.CRIME.ordinal();
+        assertEquals(rows(0, 1), columns.genreAny(sciFi));
+        assertEquals(rows(0, 1, 2), columns.genreAny(sciFi | crime));
+    }
+
+    /**
+     * Tests that in-app rating filters and sorts see a rating as soon as it is added.
+     */
+    @Test
+    void readsCurrentInAppRatings() {
+        assertEquals(rows(), columns.inAppRatingAtLeast(1.0));
+
+        heat.addInAppRating(4.0);
+
+        assertEquals(rows(2), columns.inAppRatingAtLeast(1.0));
+        assertSame(heat, columns.sort(columns.toMovies(columns.allRows()), MovieSorterType.INAPP_RATING_DESC).get(0));
+    }
+
+    /**
+     * Tests that comments are read from the movies as they change.
+     */
+    @Test
+    void scansCurrentComments() {
+        aliens.addComment("Game over, man!");
+
+        assertEquals(rows(1), columns.commentContains("game over"));
+    }
+
+    /**
+     * Tests that sorting on the columns keeps ties in their original order.
+     */
+    @Test
+    void sortsStably() {
+        assertEquals(List.of(heat, aliens, alien), columns.sort(List.of(heat, aliens, alien),
+                MovieSorterType.YEAR_DESC));
+        assertEquals(List.of(aliens, heat, alien), columns.sort(List.of(aliens, heat, alien),
+                MovieSorterType.RATING_ASC));
+        assertEquals(List.of(heat, aliens, alien), columns.sort(List.of(heat, aliens, alien),
+                MovieSorterType.RATING_ASC));
+        assertEquals(List.of(heat, aliens, alien), columns.sort(List.of(alien, heat, aliens),
+                MovieSorterType.TITLE_DESC));
+    }
+
+    /**
+     * Tests that a list holding a movie that is not a row cannot be sorted on the columns.
+     */
+    @Test
+    void sortRejectsForeignMovies() {
+        Movie copy = new Movie.Builder().movieId(348).title("Alien").build();
+
+        assertNull(columns.sort(List.of(heat, copy), MovieSorterType.TITLE_ASC));
+        assertEquals(List.of(), columns.sort(List.of(), MovieSorterType.TITLE_ASC));
+    }
+
+    /**
+     * Tests that the movies of a set of rows come back in row order.
+     */
+    @Test
+    void toMoviesKeepsRowOrder() {
+        assertEquals(List.of(alien, heat), columns.toMovies(rows(2, 0)));
+    }
+
+    private static BitSet rows(final int... rows) {
+        BitSet result = new BitSet();
+        for (int row : rows) {
+            result.set(row);
+        }
+        return result;
+    }
+}
@@ -2,8 +2,12 @@ package com.moviefeaster.model;
 
 import org.junit.jupiter.api.Test;
 
+import java.util.Arrays;
+import java.util.List;
+
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 public class GenreTest {
 
@@ -85,4 +89,50 @@ public class GenreTest {
         assertNull(Genre.fromName("Action"));
         assertNull(Genre.fromName("action"));
     }
+
+    /**
+     * Tests that every genre has its own bit and fits in a long mask.
+     */
+    @Test
+    void testBitsAreDistinct() {
+        long all = 0;
+        for (Genre genre : Genre.values()) {
+            assertEquals(1, Long.bitCount(genre.bit()));
+            assertEquals(0, all & genre.bit());
+            all |= genre.bit();
+        }
+        assertEquals(Genre.values().length, Long.bitCount(all));
+    }
+
+    /**
+     * Tests that a mask built from genres lists the same genres back, skipping nulls.
+     */
+    @Test
+    void testMaskRoundTrip() {
+        long mask = Genre.maskOf(Arrays.asList(Genre.WESTERN, null, Genre.ACTION, Genre.WESTERN));
+
+        assertEquals(Genre.ACTION.bit() | Genre.WESTERN.bit(), mask);
+        assertEquals(List.of(Genre.ACTION, Genre.WESTERN), Genre.fromMask(mask));
+        assertEquals(0, Genre.maskOf(null));
+        assertTrue(Genre.fromMask(0).isEmpty());
+    }
+
+    /**
+     * Tests that a keyword mask holds every genre whose name contains the keyword, ignoring case.
+     */
+    @Test
+    void testMaskMatching() {
+        assertEquals(Genre.TV_MOVIE.bit(), Genre.maskMatching("movie"));
+        assertEquals(Genre.COMEDY.bit() | Genre.FANTASY.bit() | Genre.FAMILY.bit()
+                | Genre.HISTORY.bit() | Genre.MYSTERY.bit() | Genre.DOCUMENTARY.bit(), Genre.maskMatching("Y"));
+        assertEquals(0, Genre.maskMatching("none"));
+    }
+
+    /**
+     * Tests that Genre.fromName returns null for null.
+     */
+    @Test
+    void testGenreFromNameWithNull() {
+        assertNull(Genre.fromName(null));
+    }
 }
@@ -8,7 +8,7 @@ class MovieFilterTypeTest {
     @Test
     void testEnumValues() {
         MovieFilterType[] values = MovieFilterType.values();
-        assertEquals(11, values.length);
+        assertEquals(13, values.length);
         
         assertEquals(MovieFilterType.TITLE_KEYWORD, values[0]);
         assertEquals(MovieFilterType.EXACT_TITLE, values[1]);
@@ -21,6 +21,8 @@ class MovieFilterTypeTest {
         assertEquals(MovieFilterType.MAX_RATING, values[8]);
         assertEquals(MovieFilterType.COMMENT_KEYWORD, values[9]);
         assertEquals(MovieFilterType.MIN_INAPP_RATING, values[10]);
+        assertEquals(MovieFilterType.ANY_GENRE, values[11]);
+        assertEquals(MovieFilterType.ALL_GENRES, values[12]);
     }
 
     @Test
@@ -36,6 +38,8 @@ class MovieFilterTypeTest {
         assertEquals(MovieFilterType.MAX_RATING, MovieFilterType.valueOf("MAX_RATING"));
         assertEquals(MovieFilterType.COMMENT_KEYWORD, MovieFilterType.valueOf("COMMENT_KEYWORD"));
         assertEquals(MovieFilterType.MIN_INAPP_RATING, MovieFilterType.valueOf("MIN_INAPP_RATING"));
+        assertEquals(MovieFilterType.ANY_GENRE, MovieFilterType.valueOf("ANY_GENRE"));
+        assertEquals(MovieFilterType.ALL_GENRES, MovieFilterType.valueOf("ALL_GENRES"));
     }
 
     @Test
@@ -51,6 +55,8 @@ class MovieFilterTypeTest {
         assertEquals(8, MovieFilterType.MAX_RATING.ordinal());
         assertEquals(9, MovieFilterType.COMMENT_KEYWORD.ordinal());
         assertEquals(10, MovieFilterType.MIN_INAPP_RATING.ordinal());
+        assertEquals(11, MovieFilterType.ANY_GENRE.ordinal());
+        assertEquals(12, MovieFilterType.ALL_GENRES.ordinal());
     }
 
     @Test
@@ -66,5 +72,7 @@ class MovieFilterTypeTest {
         assertEquals("MAX_RATING", MovieFilterType.MAX_RATING.toString());
         assertEquals("COMMENT_KEYWORD", MovieFilterType.COMMENT_KEYWORD.toString());
         assertEquals("MIN_INAPP_RATING", MovieFilterType.MIN_INAPP_RATING.toString());
+        assertEquals("ANY_GENRE", MovieFilterType.ANY_GENRE.toString());
+        assertEquals("ALL_GENRES", MovieFilterType.ALL_GENRES.toString());
     }
 }
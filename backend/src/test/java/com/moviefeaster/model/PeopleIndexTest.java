@@ -0,0 +1,116 @@
+package com.moviefeaster.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.BitSet;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class for PeopleIndex.
+ */
+class PeopleIndexTest {
+
+    /** Names of the people IDs used by most tests. */
+    private static final String[] NAMES = {"ridley scott", "james cameron", "michael mann", "sigourney weaver",
+        "michael biehn", ""};
+
+    /**
+     * Builds the index of three rows: row 0 directed by 0 with cast 3, row 1 directed by 1
+     * with cast 3 and 4 (4 listed twice), row 2 directed by 2 with no cast.
+     *
+     * @return the index
+     */
+    private static PeopleIndex index() {
+        return new PeopleIndex(NAMES, new int[]{0, 1, 2, 3}, new int[]{0, 1, 2},
+                new int[]{0, 1, 4, 4}, new int[]{3, 3, 4, 4});
+    }
+
+    /**
+     * Tests that names are matched anywhere, not only at their start.
+     */
+    @Test
+    void findsNamesContainingKeyword() {
+        PeopleIndex index = index();
+
+        assertEquals(bits(2, 4), index.namesContaining("michael"));
+        assertEquals(bits(1, 2, 4), index.namesContaining("m"));
+        assertEquals(bits(0, 3), index.namesContaining("ey "));
+        assertEquals(bits(), index.namesContaining("weaverx"));
+        assertEquals(bits(), index.namesContaining("zz"));
+        assertEquals(6, index.size());
+    }
+
+    /**
+     * Tests that director and cast queries return the rows of the matching people.
+     */
+    @Test
+    void findsRowsByRole() {
+        PeopleIndex index = index();
+
+        assertEquals(bits(1, 2), index.directorsContaining("m"));
+        assertEquals(bits(0, 1), index.castContaining("weaver"));
+        assertEquals(bits(1), index.castContaining("biehn"));
+        assertEquals(bits(), index.castContaining("scott"));
+    }
+
+    /**
+     * Tests that estimates add up the posting lists of the matching people.
+     */
+    @Test
+    void estimatesRowsByRole() {
+        PeopleIndex index = index();
+
+        assertEquals(2, index.estimateDirectors("m"));
+        assertEquals(3, index.estimateCast("e"));
+        assertEquals(0, index.estimateCast("scott"));
+    }
+
+    /**
+     * Tests random keywords against a scan of random names.
+     */
+    @Test
+    void matchesContainsOnRandomNames() {
+        Random random = new Random(3);
+        String[] names = new String[300];
+        for (int i = 0; i < names.length; i++) {
+            names[i] = randomText(random, 1 + random.nextInt(12));
+        }
+        int[] offsets = new int[names.length + 1];
+        int[] ids = new int[names.length];
+        for (int i = 0; i < names.length; i++) {
+            offsets[i + 1] = i + 1;
+            ids[i] = i;
+        }
+        PeopleIndex index = new PeopleIndex(names, offsets, ids, new int[names.length + 1], new int[0]);
+
+        for (int q = 0; q < 300; q++) {
+            String keyword = randomText(random, 1 + random.nextInt(4));
+            BitSet expected = new BitSet();
+            for (int i = 0; i < names.length; i++) {
+                if (names[i].contains(keyword)) {
+                    expected.set(i);
+                }
+            }
+            assertEquals(expected, index.directorsContaining(keyword), keyword);
+            assertTrue(index.castContaining(keyword).isEmpty());
+        }
+    }
+
+    private static BitSet bits(final int... values) {
+        BitSet result = new BitSet();
+        for (int value : values) {
+            result.set(value);
+        }
+        return result;
+    }
+
+    private static String randomText(final Random random, final int length) {
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < length; i++) {
+            text.append("abc ".charAt(random.nextInt(4)));
+        }
+        return text.toString();
+    }
+}
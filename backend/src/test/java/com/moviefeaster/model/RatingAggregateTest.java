@@ -0,0 +1,94 @@
+package com.moviefeaster.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class for RatingAggregate.
+ */
+class RatingAggregateTest {
+
+    /**
+     * Tests that an aggregate of no ratings reads as zero everywhere.
+     */
+    @Test
+    void emptyAggregate() {
+        RatingAggregate aggregate = new RatingAggregate();
+
+        assertEquals(0, aggregate.getCount());
+        assertEquals(0.0, aggregate.getAverage());
+        assertEquals(0.0, aggregate.getVariance());
+        assertArrayEquals(new long[RatingAggregate.BUCKETS], aggregate.getHistogram());
+    }
+
+    /**
+     * Tests the count, average, variance and histogram of a few ratings.
+     */
+    @Test
+    void aggregatesRatings() {
+        RatingAggregate aggregate = RatingAggregate.of(Arrays.asList(2.0, 4.0, null, 4.0, 5.0));
+
+        assertEquals(4, aggregate.getCount());
+        assertEquals(15.0, aggregate.getSum());
+        assertEquals(61.0, aggregate.getSumOfSquares());
+        assertEquals(3.75, aggregate.getAverage());
+        assertEquals(1.1875, aggregate.getVariance(), 1e-9);
+        assertArrayEquals(new long[]{0, 0, 1, 0, 2, 1}, aggregate.getHistogram());
+    }
+
+    /**
+     * Tests that ratings off the 0 to 5 scale land in the nearest end bucket.
+     */
+    @Test
+    void bucketsAreClamped() {
+        assertEquals(0, RatingAggregate.bucketOf(-1.0));
+        assertEquals(0, RatingAggregate.bucketOf(Double.NaN));
+        assertEquals(3, RatingAggregate.bucketOf(2.5));
+        assertEquals(5, RatingAggregate.bucketOf(9.5));
+    }
+
+    /**
+     * Tests that an aggregate restored from its totals reads the same as the original.
+     */
+    @Test
+    void restoresTotals() {
+        RatingAggregate original = RatingAggregate.of(List.of(1.0, 3.0));
+
+        RatingAggregate restored = RatingAggregate.restore(original.getCount(), original.getSum(),
+                original.getSumOfSquares(), original.getHistogram());
+
+        assertEquals(original.getCount(), restored.getCount());
+        assertEquals(original.getAverage(), restored.getAverage());
+        assertEquals(original.getVariance(), restored.getVariance());
+        assertArrayEquals(original.getHistogram(), restored.getHistogram());
+    }
+
+    /**
+     * Tests that ratings added from several threads are all counted.
+     */
+    @Test
+    void addsConcurrently() throws InterruptedException {
+        RatingAggregate aggregate = new RatingAggregate();
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        for (int t = 0; t < 4; t++) {
+            executor.execute(() -> {
+                for (int i = 0; i < 10_000; i++) {
+                    aggregate.add(4.0);
+                }
+            });
+        }
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+
+        assertEquals(40_000, aggregate.getCount());
+        assertEquals(4.0, aggregate.getAverage());
+        assertEquals(40_000, aggregate.getHistogram()[4]);
+    }
+}
@@ -0,0 +1,131 @@
+package com.moviefeaster.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.BitSet;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class for TitleIndex.
+ */
+class TitleIndexTest {
+
+    /** Titles indexed by most tests. */
+    private static final String[] TITLES = {"the matrix", "the matrix reloaded", "inception", "", "aaaa", "héros"};
+
+    /**
+     * Tests keyword queries of every length against a scan of the titles.
+     */
+    @Test
+    void matchesContains() {
+        TitleIndex index = new TitleIndex(TITLES, null);
+
+        for (String keyword : new String[]{"e", "th", "the", "matrix", "matrix r", "ion", "aaa", "aaaa",
+                "aaaaa", "éro", "xyz", "the inception"}) {
+            assertEquals(scan(TITLES, keyword), index.contains(keyword), keyword);
+        }
+    }
+
+    /**
+     * Tests random keywords cut from random titles against a scan of the titles.
+     */
+    @Test
+    void matchesContainsOnRandomTitles() {
+        Random random = new Random(11);
+        String[] titles = new String[500];
+        for (int i = 0; i < titles.length; i++) {
+            titles[i] = randomText(random, 1 + random.nextInt(20));
+        }
+        TitleIndex index = new TitleIndex(titles, null);
+
+        for (int q = 0; q < 500; q++) {
+            String title = titles[random.nextInt(titles.length)];
+            int from = random.nextInt(title.length());
+            int to = Math.min(title.length(), from + 1 + random.nextInt(6));
+            String keyword = q % 5 == 0 ? randomText(random, 4) : title.substring(from, to);
+            assertEquals(scan(titles, keyword), index.contains(keyword), keyword);
+        }
+    }
+
+    /**
+     * Tests keyword queries limited to some rows against a scan of those rows.
+     */
+    @Test
+    void matchesContainsWithinRows() {
+        TitleIndex index = new TitleIndex(TITLES, null);
+        BitSet within = new BitSet();
+        within.set(1);
+        within.set(2);
+        within.set(4);
+
+        for (String keyword : new String[]{"e", "th", "a", "the", "matrix", "aaaa", "xyz"}) {
+            BitSet expected = scan(TITLES, keyword);
+            expected.and(within);
+            assertEquals(expected, index.contains(keyword, within), keyword);
+        }
+    }
+
+    /**
+     * Tests that the estimate bounds the matches from above and is the shortest posting list.
+     */
+    @Test
+    void estimatesFromShortestPostingList() {
+        TitleIndex index = new TitleIndex(TITLES, null);
+
+        assertEquals(TITLES.length, index.estimate("th"));
+        assertEquals(2, index.estimate("matrix"));
+        assertEquals(1, index.estimate("reloaded"));
+        assertEquals(0, index.estimate("xyz"));
+        for (String keyword : new String[]{"the", "ion", "the inception", "aaa"}) {
+            assertTrue(index.estimate(keyword) >= scan(TITLES, keyword).cardinality(), keyword);
+        }
+    }
+
+    /**
+     * Tests that the trigrams of a title are distinct and sorted.
+     */
+    @Test
+    void tokenizesDistinctTrigrams() {
+        assertEquals(1, TitleIndex.tokenize("aaaaa").length);
+        assertEquals(0, TitleIndex.tokenize("ab").length);
+        long[] grams = TitleIndex.tokenize("banana");
+        assertEquals(3, grams.length);
+        assertTrue(grams[0] < grams[1] && grams[1] < grams[2]);
+    }
+
+    /**
+     * Tests that the next index reuses the trigrams of unchanged titles and tokenizes changed ones.
+     */
+    @Test
+    void reusesTrigramsOfUnchangedTitles() {
+        TitleIndex first = new TitleIndex(TITLES, null);
+        String[] nextTitles = {"inception", "the matrix resurrections"};
+
+        TitleIndex next = new TitleIndex(nextTitles, first);
+
+        assertSame(first.gramsOf("inception"), next.gramsOf("inception"));
+        assertNotNull(next.gramsOf("the matrix resurrections"));
+        assertNull(next.gramsOf("the matrix"));
+        assertEquals(scan(nextTitles, "matrix"), next.contains("matrix"));
+    }
+
+    private static BitSet scan(final String[] titles, final String keyword) {
+        BitSet expected = new BitSet();
+        for (int row = 0; row < titles.length; row++) {
+            if (titles[row].contains(keyword)) {
+                expected.set(row);
+            }
+        }
+        return expected;
+    }
+
+    private static String randomText(final Random random, final int length) {
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < length; i++) {
+            text.append("abc d".charAt(random.nextInt(5)));
+        }
+        return text.toString();
+    }
+}
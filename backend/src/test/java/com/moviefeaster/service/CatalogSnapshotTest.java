@@ -0,0 +1,192 @@
+package com.moviefeaster.service;
+
+import com.moviefeaster.model.Genre;
+import com.moviefeaster.model.Movie;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class for CatalogSnapshot.
+ */
+class CatalogSnapshotTest {
+
+    /**
+     * Tests that every saved field, including comments and in-app ratings, is restored.
+     */
+    @Test
+    void roundTripKeepsAllFields(@TempDir Path dir) throws IOException {
+        Movie movie = new Movie.Builder()
+                .movieId(550)
+                .title("Fight Club")
+                .year(1999)
+                .rating(8.4)
+                .overview("Überraschung – a twist")
+                .imgUrl("https://image.tmdb.org/t/p/w500/fc.jpg")
+                .directors(List.of("David Fincher"))
+                .castings(List.of("Brad Pitt", "Edward Norton"))
+                .genres(List.of(Genre.DRAMA, Genre.THRILLER))
+                .runtime(139)
+                .originalLanguage("en")
+                .build();
+        movie.addComment("Great");
+        movie.addComment("Again");
+        movie.addInAppRating(4.0);
+        movie.addInAppRating(5.0);
+        Path file = dir.resolve("catalog.snapshot");
+
+        CatalogSnapshot.write(List.of(movie), file);
+        List<Movie> restored = CatalogSnapshot.read(file);
+
+        assertEquals(1, restored.size());
+        Movie copy = restored.get(0);
+        assertEquals(550, copy.getMovieId());
+        assertEquals("Fight Club", copy.getTitle());
+        assertEquals(1999, copy.getYear());
+        assertEquals(8.4, copy.getRating());
+        assertEquals("Überraschung – a twist", copy.getOverview());
+        assertEquals("https://image.tmdb.org/t/p/w500/fc.jpg", copy.getImgUrl());
+        assertEquals(List.of("David Fincher"), copy.getDirectors());
+        assertEquals(List.of("Brad Pitt", "Edward Norton"), copy.getCastings());
+        assertEquals(List.of(Genre.DRAMA, Genre.THRILLER), copy.getGenres());
+        assertEquals(List.of("Great", "Again"), copy.getComments());
+        assertEquals(2, copy.getInAppRatingStats().getCount());
+        assertEquals(4.5, copy.getInAppRating());
+        assertEquals(0.25, copy.getInAppRatingStats().getVariance(), 1e-9);
+        assertArrayEquals(new long[]{0, 0, 0, 0, 1, 1}, copy.getInAppRatingStats().getHistogram());
+        assertEquals(139, copy.getRuntime());
+        assertEquals("en", copy.getOriginalLanguage());
+    }
+
+    /**
+     * Tests that order is kept, shared names are stored once and restored lists accept new entries.
+     */
+    @Test
+    void roundTripKeepsOrderAndSharesStrings(@TempDir Path dir) throws IOException {
+        List<Movie> movies = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            movies.add(new Movie.Builder().movieId(i).title("Movie " + i)
+                    .directors(List.of("Same Director")).castings(List.of("Same Actor")).build());
+        }
+        Path file = dir.resolve("catalog.snapshot");
+
+        CatalogSnapshot.write(movies, file);
+        List<Movie> restored = CatalogSnapshot.read(file);
+
+        assertEquals(100, restored.size());
+        for (int i = 0; i < 100; i++) {
+            assertEquals(i, restored.get(i).getMovieId());
+        }
+        assertSame(restored.get(0).getDirectors().get(0), restored.get(99).getDirectors().get(0));
+        restored.get(0).addComment("New");
+        restored.get(0).addInAppRating(3.0);
+        assertEquals(List.of("New"), restored.get(0).getComments());
+    }
+
+    /**
+     * Tests that the poster srcset, which is not stored, is rebuilt from the image URL.
+     */
+    @Test
+    void roundTripRebuildsPosterSrcset(@TempDir Path dir) throws IOException {
+        MovieParser.MovieSummary summary = new MovieParser.MovieSummary();
+        summary.setMovieID(7);
+        summary.setTitle("Poster");
+        summary.setPosterPath("/poster.jpg");
+        Movie movie = MovieParser.toMovie(summary, MovieParser.Credits.empty());
+        Movie noPoster = new Movie.Builder().movieId(8).title("No Poster").build();
+        Path file = dir.resolve("catalog.snapshot");
+
+        CatalogSnapshot.write(List.of(movie, noPoster), file);
+        List<Movie> restored = CatalogSnapshot.read(file);
+
+        assertFalse(movie.getPosterSrcset().isEmpty());
+        assertEquals(movie.getPosterSrcset(), restored.get(0).getPosterSrcset());
+        assertTrue(restored.get(1).getPosterSrcset().isEmpty());
+    }
+
+    /**
+     * Tests that saving while comments are being added neither fails nor writes a torn movie.
+     */
+    @Test
+    void writeWhileCommentsAreAdded(@TempDir Path dir) throws Exception {
+        Movie movie = new Movie.Builder().movieId(1).title("Busy").build();
+        Path file = dir.resolve("catalog.snapshot");
+        Thread commenter = new Thread(() -> {
+            for (int i = 0; i < 20_000; i++) {
+                movie.addComment("Comment " + i);
+            }
+        });
+
+        commenter.start();
+        while (commenter.isAlive()) {
+            CatalogSnapshot.write(List.of(movie), file);
+            List<String> saved = CatalogSnapshot.read(file).get(0).getComments();
+            for (int i = 0; i < saved.size(); i++) {
+                assertEquals("Comment " + i, saved.get(i));
+            }
+        }
+        commenter.join();
+    }
+
+    /**
+     * Tests that an empty catalog round-trips.
+     */
+    @Test
+    void roundTripEmptyCatalog(@TempDir Path dir) throws IOException {
+        Path file = dir.resolve("nested/catalog.snapshot");
+
+        CatalogSnapshot.write(List.of(), file);
+
+        assertTrue(CatalogSnapshot.read(file).isEmpty());
+    }
+
+    /**
+     * Tests that a file with a newer version is rejected.
+     */
+    @Test
+    void readRejectsUnknownVersion(@TempDir Path dir) throws IOException {
+        Path file = dir.resolve("catalog.snapshot");
+        try (DataOutputStream out = new DataOutputStream(Files.newOutputStream(file))) {
+            out.writeInt(CatalogSnapshot.MAGIC);
+            out.writeInt(CatalogSnapshot.VERSION + 1);
+            out.writeInt(0);
+            out.writeInt(0);
+        }
+
+        IOException exception = assertThrows(IOException.class, () -> CatalogSnapshot.read(file));
+        assertTrue(exception.getMessage().contains("version"));
+    }
+
+    /**
+     * Tests that a file that is not a snapshot is rejected.
+     */
+    @Test
+    void readRejectsForeignFile(@TempDir Path dir) throws IOException {
+        Path file = dir.resolve("catalog.snapshot");
+        Files.writeString(file, "{\"movies\":[]}");
+
+        assertThrows(IOException.class, () -> CatalogSnapshot.read(file));
+    }
+
+    /**
+     * Tests that a truncated file is rejected instead of returning partial data.
+     */
+    @Test
+    void readRejectsTruncatedFile(@TempDir Path dir) throws IOException {
+        Path file = dir.resolve("catalog.snapshot");
+        CatalogSnapshot.write(List.of(new Movie.Builder().movieId(1).title("Cut").build()), file);
+        byte[] bytes = Files.readAllBytes(file);
+        Files.write(file, Arrays.copyOf(bytes, bytes.length - 6));
+
+        assertThrows(IOException.class, () -> CatalogSnapshot.read(file));
+    }
+}
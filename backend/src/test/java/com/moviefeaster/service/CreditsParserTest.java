@@ -0,0 +1,90 @@
+package com.moviefeaster.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class for {@link CreditsParser}.
+ */
+class CreditsParserTest {
+
+    /** Credits document with nested fields the parser has to skip. */
+    private static final String CREDITS = "{\"id\":42,"
+            + "\"cast\":["
+            + "{\"name\":\"Third Billed\",\"order\":2,\"known_for\":[{\"id\":1}],\"character\":\"C\"},"
+            + "{\"adult\":false,\"name\":\"Top Billed\",\"order\":0},"
+            + "{\"name\":\"Second Billed\",\"order\":1,\"profile_path\":null}"
+            + "],"
+            + "\"crew\":["
+            + "{\"job\":\"Producer\",\"name\":\"Some Producer\"},"
+            + "{\"name\":\"First Director\",\"department\":\"Directing\",\"job\":\"Director\"},"
+            + "{\"job\":\"Director\",\"extra\":{\"job\":\"Writer\"},\"name\":\"Second Director\"}"
+            + "]}";
+
+    @Test
+    void testParseKeepsDirectorsInDocumentOrder() throws IOException {
+        MovieParser.Credits credits = CreditsParser.parse(stream(CREDITS), 10);
+
+        assertEquals(List.of("First Director", "Second Director"), credits.getDirectors());
+    }
+
+    @Test
+    void testParseOrdersCastByBilling() throws IOException {
+        MovieParser.Credits credits = CreditsParser.parse(stream(CREDITS), 10);
+
+        assertEquals(List.of("Top Billed", "Second Billed", "Third Billed"), credits.getCastings());
+    }
+
+    @Test
+    void testParseCapsCastSize() throws IOException {
+        MovieParser.Credits credits = CreditsParser.parse(stream(CREDITS), 2);
+
+        assertEquals(List.of("Top Billed", "Second Billed"), credits.getCastings());
+    }
+
+    @Test
+    void testParseWithZeroCastCap() throws IOException {
+        MovieParser.Credits credits = CreditsParser.parse(stream(CREDITS), 0);
+
+        assertTrue(credits.getCastings().isEmpty());
+        assertEquals(2, credits.getDirectors().size());
+    }
+
+    @Test
+    void testParseCastWithoutOrderKeepsDocumentOrder() throws IOException {
+        String json = "{\"cast\":[{\"name\":\"A\"},{\"name\":\"B\"},{\"name\":\"C\"}]}";
+
+        assertEquals(List.of("A", "B"), CreditsParser.parse(stream(json), 2).getCastings());
+    }
+
+    @Test
+    void testParseEmptyOrMissingDocument() throws IOException {
+        MovieParser.Credits empty = CreditsParser.parse(InputStream.nullInputStream(), 10);
+        assertTrue(empty.getDirectors().isEmpty());
+        assertTrue(empty.getCastings().isEmpty());
+
+        MovieParser.Credits noArrays = CreditsParser.parse(stream("{\"id\":1}"), 10);
+        assertTrue(noArrays.getDirectors().isEmpty());
+        assertTrue(noArrays.getCastings().isEmpty());
+    }
+
+    @Test
+    void testParseInternsNames() throws IOException {
+        MovieParser.Credits first = CreditsParser.parse(stream(CREDITS), 10);
+        MovieParser.Credits second = CreditsParser.parse(stream(CREDITS), 10);
+
+        assertSame(first.getDirectors().get(0), second.getDirectors().get(0));
+        assertSame(first.getCastings().get(0), second.getCastings().get(0));
+    }
+
+    private static InputStream stream(String json) {
+        return new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8));
+    }
+}
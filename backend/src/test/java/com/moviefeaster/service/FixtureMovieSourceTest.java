@@ -0,0 +1,88 @@
+package com.moviefeaster.service;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class for FixtureMovieSource.
+ */
+class FixtureMovieSourceTest {
+
+    /**
+     * Tests that pages are counted up to the first missing file and read in the TMDB format.
+     */
+    @Test
+    void readsDiscoverPagesFromDirectory(@TempDir Path dir) throws IOException {
+        writeFile(dir.resolve("discover/page-1.json"), "{\"results\":[{\"id\":1,\"title\":\"One\"}]}");
+        writeFile(dir.resolve("discover/page-2.json"), "{\"results\":[{\"id\":2,\"title\":\"Two\"}]}");
+        writeFile(dir.resolve("discover/page-4.json"), "{\"results\":[{\"id\":4,\"title\":\"Four\"}]}");
+        FixtureMovieSource source = new FixtureMovieSource(dir);
+
+        assertEquals(2, source.discoverPageCount());
+        List<MovieParser.MovieSummary> page = source.readDiscoverPage(2, MovieParser::readSummaries, List.of());
+        assertEquals(2, page.get(0).getMovieID());
+        assertEquals("missing", source.readDiscoverPage(3, FixtureMovieSourceTest::readString, "missing"));
+    }
+
+    /**
+     * Tests that credits are read by movie ID and missing credits yield the fallback.
+     */
+    @Test
+    void readsCreditsFromDirectory(@TempDir Path dir) throws IOException {
+        writeFile(dir.resolve("credits/7.json"),
+                "{\"cast\":[{\"name\":\"Actor\",\"order\":0}],\"crew\":[{\"name\":\"Boss\",\"job\":\"Director\"}]}");
+        FixtureMovieSource source = new FixtureMovieSource(dir);
+
+        MovieParser.Credits credits = source.readCredits(7, in -> CreditsParser.parse(in, 10), null);
+
+        assertEquals(List.of("Boss"), credits.getDirectors());
+        assertEquals(List.of("Actor"), credits.getCastings());
+        assertNull(source.readCredits(8, in -> CreditsParser.parse(in, 10), null));
+    }
+
+    /**
+     * Tests that a single file is read as the only discover page, without credits.
+     */
+    @Test
+    void readsSingleDiscoverFile(@TempDir Path dir) throws IOException {
+        Path file = dir.resolve("movies.json");
+        writeFile(file, "[{\"id\":3,\"title\":\"Three\"}]");
+        FixtureMovieSource source = new FixtureMovieSource(file);
+
+        assertEquals(1, source.discoverPageCount());
+        List<MovieParser.MovieSummary> first = source.readDiscoverPage(1, MovieParser::readSummaries, List.of());
+        List<MovieParser.MovieSummary> second = source.readDiscoverPage(2, MovieParser::readSummaries, List.of());
+        assertEquals(3, first.get(0).getMovieID());
+        assertTrue(second.isEmpty());
+        assertEquals("none", source.readCredits(3, FixtureMovieSourceTest::readString, "none"));
+    }
+
+    /**
+     * Tests that a missing root behaves as an empty catalog.
+     */
+    @Test
+    void missingRootIsEmpty(@TempDir Path dir) throws IOException {
+        FixtureMovieSource source = new FixtureMovieSource(dir.resolve("absent"));
+
+        assertEquals(0, source.discoverPageCount());
+        assertEquals("none", source.readCredits(1, FixtureMovieSourceTest::readString, "none"));
+    }
+
+    static void writeFile(Path file, String content) throws IOException {
+        Files.createDirectories(file.getParent());
+        Files.writeString(file, content);
+    }
+
+    static String readString(InputStream in) throws IOException {
+        return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+    }
+}
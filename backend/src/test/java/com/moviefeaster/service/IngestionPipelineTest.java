@@ -0,0 +1,291 @@
+package com.moviefeaster.service;
+
+import com.moviefeaster.model.Movie;
+import com.moviefeaster.utils.StreamHandler;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class for IngestionPipeline.
+ */
+class IngestionPipelineTest {
+
+    /**
+     * Tests that a large catalog keeps discover order even when pages arrive out of order.
+     */
+    @Test
+    void loadsLargeCatalogInDiscoverOrder() throws InterruptedException {
+        GeneratedSource source = new GeneratedSource(500, 20, Set.of());
+        IngestionPipeline pipeline = new IngestionPipeline(source, 10_000, 8, 8, 64, EnrichmentMode.CREDITS);
+
+        List<Movie> movies = pipeline.run();
+
+        assertEquals(10_000, movies.size());
+        for (int i = 0; i < movies.size(); i++) {
+            assertEquals(i + 1, movies.get(i).getMovieId());
+        }
+        assertEquals(List.of("Director " + 1), movies.get(0).getDirectors());
+        assertEquals(10_000, pipeline.getMoviesQueued());
+        assertEquals(10_000, pipeline.getMoviesEnriched());
+    }
+
+    /**
+     * Tests that the catalog is cut at the configured size and no further pages are requested.
+     */
+    @Test
+    void stopsAtCatalogSize() throws InterruptedException {
+        GeneratedSource source = new GeneratedSource(1_000, 20, Set.of());
+        IngestionPipeline pipeline = new IngestionPipeline(source, 50, 2, 2, 4, EnrichmentMode.CREDITS);
+
+        List<Movie> movies = pipeline.run();
+
+        assertEquals(50, movies.size());
+        assertEquals(50, movies.get(49).getMovieId());
+        assertTrue(source.pagesRead.get() <= 3 + 2 * 2, "Only a window of pages should be fetched ahead");
+    }
+
+    /**
+     * Tests that a page that cannot be read is skipped and credits that fail leave a movie without credits.
+     */
+    @Test
+    void skipsFailedPagesAndCredits() throws InterruptedException {
+        GeneratedSource source = new GeneratedSource(3, 2, Set.of(2));
+        source.failingCredits = 5;
+        IngestionPipeline pipeline = new IngestionPipeline(source, 100, 2, 2, 2, EnrichmentMode.CREDITS);
+
+        List<Movie> movies = pipeline.run();
+
+        assertEquals(List.of(1, 2, 5, 6), movies.stream().map(Movie::getMovieId).toList());
+        assertTrue(movies.get(2).getDirectors().isEmpty());
+        assertEquals(List.of("Director 6"), movies.get(3).getDirectors());
+    }
+
+    /**
+     * Tests that a movie listed again on a later page is dropped before its credits are read.
+     */
+    @Test
+    void dropsDuplicatesAcrossPages() throws InterruptedException {
+        GeneratedSource source = new GeneratedSource(4, 5, Set.of());
+        source.overlap = 2;
+        IngestionPipeline pipeline = new IngestionPipeline(source, 100, 3, 2, 4, EnrichmentMode.CREDITS);
+
+        List<Movie> movies = pipeline.run();
+
+        assertEquals(List.of(1, 2, 3, 4, 5, 6, 7, 8, 9, 10, 11, 12, 13, 14),
+                movies.stream().map(Movie::getMovieId).toList());
+        assertEquals(6, pipeline.getDuplicatesDropped());
+        assertEquals(14, pipeline.getMoviesQueued());
+        assertEquals(14, source.creditsRead.get());
+    }
+
+    /**
+     * Tests that details mode builds each movie from its details document, runtime and language included.
+     */
+    @Test
+    void enrichesFromDetails() throws InterruptedException {
+        GeneratedSource source = new GeneratedSource(2, 5, Set.of());
+        source.failingCredits = 3;
+        IngestionPipeline pipeline = new IngestionPipeline(source, 100, 2, 2, 4, EnrichmentMode.DETAILS);
+
+        List<Movie> movies = pipeline.run();
+
+        assertEquals(10, movies.size());
+        Movie first = movies.get(0);
+        assertEquals("Details 1", first.getTitle());
+        assertEquals(101, first.getRuntime());
+        assertEquals("en", first.getOriginalLanguage());
+        assertEquals(List.of("Director 1"), first.getDirectors());
+        assertEquals("Movie 3", movies.get(2).getTitle());
+        assertEquals(0, movies.get(2).getRuntime());
+        assertEquals(0, source.creditsRead.get());
+    }
+
+    /**
+     * Tests that an empty source yields an empty catalog.
+     */
+    @Test
+    void emptySource() throws InterruptedException {
+        IngestionPipeline pipeline =
+                new IngestionPipeline(new GeneratedSource(0, 20, Set.of()), 100, 4, 4, 8, EnrichmentMode.CREDITS);
+
+        assertTrue(pipeline.run().isEmpty());
+    }
+
+    /**
+     * Tests that a credits request that hangs past the timeout leaves its movie without credits.
+     */
+    @Test
+    void timesOutHungCredits() throws InterruptedException {
+        GeneratedSource source = new GeneratedSource(2, 20, Set.of());
+        source.hangingCredits = 7;
+        IngestionPipeline pipeline = new IngestionPipeline(source, 40, 2, 2, 4, EnrichmentMode.CREDITS, 200);
+
+        long start = System.currentTimeMillis();
+        List<Movie> movies = pipeline.run();
+
+        assertTrue(System.currentTimeMillis() - start < 4_000, "The load should not wait for the hung request");
+        assertEquals(40, movies.size());
+        assertTrue(movies.get(6).getDirectors().isEmpty());
+        assertEquals(List.of("Director 8"), movies.get(7).getDirectors());
+    }
+
+    /**
+     * Tests that movies the refresh hook supplies keep discover order and never have their credits read.
+     */
+    @Test
+    void reusesMoviesFromHook() throws InterruptedException {
+        GeneratedSource source = new GeneratedSource(2, 20, Set.of());
+        IngestionPipeline pipeline = new IngestionPipeline(source, 40, 2, 2, 4, EnrichmentMode.CREDITS);
+
+        List<Movie> movies = pipeline.run(summary -> summary.getMovieID() % 2 == 0
+                ? MovieParser.toMovie(summary, MovieParser.Credits.empty()) : null);
+
+        assertEquals(40, movies.size());
+        assertEquals(3, movies.get(2).getMovieId());
+        assertTrue(movies.get(1).getDirectors().isEmpty());
+        assertEquals(List.of("Director 3"), movies.get(2).getDirectors());
+        assertEquals(20, source.creditsRead.get());
+        assertEquals(20, pipeline.getMoviesReused());
+    }
+
+    /**
+     * Tests that a movie that cannot be built even without credits is skipped rather than
+     * stopping its enrichment thread and hanging the load.
+     */
+    @Test
+    void skipsMovieWhoseFallbackFails() {
+        GeneratedSource source = new GeneratedSource(2, 20, Set.of());
+        source.brokenMovie = 5;
+        IngestionPipeline pipeline = new IngestionPipeline(source, 40, 2, 2, 4, EnrichmentMode.CREDITS);
+
+        List<Movie> movies = assertTimeoutPreemptively(Duration.ofSeconds(10), () -> pipeline.run());
+
+        assertEquals(39, movies.size());
+        assertEquals(4, movies.get(3).getMovieId());
+        assertEquals(6, movies.get(4).getMovieId());
+    }
+
+    /**
+     * Tests that a stage failing unexpectedly makes the load fail instead of hanging.
+     */
+    @Test
+    void failsWhenStageDies() {
+        GeneratedSource source = new GeneratedSource(4, 20, Set.of());
+        source.crashingPage = 2;
+        IngestionPipeline pipeline = new IngestionPipeline(source, 80, 2, 2, 4, EnrichmentMode.CREDITS);
+
+        assertTimeoutPreemptively(Duration.ofSeconds(10),
+                () -> assertThrows(IllegalStateException.class, () -> pipeline.run()));
+    }
+
+    /** Source generating pages of sequentially numbered movies, answering in random order. */
+    private static final class GeneratedSource implements MovieSource {
+
+        /** Number of pages. */
+        private final int pageCount;
+
+        /** Movies per page. */
+        private final int pageSize;
+
+        /** Pages that fail to load. */
+        private final Set<Integer> failingPages;
+
+        /** Movie whose credits fail to load, or 0. */
+        private volatile int failingCredits;
+
+        /** Movie whose credits request hangs, or 0. */
+        private volatile int hangingCredits;
+
+        /** Movie listed with a malformed genre, so it cannot be built at all, or 0. */
+        private volatile int brokenMovie;
+
+        /** Page whose request throws an error no stage expects, or 0. */
+        private volatile int crashingPage;
+
+        /** Number of movies each page after the first repeats from the end of the previous page. */
+        private volatile int overlap;
+
+        /** Number of pages requested. */
+        private final AtomicInteger pagesRead = new AtomicInteger();
+
+        /** Number of credits documents requested. */
+        private final AtomicInteger creditsRead = new AtomicInteger();
+
+        GeneratedSource(int pageCount, int pageSize, Set<Integer> failingPages) {
+            this.pageCount = pageCount;
+            this.pageSize = pageSize;
+            this.failingPages = failingPages;
+        }
+
+        @Override
+        public int discoverPageCount() {
+            return pageCount;
+        }
+
+        @Override
+        public <T> T readDiscoverPage(int page, StreamHandler<T> handler, T fallback) throws IOException {
+            pagesRead.incrementAndGet();
+            jitter();
+            if (failingPages.contains(page)) {
+                throw new IOException("page " + page + " unavailable");
+            }
+            if (page == crashingPage) {
+                throw new AssertionError("page " + page + " crashed");
+            }
+            StringBuilder json = new StringBuilder("{\"page\":").append(page).append(",\"results\":[");
+            for (int i = 0; i < pageSize; i++) {
+                int id = (page - 1) * (pageSize - overlap) + i + 1;
+                json.append(i == 0 ? "" : ",").append("{\"id\":").append(id)
+                        .append(",\"title\":\"Movie ").append(id).append('"')
+                        .append(id == brokenMovie ? ",\"genre_ids\":[null]}" : "}");
+            }
+            json.append("]}");
+            return handler.handle(new ByteArrayInputStream(json.toString().getBytes(StandardCharsets.UTF_8)));
+        }
+
+        @Override
+        public <T> T readCredits(int movieId, StreamHandler<T> handler, T fallback) throws IOException {
+            creditsRead.incrementAndGet();
+            if (movieId == hangingCredits) {
+                try {
+                    Thread.sleep(5_000);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            if (movieId == failingCredits) {
+                throw new IOException("credits unavailable");
+            }
+            String json = "{\"crew\":[{\"name\":\"Director " + movieId + "\",\"job\":\"Director\"}],\"cast\":[]}";
+            return handler.handle(new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8)));
+        }
+
+        @Override
+        public <T> T readDetails(int movieId, StreamHandler<T> handler, T fallback) throws IOException {
+            if (movieId == failingCredits) {
+                throw new IOException("details unavailable");
+            }
+            String json = "{\"id\":" + movieId + ",\"title\":\"Details " + movieId + "\",\"runtime\":"
+                    + (100 + movieId) + ",\"original_language\":\"en\","
+                    + "\"genres\":[{\"id\":18,\"name\":\"Drama\"}],"
+                    + "\"credits\":{\"crew\":[{\"name\":\"Director " + movieId + "\",\"job\":\"Director\"}]}}";
+            return handler.handle(new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8)));
+        }
+
+        private static void jitter() {
+            if (ThreadLocalRandom.current().nextInt(4) == 0) {
+                Thread.yield();
+            }
+        }
+    }
+}
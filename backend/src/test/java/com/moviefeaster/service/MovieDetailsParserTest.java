@@ -0,0 +1,84 @@
+package com.moviefeaster.service;
+
+import com.moviefeaster.model.Genre;
+import com.moviefeaster.model.Movie;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class for {@link MovieDetailsParser}.
+ */
+class MovieDetailsParserTest {
+
+    /** Details document with appended credits and fields the parser has to skip. */
+    private static final String DETAILS = "{\"adult\":false,\"belongs_to_collection\":{\"id\":7,\"name\":\"Set\"},"
+            + "\"genres\":[{\"id\":28,\"name\":\"Action\"},{\"id\":18,\"name\":\"Drama\"}],"
+            + "\"id\":42,\"original_language\":\"ja\",\"overview\":\"Plot\",\"popularity\":12.5,"
+            + "\"poster_path\":\"/p.jpg\",\"production_companies\":[{\"id\":1,\"name\":\"Studio\"}],"
+            + "\"release_date\":\"2021-06-01\",\"runtime\":125,\"title\":\"Answer\",\"tagline\":null,"
+            + "\"credits\":{\"cast\":[{\"name\":\"Second\",\"order\":1},{\"name\":\"First\",\"order\":0}],"
+            + "\"crew\":[{\"job\":\"Director\",\"name\":\"Director\"},{\"job\":\"Writer\",\"name\":\"Writer\"}]}}";
+
+    /**
+     * Tests that every field of the details document, credits included, is mapped into the movie.
+     */
+    @Test
+    void testParseMapsDetailsAndCredits() throws IOException {
+        Movie movie = MovieDetailsParser.parse(stream(DETAILS), 10);
+
+        assertEquals(42, movie.getMovieId());
+        assertEquals("Answer", movie.getTitle());
+        assertEquals("Plot", movie.getOverview());
+        assertEquals(2021, movie.getYear());
+        assertEquals(12.5, movie.getRating());
+        assertEquals(List.of(Genre.ACTION, Genre.DRAMA), movie.getGenres());
+        assertEquals(125, movie.getRuntime());
+        assertEquals("ja", movie.getOriginalLanguage());
+        assertTrue(movie.getImgUrl().endsWith("/p.jpg"));
+        assertEquals(List.of("Director"), movie.getDirectors());
+        assertEquals(List.of("First", "Second"), movie.getCastings());
+    }
+
+    /**
+     * Tests that the cast limit applies to the appended credits.
+     */
+    @Test
+    void testParseLimitsCast() throws IOException {
+        Movie movie = MovieDetailsParser.parse(stream(DETAILS), 1);
+
+        assertEquals(List.of("First"), movie.getCastings());
+    }
+
+    /**
+     * Tests that missing and null fields leave the movie's defaults.
+     */
+    @Test
+    void testParseWithoutOptionalFields() throws IOException {
+        Movie movie = MovieDetailsParser.parse(stream("{\"id\":7,\"title\":\"Bare\",\"runtime\":null}"), 10);
+
+        assertEquals(7, movie.getMovieId());
+        assertEquals(0, movie.getRuntime());
+        assertEquals("", movie.getOriginalLanguage());
+        assertTrue(movie.getDirectors().isEmpty());
+        assertTrue(movie.getGenres().isEmpty());
+    }
+
+    /**
+     * Tests that a document that is not an object yields no movie.
+     */
+    @Test
+    void testParseNonObject() throws IOException {
+        assertNull(MovieDetailsParser.parse(stream("[]"), 10));
+    }
+
+    private static InputStream stream(String json) {
+        return new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8));
+    }
+}
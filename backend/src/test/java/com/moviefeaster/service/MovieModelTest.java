@@ -1,16 +1,29 @@
 package com.moviefeaster.service;
 
+import com.moviefeaster.model.Catalog;
+import com.moviefeaster.model.CatalogState;
 import com.moviefeaster.model.Format;
 import com.moviefeaster.model.Movie;
 import com.moviefeaster.model.MovieSorterType;
 import com.moviefeaster.model.MovieFilterType;
+import com.moviefeaster.model.WarmUpStatus;
+import com.moviefeaster.utils.StreamHandler;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 
+import java.io.ByteArrayInputStream;
 import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -281,6 +294,248 @@ class MovieModelTest {
         // Should not throw exception
     }
 
+    /**
+     * Tests that a refresh only enriches new movies, keeps user data and follows the new order.
+     */
+    @Test
+    void refreshMoviesOnlyEnrichesNewMovies() {
+        MovieModel offlineModel = new MovieModel() {
+            @Override
+            public void fetchMovies() {
+                // Start from an empty catalog
+            }
+        };
+        List<Integer> enrichedIds = new ArrayList<>();
+        refresh(offlineModel, enrichedIds, Set.of(), summary(1, "First", 10.0), summary(2, "Second", 20.0));
+        Movie first = offlineModel.getMovieById(1);
+        offlineModel.updateComments(1, "Keep me");
+        offlineModel.updateRating(1, 4.0);
+        enrichedIds.clear();
+
+        refresh(offlineModel, enrichedIds, Set.of(), summary(3, "Third", 30.0), summary(1, "First Renamed", 55.5));
+
+        assertEquals(List.of(3), enrichedIds, "Only the new movie should be enriched");
+        List<Movie> movies = offlineModel.getMovies();
+        assertEquals(2, movies.size());
+        assertEquals(3, movies.get(0).getMovieId());
+        Movie kept = movies.get(1);
+        assertNotSame(first, kept, "Kept movies should be rebuilt rather than changed in place");
+        assertEquals("First", first.getTitle(), "The published movie should not change");
+        assertEquals("First Renamed", kept.getTitle());
+        assertEquals(55.5, kept.getRating());
+        assertEquals(List.of("Director 1"), kept.getDirectors());
+        assertEquals(List.of("Keep me"), kept.getComments());
+        assertEquals(4.0, kept.getInAppRating());
+        assertNull(offlineModel.getMovieById(2), "Movies that left the top list should be dropped");
+    }
+
+    /**
+     * Tests that a kept movie whose credits are empty is enriched again and keeps its user data.
+     */
+    @Test
+    void refreshMoviesRetriesEmptyCredits() {
+        List<Integer> enrichedIds = new ArrayList<>();
+        refresh(model, new ArrayList<>(), Set.of(1, 2), summary(1, "First", 10.0), summary(2, "Second", 20.0));
+        model.updateComments(1, "Keep me");
+        model.updateRating(1, 3.0);
+
+        refresh(model, enrichedIds, Set.of(), summary(1, "First", 10.0), summary(2, "Second", 20.0));
+
+        assertEquals(List.of(1, 2), enrichedIds);
+        Movie first = model.getMovieById(1);
+        assertEquals(List.of("Director 1"), first.getDirectors());
+        assertEquals(List.of("Actor 1"), first.getCastings());
+        assertEquals(List.of("Keep me"), first.getComments());
+        assertEquals(3.0, first.getInAppRating());
+    }
+
+    /**
+     * Tests that a new model does not load movies until warm-up starts.
+     */
+    @Test
+    void newModelStartsCold() {
+        WarmUpStatus status = model.getWarmUpStatus();
+        assertEquals(CatalogState.COLD, status.getState());
+        assertEquals(0, status.getMoviesServed());
+        assertEquals(0, status.getElapsedMillis());
+        assertTrue(model.isCatalogUnavailable());
+    }
+
+    /**
+     * Tests that a successful refresh marks the catalog ready.
+     */
+    @Test
+    void refreshMarksCatalogReady() {
+        refresh(model, new ArrayList<>(), Set.of(), summary(1, "First", 10.0));
+        assertEquals(1, model.getWarmUpStatus().getMoviesServed());
+        assertFalse(model.isCatalogUnavailable());
+    }
+
+    /**
+     * Tests that a saved catalog, including user data, is restored by a new model.
+     */
+    @Test
+    void snapshotRestoresCatalog(@TempDir Path dir) {
+        Path file = dir.resolve("catalog.snapshot");
+        MovieModel first = new MovieModel(file);
+        refresh(first, new ArrayList<>(), Set.of(), summary(1, "First", 10.0), summary(2, "Second", 20.0));
+        first.updateComments(2, "Saved");
+        first.updateRating(2, 3.0);
+        first.saveSnapshot();
+
+        MovieModel second = new MovieModel(file);
+        assertTrue(second.loadSnapshot());
+
+        assertEquals(CatalogState.READY, second.getWarmUpStatus().getState());
+        assertEquals(2, second.getMovies().size());
+        Movie restored = second.getMovieById(2);
+        assertEquals("Second", restored.getTitle());
+        assertEquals(List.of("Director 2"), restored.getDirectors());
+        assertEquals(List.of("Saved"), restored.getComments());
+        assertEquals(3.0, restored.getInAppRating());
+    }
+
+    /**
+     * Tests that a missing or unreadable snapshot leaves the model cold.
+     */
+    @Test
+    void unreadableSnapshotIsIgnored(@TempDir Path dir) throws IOException {
+        Path file = dir.resolve("catalog.snapshot");
+        MovieModel missing = new MovieModel(file);
+        assertFalse(missing.loadSnapshot());
+
+        Files.writeString(file, "not a snapshot");
+        MovieModel corrupt = new MovieModel(file);
+        assertFalse(corrupt.loadSnapshot());
+        assertEquals(CatalogState.COLD, corrupt.getWarmUpStatus().getState());
+        assertTrue(corrupt.getMovies().isEmpty());
+    }
+
+    /**
+     * Tests that a full load works offline from a fixture source, credits included.
+     */
+    @Test
+    void fetchMoviesFromFixtureSource(@TempDir Path dir) throws IOException {
+        FixtureMovieSourceTest.writeFile(dir.resolve("discover/page-1.json"),
+                "{\"results\":[{\"id\":1,\"title\":\"One\",\"genre_ids\":[18]},{\"id\":2,\"title\":\"Two\"}]}");
+        FixtureMovieSourceTest.writeFile(dir.resolve("discover/page-2.json"),
+                "{\"results\":[{\"id\":3,\"title\":\"Three\"}]}");
+        FixtureMovieSourceTest.writeFile(dir.resolve("credits/1.json"),
+                "{\"crew\":[{\"name\":\"Boss\",\"job\":\"Director\"}],\"cast\":[{\"name\":\"Star\"}]}");
+        MovieModel offlineModel = new MovieModel(new FixtureMovieSource(dir), dir.resolve("catalog.snapshot"));
+
+        offlineModel.fetchMovies();
+
+        List<Movie> movies = offlineModel.getMovies();
+        assertEquals(3, movies.size());
+        assertEquals("One", movies.get(0).getTitle());
+        assertEquals(List.of("Boss"), movies.get(0).getDirectors());
+        assertEquals(List.of("Star"), movies.get(0).getCastings());
+        assertTrue(movies.get(1).getDirectors().isEmpty());
+        assertEquals(3, movies.get(2).getMovieId());
+        assertEquals(CatalogState.READY, offlineModel.getWarmUpStatus().getState());
+        assertTrue(Files.exists(dir.resolve("catalog.snapshot")));
+    }
+
+    /**
+     * Tests that loading again publishes a new catalog version instead of appending to the old one.
+     */
+    @Test
+    void reloadPublishesNewCatalogVersion(@TempDir Path dir) throws IOException {
+        FixtureMovieSourceTest.writeFile(dir.resolve("discover/page-1.json"),
+                "{\"results\":[{\"id\":1,\"title\":\"One\"},{\"id\":2,\"title\":\"Two\"}]}");
+        MovieModel offlineModel = new MovieModel(new FixtureMovieSource(dir), dir.resolve("catalog.snapshot"));
+
+        offlineModel.fetchMovies();
+        Catalog first = offlineModel.getCatalog();
+        offlineModel.fetchMovies();
+        Catalog second = offlineModel.getCatalog();
+
+        assertEquals(2, second.size(), "A second load should not duplicate movies");
+        assertEquals(first.getVersion() + 1, second.getVersion());
+        assertEquals(2, first.size(), "Readers holding the old catalog should keep a complete list");
+        assertEquals(second.getVersion(), offlineModel.getWarmUpStatus().getCatalogVersion());
+        assertThrows(UnsupportedOperationException.class, () -> offlineModel.getMovies().clear());
+    }
+
+    /**
+     * Tests that a load returning no movies publishes nothing, fails, and is retried until the
+     * source has movies again.
+     */
+    @Test
+    void emptyLoadFailsAndIsRetried(@TempDir Path dir) throws Exception {
+        MovieModel offlineModel = new MovieModel(new FixtureMovieSource(dir), dir.resolve("catalog.snapshot"), 50);
+
+        offlineModel.fetchMovies();
+
+        assertEquals(CatalogState.FAILED, offlineModel.getWarmUpStatus().getState());
+        assertEquals(0, offlineModel.getCatalog().getVersion(), "An empty load should not be published");
+        assertFalse(Files.exists(dir.resolve("catalog.snapshot")));
+        assertTrue(offlineModel.isCatalogUnavailable(), "A failed first load should not serve an empty catalog");
+
+        FixtureMovieSourceTest.writeFile(dir.resolve("discover/page-1.json"),
+                "{\"results\":[{\"id\":1,\"title\":\"One\"}]}");
+        long deadline = System.currentTimeMillis() + 10_000;
+        while ((offlineModel.getWarmUpStatus().getState() != CatalogState.READY
+                || !Files.exists(dir.resolve("catalog.snapshot"))) && System.currentTimeMillis() < deadline) {
+            Thread.sleep(20);
+        }
+
+        assertEquals(CatalogState.READY, offlineModel.getWarmUpStatus().getState());
+        assertEquals(1, offlineModel.getMovies().size());
+        assertFalse(offlineModel.isCatalogUnavailable());
+    }
+
+    private static String summary(int id, String title, double rating) {
+        return "{\"id\":" + id + ",\"title\":\"" + title + "\",\"popularity\":" + rating
+                + ",\"release_date\":\"2024-01-01\",\"poster_path\":\"/" + id + ".jpg\"}";
+    }
+
+    /**
+     * Refresh a model through the pipeline from a one-page source listing the given movies.
+     *
+     * @param target      the model to refresh
+     * @param enrichedIds receives the ID of every movie whose credits are requested
+     * @param noCredits   movies whose credits come back empty
+     * @param entries     discover entries made by {@link #summary}
+     */
+    private static void refresh(MovieModel target, List<Integer> enrichedIds, Set<Integer> noCredits,
+                                String... entries) {
+        MovieSource source = new MovieSource() {
+            @Override
+            public int discoverPageCount() {
+                return 1;
+            }
+
+            @Override
+            public <T> T readDiscoverPage(int page, StreamHandler<T> handler, T fallback) throws IOException {
+                return handler.handle(stream("{\"results\":[" + String.join(",", entries) + "]}"));
+            }
+
+            @Override
+            public <T> T readCredits(int movieId, StreamHandler<T> handler, T fallback) throws IOException {
+                enrichedIds.add(movieId);
+                return handler.handle(stream(noCredits.contains(movieId) ? "{\"crew\":[],\"cast\":[]}"
+                        : "{\"crew\":[{\"name\":\"Director " + movieId + "\",\"job\":\"Director\"}],"
+                        + "\"cast\":[{\"name\":\"Actor " + movieId + "\"}]}"));
+            }
+
+            @Override
+            public <T> T readDetails(int movieId, StreamHandler<T> handler, T fallback) {
+                return fallback;
+            }
+        };
+        try {
+            assertTrue(target.refreshMovies(new IngestionPipeline(source, 100, 1, 1, 8, EnrichmentMode.CREDITS)));
+        } catch (InterruptedException e) {
+            fail(e);
+        }
+    }
+
+    private static InputStream stream(String json) {
+        return new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8));
+    }
+
     // Helper methods for checking sort order
     private boolean isSortedByTitleAsc(List<Movie> movies) {
         for (int i = 0; i < movies.size() - 1; i++) {
@@ -1,15 +1,22 @@
 package com.moviefeaster.service;
 
+import com.moviefeaster.model.Movie;
 import org.junit.jupiter.api.Test;
 
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.HashSet;
+import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.*;
 
 /**
  * Test class for {@link MovieParser}.
- * Contains unit tests for the MovieSummary inner class.
+ * Contains unit tests for the MovieSummary inner class and the streaming readers.
  */
 class MovieParserTest {
 
@@ -55,4 +62,59 @@ class MovieParserTest {
         
         assertEquals(expected, summary.toString());
     }
+
+    @Test
+    void testReadSummariesFromDiscoverPage() throws IOException {
+        String json = "{\"page\":1,\"dates\":{\"maximum\":\"2025-01-01\"},\"results\":["
+                + "{\"id\":11,\"title\":\"First\",\"release_date\":\"2024-05-01\",\"popularity\":12.5,"
+                + "\"genre_ids\":[28,12],\"poster_path\":\"/first.jpg\",\"adult\":false,\"extra\":{\"a\":[1,2]}},"
+                + "{\"id\":22,\"title\":\"Second\",\"release_date\":\"2023-01-01\",\"genre_ids\":[]}"
+                + "],\"total_pages\":500}";
+
+        List<MovieParser.MovieSummary> summaries = MovieParser.readSummaries(stream(json));
+
+        assertEquals(2, summaries.size());
+        assertEquals(11, summaries.get(0).getMovieID());
+        assertEquals("First", summaries.get(0).getTitle());
+        assertEquals(12.5, summaries.get(0).getRating());
+        assertEquals(new HashSet<>(Arrays.asList(28, 12)), summaries.get(0).getGenreID());
+        assertEquals("/first.jpg", summaries.get(0).getPosterPath());
+        assertEquals(22, summaries.get(1).getMovieID());
+    }
+
+    @Test
+    void testReadSummariesFromBareArray() throws IOException {
+        String json = "[{\"id\":1,\"title\":\"Only\"}]";
+
+        List<MovieParser.MovieSummary> summaries = MovieParser.readSummaries(stream(json));
+
+        assertEquals(1, summaries.size());
+        assertEquals("Only", summaries.get(0).getTitle());
+    }
+
+    @Test
+    void testReadSummariesWithoutResults() throws IOException {
+        assertTrue(MovieParser.readSummaries(stream("{\"status_code\":7}")).isEmpty());
+        assertTrue(MovieParser.readSummaries(stream("{\"results\":[]}")).isEmpty());
+        assertTrue(MovieParser.readSummaries(InputStream.nullInputStream()).isEmpty());
+    }
+
+    @Test
+    void testToMovieListsPosterVariants() {
+        MovieParser.MovieSummary summary = new MovieParser.MovieSummary();
+        summary.setMovieID(1);
+        summary.setPosterPath("/poster.jpg");
+
+        Movie movie = MovieParser.toMovie(summary, MovieParser.Credits.empty());
+
+        List<String> srcset = movie.getPosterSrcset();
+        assertEquals(PosterThumbnailer.getWidths().size() + 1, srcset.size());
+        assertEquals(movie.getImgUrl() + " 500w", srcset.get(srcset.size() - 1));
+        int width = PosterThumbnailer.getWidths().get(0);
+        assertTrue(srcset.get(0).endsWith("/w" + width + "/poster.jpg " + width + "w"));
+    }
+
+    private static InputStream stream(String json) {
+        return new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8));
+    }
 }
@@ -0,0 +1,145 @@
+package com.moviefeaster.service;
+
+import okhttp3.OkHttpClient;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okio.Buffer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class for PosterCache against a local image server.
+ */
+class PosterCacheTest {
+
+    /** Local server standing in for the image server. */
+    private MockWebServer server;
+
+    /** Directory the posters are stored in. */
+    @TempDir
+    Path dir;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        server = new MockWebServer();
+        server.start();
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        server.shutdown();
+    }
+
+    /**
+     * Tests that a poster is fetched once, stored on disk and then served from the cache.
+     */
+    @Test
+    void fetchesOnceThenServesFromDisk() throws Exception {
+        server.enqueue(image(100));
+        PosterCache cache = newCache(1_000);
+
+        String etag;
+        try (PosterCache.Poster poster = cache.open("a.jpg")) {
+            assertEquals(100, poster.getSize());
+            assertEquals("image/jpeg", poster.getContentType());
+            assertTrue(poster.getEtag().matches("\"[0-9a-f]{32}\""));
+            etag = poster.getEtag();
+        }
+        try (PosterCache.Poster poster = cache.open("a.jpg")) {
+            ByteBuffer bytes = ByteBuffer.allocate(100);
+            poster.getChannel().read(bytes);
+            assertEquals(etag, poster.getEtag());
+            assertEquals(7, bytes.get(7));
+        }
+
+        assertEquals(1, server.getRequestCount());
+        assertEquals("/w500/a.jpg", server.takeRequest().getPath());
+        assertTrue(Files.isRegularFile(dir.resolve("a.jpg")));
+        assertEquals(100, cache.getTotalBytes());
+    }
+
+    /**
+     * Tests that the least recently used poster is evicted once the byte budget is exceeded.
+     */
+    @Test
+    void evictsLeastRecentlyUsed() throws Exception {
+        server.enqueue(image(100));
+        server.enqueue(image(100));
+        server.enqueue(image(100));
+        PosterCache cache = newCache(250);
+
+        cache.open("a.jpg").close();
+        cache.open("b.jpg").close();
+        cache.open("a.jpg").close();
+        cache.open("c.jpg").close();
+
+        assertEquals(2, cache.size());
+        assertEquals(200, cache.getTotalBytes());
+        assertTrue(Files.exists(dir.resolve("a.jpg")));
+        assertFalse(Files.exists(dir.resolve("b.jpg")));
+        assertTrue(Files.exists(dir.resolve("c.jpg")));
+    }
+
+    /**
+     * Tests that posters already on disk are picked up with the same ETag after a restart.
+     */
+    @Test
+    void restartKeepsCachedPosters() throws Exception {
+        server.enqueue(image(50));
+        String etag;
+        try (PosterCache.Poster poster = newCache(1_000).open("a.jpg")) {
+            etag = poster.getEtag();
+        }
+
+        PosterCache restarted = newCache(1_000);
+        try (PosterCache.Poster poster = restarted.open("a.jpg")) {
+            assertEquals(etag, poster.getEtag());
+        }
+        assertEquals(1, server.getRequestCount());
+    }
+
+    /**
+     * Tests that a poster the upstream does not have yields null and is not stored.
+     */
+    @Test
+    void missingUpstreamPosterYieldsNull() throws Exception {
+        server.enqueue(new MockResponse().setResponseCode(404));
+        PosterCache cache = newCache(1_000);
+
+        assertNull(cache.open("missing.jpg"));
+        assertEquals(0, cache.size());
+    }
+
+    /**
+     * Tests that names that could escape the cache directory are rejected without a request.
+     */
+    @Test
+    void rejectsUnsafeFileNames() {
+        PosterCache cache = newCache(1_000);
+
+        assertThrows(IllegalArgumentException.class, () -> cache.open("../secret.jpg"));
+        assertThrows(IllegalArgumentException.class, () -> cache.open("poster.txt"));
+        assertEquals(0, server.getRequestCount());
+    }
+
+    private PosterCache newCache(long maxBytes) {
+        return new PosterCache(new OkHttpClient(), server.url("/w500/").toString(), dir, maxBytes);
+    }
+
+    private static MockResponse image(int size) {
+        byte[] bytes = new byte[size];
+        for (int i = 0; i < size; i++) {
+            bytes[i] = (byte) i;
+        }
+        return new MockResponse().setBody(new Buffer().write(bytes));
+    }
+}
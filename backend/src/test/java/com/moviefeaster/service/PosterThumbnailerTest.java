@@ -0,0 +1,197 @@
+package com.moviefeaster.service;
+
+import okhttp3.OkHttpClient;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okio.Buffer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import javax.imageio.ImageIO;
+import java.awt.Color;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class for PosterThumbnailer.
+ */
+class PosterThumbnailerTest {
+
+    /** Local server standing in for the image server. */
+    private MockWebServer server;
+
+    /** Directory the posters are stored in. */
+    @TempDir
+    Path dir;
+
+    /** Pipeline under test, if created. */
+    private PosterThumbnailer thumbnailer;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        server = new MockWebServer();
+        server.start();
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        if (thumbnailer != null) {
+            thumbnailer.shutdown();
+        }
+        server.shutdown();
+    }
+
+    /**
+     * Tests that a fetched poster is scaled to every width narrower than itself, keeping its aspect ratio.
+     */
+    @Test
+    void createsVariantsForFetchedPosters() throws Exception {
+        server.enqueue(new MockResponse().setBody(new Buffer().write(jpeg(400, 600))));
+        PosterCache cache = newCache(10_000_000);
+        thumbnailer = new PosterThumbnailer(cache, List.of(100, 200, 800), 4);
+
+        cache.open("a.jpg").close();
+        thumbnailer.submit("a.jpg").get(10, TimeUnit.SECONDS);
+
+        assertTrue(cache.hasVariant("a.jpg", 100));
+        assertTrue(cache.hasVariant("a.jpg", 200));
+        assertFalse(cache.hasVariant("a.jpg", 800));
+        BufferedImage small = ImageIO.read(cache.variantPath("a.jpg", 100).toFile());
+        assertEquals(100, small.getWidth());
+        assertEquals(150, small.getHeight());
+        long variantBytes = Files.size(cache.variantPath("a.jpg", 100)) + Files.size(cache.variantPath("a.jpg", 200));
+        assertEquals(Files.size(dir.resolve("a.jpg")) + variantBytes, cache.getTotalBytes());
+    }
+
+    /**
+     * Tests that evicting a poster deletes its variants as well.
+     */
+    @Test
+    void variantsAreEvictedWithTheirPoster() throws Exception {
+        byte[] poster = jpeg(300, 450);
+        server.enqueue(new MockResponse().setBody(new Buffer().write(poster)));
+        server.enqueue(new MockResponse().setBody(new Buffer().write(new byte[poster.length * 3])));
+        PosterCache cache = newCache(poster.length * 3L + 10);
+        thumbnailer = new PosterThumbnailer(cache, List.of(100), 1);
+
+        cache.open("a.jpg").close();
+        thumbnailer.submit("a.jpg").get(10, TimeUnit.SECONDS);
+        assertTrue(Files.exists(cache.variantPath("a.jpg", 100)));
+        cache.open("b.jpg").close();
+
+        assertFalse(cache.hasVariant("a.jpg", 100));
+        assertFalse(Files.exists(cache.variantPath("a.jpg", 100)));
+        assertFalse(Files.exists(dir.resolve("a.jpg")));
+    }
+
+    /**
+     * Tests that posters cached before a restart get their variants, and the variants are indexed on the next start.
+     */
+    @Test
+    void schedulesPostersCachedBeforeStart() throws Exception {
+        Files.write(dir.resolve("old.png"), png(200, 300));
+        PosterCache cache = newCache(10_000_000);
+        thumbnailer = new PosterThumbnailer(cache, List.of(50), 2);
+
+        thumbnailer.scheduleCachedPosters();
+        thumbnailer.submit("old.png").get(10, TimeUnit.SECONDS);
+
+        assertTrue(cache.hasVariant("old.png", 50));
+        assertTrue(newCache(10_000_000).hasVariant("old.png", 50));
+        assertEquals(0, server.getRequestCount());
+    }
+
+    /**
+     * Tests that a poster no wider than a width counts as that variant, and that on the next start its
+     * width is read from the header so it is not queued again.
+     */
+    @Test
+    void narrowPosterNeedsNoWiderVariants() throws Exception {
+        Files.write(dir.resolve("small.png"), png(80, 120));
+        PosterCache cache = newCache(10_000_000);
+        thumbnailer = new PosterThumbnailer(cache, List.of(50, 80, 100), 1);
+
+        thumbnailer.submit("small.png").get(10, TimeUnit.SECONDS);
+
+        assertTrue(cache.hasVariant("small.png", 50));
+        assertFalse(cache.fitsWidth("small.png", 50));
+        assertTrue(cache.fitsWidth("small.png", 80));
+        assertTrue(cache.fitsWidth("small.png", 100));
+
+        thumbnailer.shutdown();
+        PosterCache restarted = newCache(10_000_000);
+        thumbnailer = new PosterThumbnailer(restarted, List.of(50, 80, 100), 1);
+        thumbnailer.scheduleCachedPosters();
+
+        assertTrue(restarted.fitsWidth("small.png", 100));
+        assertFalse(restarted.hasVariant("small.png", 100));
+    }
+
+    /**
+     * Tests that a poster that cannot be decoded is skipped without failing.
+     */
+    @Test
+    void skipsUndecodablePosters() throws Exception {
+        Files.writeString(dir.resolve("bad.jpg"), "not an image");
+        PosterCache cache = newCache(10_000_000);
+        thumbnailer = new PosterThumbnailer(cache, List.of(50), 1);
+
+        thumbnailer.submit("bad.jpg").get(10, TimeUnit.SECONDS);
+
+        assertFalse(cache.hasVariant("bad.jpg", 50));
+    }
+
+    /**
+     * Tests that scaling keeps the aspect ratio and colors.
+     */
+    @Test
+    void scaleKeepsAspectRatio() {
+        BufferedImage source = new BufferedImage(500, 750, BufferedImage.TYPE_INT_RGB);
+        for (int x = 0; x < 500; x++) {
+            for (int y = 0; y < 750; y++) {
+                source.setRGB(x, y, Color.RED.getRGB());
+            }
+        }
+
+        BufferedImage scaled = PosterThumbnailer.scale(source, 92, false);
+
+        assertEquals(92, scaled.getWidth());
+        assertEquals(138, scaled.getHeight());
+        assertEquals(Color.RED.getRGB(), scaled.getRGB(46, 69));
+    }
+
+    /**
+     * Tests that malformed, repeated and non-positive widths are ignored.
+     */
+    @Test
+    void parseWidthsIgnoresBadEntries() {
+        assertEquals(List.of(92, 185), PosterThumbnailer.parseWidths("185, 92,x,,-3,92"));
+    }
+
+    private PosterCache newCache(long maxBytes) {
+        return new PosterCache(new OkHttpClient(), server.url("/").toString(), dir, maxBytes);
+    }
+
+    private static byte[] jpeg(int width, int height) throws IOException {
+        return encode(new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB), "jpg");
+    }
+
+    private static byte[] png(int width, int height) throws IOException {
+        return encode(new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB), "png");
+    }
+
+    private static byte[] encode(BufferedImage image, String format) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ImageIO.write(image, format, out);
+        return out.toByteArray();
+    }
+}
@@ -0,0 +1,114 @@
+package com.moviefeaster.service;
+
+import com.moviefeaster.utils.StreamHandler;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class for RecordReplayMovieSource.
+ */
+class RecordReplayMovieSourceTest {
+
+    /**
+     * Tests that live documents are recorded once and replayed afterwards.
+     */
+    @Test
+    void recordsThenReplays(@TempDir Path dir) throws IOException {
+        StubSource live = new StubSource(Map.of(1, "{\"page\":1}"), Map.of(9, "{\"cast\":[]}"));
+        RecordReplayMovieSource source = new RecordReplayMovieSource(live, dir);
+
+        assertEquals("{\"page\":1}", source.readDiscoverPage(1, FixtureMovieSourceTest::readString, null));
+        assertEquals("{\"cast\":[]}", source.readCredits(9, FixtureMovieSourceTest::readString, null));
+        assertEquals("{\"page\":1}", source.readDiscoverPage(1, FixtureMovieSourceTest::readString, null));
+        assertEquals("{\"cast\":[]}", source.readCredits(9, FixtureMovieSourceTest::readString, null));
+
+        assertEquals(2, live.calls);
+        assertEquals("{\"page\":1}", Files.readString(dir.resolve("discover/page-1.json")));
+        assertEquals("{\"cast\":[]}", Files.readString(dir.resolve("credits/9.json")));
+    }
+
+    /**
+     * Tests that a recording can be replayed by a fixture source without the live source.
+     */
+    @Test
+    void recordingIsReplayableOffline(@TempDir Path dir) throws IOException {
+        StubSource live = new StubSource(Map.of(1, "{\"page\":1}", 2, "{\"page\":2}"), Map.of());
+        RecordReplayMovieSource source = new RecordReplayMovieSource(live, dir);
+        for (int page = 1; page <= source.discoverPageCount(); page++) {
+            source.readDiscoverPage(page, FixtureMovieSourceTest::readString, null);
+        }
+
+        FixtureMovieSource replay = new FixtureMovieSource(dir);
+
+        assertEquals(2, replay.discoverPageCount());
+        assertEquals("{\"page\":2}", replay.readDiscoverPage(2, FixtureMovieSourceTest::readString, null));
+    }
+
+    /**
+     * Tests that unavailable documents return the fallback and are not recorded.
+     */
+    @Test
+    void unavailableDocumentsAreNotRecorded(@TempDir Path dir) throws IOException {
+        StubSource live = new StubSource(Map.of(), Map.of());
+        RecordReplayMovieSource source = new RecordReplayMovieSource(live, dir);
+
+        assertEquals("fallback", source.readCredits(5, FixtureMovieSourceTest::readString, "fallback"));
+        assertEquals("fallback", source.readCredits(5, FixtureMovieSourceTest::readString, "fallback"));
+
+        assertEquals(2, live.calls);
+        assertFalse(Files.exists(dir.resolve("credits/5.json")));
+    }
+
+    /** Live source serving fixed documents and counting reads. */
+    private static final class StubSource implements MovieSource {
+
+        /** Discover documents by page. */
+        private final Map<Integer, String> pages;
+
+        /** Credits documents by movie ID. */
+        private final Map<Integer, String> credits;
+
+        /** Number of documents requested. */
+        private int calls;
+
+        StubSource(Map<Integer, String> pages, Map<Integer, String> credits) {
+            this.pages = pages;
+            this.credits = credits;
+        }
+
+        @Override
+        public int discoverPageCount() {
+            return pages.size();
+        }
+
+        @Override
+        public <T> T readDiscoverPage(int page, StreamHandler<T> handler, T fallback) throws IOException {
+            return serve(pages.get(page), handler, fallback);
+        }
+
+        @Override
+        public <T> T readCredits(int movieId, StreamHandler<T> handler, T fallback) throws IOException {
+            return serve(credits.get(movieId), handler, fallback);
+        }
+
+        @Override
+        public <T> T readDetails(int movieId, StreamHandler<T> handler, T fallback) {
+            return fallback;
+        }
+
+        private <T> T serve(String body, StreamHandler<T> handler, T fallback) throws IOException {
+            calls++;
+            return body == null ? fallback
+                    : handler.handle(new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8)));
+        }
+    }
+}
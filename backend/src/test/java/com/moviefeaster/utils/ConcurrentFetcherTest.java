@@ -0,0 +1,115 @@
+package com.moviefeaster.utils;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class for ConcurrentFetcher utility.
+ */
+class ConcurrentFetcherTest {
+
+    /**
+     * Tests that results keep the order of the inputs even when later tasks finish first.
+     */
+    @Test
+    void testResultsKeepInputOrder() {
+        List<Integer> inputs = IntStream.rangeClosed(1, 20).boxed().collect(Collectors.toList());
+
+        List<Integer> results = ConcurrentFetcher.fetchAll(inputs, i -> {
+            sleep(25 - i);
+            return i * 10;
+        }, i -> -1, 8, 5_000);
+
+        assertEquals(inputs.stream().map(i -> i * 10).collect(Collectors.toList()), results);
+    }
+
+    /**
+     * Tests that a failing task is replaced by its fallback without affecting the others.
+     */
+    @Test
+    void testFailedTaskUsesFallback() {
+        List<Integer> results = ConcurrentFetcher.fetchAll(List.of(1, 2, 3), i -> {
+            if (i == 2) {
+                throw new IllegalStateException("boom");
+            }
+            return i;
+        }, i -> -i, 2, 5_000);
+
+        assertEquals(List.of(1, -2, 3), results);
+    }
+
+    /**
+     * Tests that a task running past the timeout is replaced by its fallback.
+     */
+    @Test
+    void testSlowTaskTimesOut() {
+        List<String> results = ConcurrentFetcher.fetchAll(List.of("fast", "slow"), s -> {
+            if ("slow".equals(s)) {
+                sleep(2_000);
+            }
+            return s;
+        }, s -> "fallback", 2, 200);
+
+        assertEquals(List.of("fast", "fallback"), results);
+    }
+
+    /**
+     * Tests that no more than the requested number of tasks run at once.
+     */
+    @Test
+    void testParallelismIsBounded() {
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger peak = new AtomicInteger();
+
+        ConcurrentFetcher.fetchAll(IntStream.range(0, 30).boxed().collect(Collectors.toList()), i -> {
+            peak.accumulateAndGet(running.incrementAndGet(), Math::max);
+            sleep(10);
+            running.decrementAndGet();
+            return i;
+        }, i -> i, 4, 5_000);
+
+        assertTrue(peak.get() <= 4, "At most 4 tasks should run concurrently but saw " + peak.get());
+    }
+
+    /**
+     * Tests that tasks past their timeout keep holding their slot until they really return.
+     */
+    @Test
+    void testParallelismIsBoundedWhenTasksTimeOut() {
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger peak = new AtomicInteger();
+
+        List<Integer> results = ConcurrentFetcher.fetchAll(IntStream.range(0, 6).boxed().collect(Collectors.toList()),
+                i -> {
+                    peak.accumulateAndGet(running.incrementAndGet(), Math::max);
+                    sleep(300);
+                    running.decrementAndGet();
+                    return i;
+                }, i -> -1, 2, 20);
+
+        assertEquals(List.of(-1, -1, -1, -1, -1, -1), results);
+        assertTrue(peak.get() <= 2, "At most 2 tasks should run concurrently but saw " + peak.get());
+    }
+
+    /**
+     * Tests that an empty input produces an empty result.
+     */
+    @Test
+    void testEmptyInput() {
+        assertTrue(ConcurrentFetcher.fetchAll(List.<Integer>of(), i -> i, i -> i, 4, 1_000).isEmpty());
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(Math.max(0, millis));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,80 @@
+package com.moviefeaster.utils;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class for IntHashSet utility.
+ */
+class IntHashSetTest {
+
+    /**
+     * Tests that adding reports whether the value was new.
+     */
+    @Test
+    void testAddReportsNewValues() {
+        IntHashSet set = new IntHashSet();
+
+        assertTrue(set.add(42));
+        assertFalse(set.add(42));
+        assertTrue(set.add(-42));
+        assertTrue(set.contains(42));
+        assertFalse(set.contains(7));
+        assertEquals(2, set.size());
+    }
+
+    /**
+     * Tests that zero, which marks empty slots internally, is stored like any other value.
+     */
+    @Test
+    void testZeroIsAValue() {
+        IntHashSet set = new IntHashSet(1);
+
+        assertFalse(set.contains(0));
+        assertTrue(set.add(0));
+        assertFalse(set.add(0));
+        assertTrue(set.contains(0));
+        assertEquals(1, set.size());
+    }
+
+    /**
+     * Tests that the set grows past its initial size and agrees with a boxed set.
+     */
+    @Test
+    void testGrowsAndMatchesHashSet() {
+        IntHashSet set = new IntHashSet(2);
+        Set<Integer> expected = new HashSet<>();
+        Random random = new Random(7);
+
+        for (int i = 0; i < 10_000; i++) {
+            int value = random.nextInt(5_000) - 100;
+            assertEquals(expected.add(value), set.add(value));
+        }
+
+        assertEquals(expected.size(), set.size());
+        for (int value = -200; value < 5_100; value++) {
+            assertEquals(expected.contains(value), set.contains(value));
+        }
+    }
+
+    /**
+     * Tests that clearing empties the set.
+     */
+    @Test
+    void testClear() {
+        IntHashSet set = new IntHashSet();
+        set.add(0);
+        set.add(1);
+
+        set.clear();
+
+        assertTrue(set.isEmpty());
+        assertFalse(set.contains(0));
+        assertTrue(set.add(1));
+    }
+}
@@ -0,0 +1,87 @@
+package com.moviefeaster.utils;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class for IntIntMap utility.
+ */
+class IntIntMapTest {
+
+    /**
+     * Tests that put replaces values and reports the previous one.
+     */
+    @Test
+    void testPutReplacesValues() {
+        IntIntMap map = new IntIntMap(4, -1);
+
+        assertEquals(-1, map.put(42, 1));
+        assertEquals(1, map.put(42, 2));
+        assertEquals(2, map.get(42));
+        assertEquals(-1, map.get(7));
+        assertTrue(map.containsKey(42));
+        assertFalse(map.containsKey(7));
+        assertEquals(1, map.size());
+    }
+
+    /**
+     * Tests that putIfAbsent keeps the first value of a key.
+     */
+    @Test
+    void testPutIfAbsentKeepsFirstValue() {
+        IntIntMap map = new IntIntMap(4, -1);
+
+        assertEquals(-1, map.putIfAbsent(5, 10));
+        assertEquals(10, map.putIfAbsent(5, 20));
+        assertEquals(10, map.get(5));
+    }
+
+    /**
+     * Tests that zero, which marks empty slots, can be used as a key.
+     */
+    @Test
+    void testZeroKey() {
+        IntIntMap map = new IntIntMap(4, -1);
+
+        assertFalse(map.containsKey(0));
+        assertEquals(-1, map.get(0));
+        assertEquals(-1, map.putIfAbsent(0, 3));
+        assertEquals(3, map.putIfAbsent(0, 4));
+        assertEquals(3, map.put(0, 5));
+        assertEquals(5, map.get(0));
+        assertEquals(1, map.size());
+
+        map.clear();
+
+        assertTrue(map.isEmpty());
+        assertFalse(map.containsKey(0));
+    }
+
+    /**
+     * Tests that the map agrees with a HashMap while growing far past its initial capacity.
+     */
+    @Test
+    void testGrowsLikeHashMap() {
+        IntIntMap map = new IntIntMap(1, Integer.MIN_VALUE);
+        Map<Integer, Integer> expected = new HashMap<>();
+        Random random = new Random(7);
+
+        for (int i = 0; i < 20_000; i++) {
+            int key = random.nextInt(5_000) - 2_500;
+            int value = random.nextInt();
+            Integer previous = expected.put(key, value);
+            assertEquals(previous != null ? previous : Integer.MIN_VALUE, map.put(key, value));
+        }
+
+        assertEquals(expected.size(), map.size());
+        for (int key = -2_600; key < 2_600; key++) {
+            Integer value = expected.get(key);
+            assertEquals(value != null ? value : Integer.MIN_VALUE, map.get(key));
+        }
+    }
+}
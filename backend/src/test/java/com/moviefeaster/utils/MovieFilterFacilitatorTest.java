@@ -1,5 +1,6 @@
 package com.moviefeaster.utils;
 
+import com.moviefeaster.model.Catalog;
 import com.moviefeaster.model.Genre;
 import com.moviefeaster.model.Movie;
 import com.moviefeaster.model.MovieFilterType;
@@ -315,4 +316,65 @@ class MovieFilterFacilitatorTest {
         List<Movie> filtered = MovieFilterFacilitator.filter(movies, filters);
         assertEquals(3, filtered.size());
     }
+
+    /**
+     * Tests that filtering a catalog on its columns finds the same movies as filtering its list.
+     */
+    @Test
+    void filterCatalogMatchesListFilter() {
+        Catalog catalog = new Catalog(1, movies);
+        List<Map<MovieFilterType, Object>> cases = List.of(
+                Map.of(MovieFilterType.TITLE_KEYWORD, "in"),
+                Map.of(MovieFilterType.EXACT_TITLE, "BARBIE"),
+                Map.of(MovieFilterType.DIRECTOR, "wachowski"),
+                Map.of(MovieFilterType.ACTOR, "Go"),
+                Map.of(MovieFilterType.GENRE, "science"),
+                Map.of(MovieFilterType.YEAR, 2010),
+                Map.of(MovieFilterType.YEAR_RANGE, new int[]{2000, 2023}),
+                Map.of(MovieFilterType.MIN_RATING, 8.0, MovieFilterType.MAX_RATING, 8.7),
+                Map.of(MovieFilterType.COMMENT_KEYWORD, "PINK"),
+                Map.of(MovieFilterType.MIN_INAPP_RATING, 4.5),
+                Map.of(MovieFilterType.ANY_GENRE, List.of(Genre.ACTION, Genre.FAMILY)),
+                Map.of(MovieFilterType.ALL_GENRES, List.of(Genre.ACTION, Genre.SCIENCE_FICTION)),
+                Map.of(MovieFilterType.TITLE_KEYWORD, " "),
+                Map.of(MovieFilterType.MIN_RATING, 11.0));
+
+        for (Map<MovieFilterType, Object> filters : cases) {
+            assertEquals(MovieFilterFacilitator.filter(movies, filters),
+                    MovieFilterFacilitator.filter(catalog, filters), filters.keySet().toString());
+        }
+    }
+
+    /**
+     * Tests that filtering a catalog with several filters keeps only movies matching all of them.
+     */
+    @Test
+    void filterCatalogWithCombinedFilters() {
+        Catalog catalog = new Catalog(1, movies);
+        Map<MovieFilterType, Object> filters = new EnumMap<>(MovieFilterType.class);
+        filters.put(MovieFilterType.GENRE, "SCIENCE_FICTION");
+        filters.put(MovieFilterType.YEAR_RANGE, new int[]{2000, 2020});
+
+        List<Movie> filtered = MovieFilterFacilitator.filter(catalog, filters);
+
+        assertEquals(1, filtered.size());
+        assertEquals("Inception", filtered.get(0).getTitle());
+    }
+
+    /**
+     * Tests filtering a catalog with filters combined by OR and NOT.
+     */
+    @Test
+    void filterCatalogWithOrAndNot() {
+        Catalog catalog = new Catalog(1, movies);
+        RowFilter filter = RowFilter.and(
+                RowFilter.or(MovieFilterFacilitator.toRowFilter(MovieFilterType.YEAR, 1999),
+                        MovieFilterFacilitator.toRowFilter(MovieFilterType.GENRE, "comedy")),
+                RowFilter.not(MovieFilterFacilitator.toRowFilter(MovieFilterType.ACTOR, "keanu")));
+
+        List<Movie> filtered = MovieFilterFacilitator.filter(catalog, filter);
+
+        assertEquals(1, filtered.size());
+        assertEquals("Barbie", filtered.get(0).getTitle());
+    }
 }
@@ -731,4 +731,41 @@ class MovieFilterTest {
         result = MovieFilter.filterByExactTitle(testList, "title");
         assertEquals(0, result.size());
     }
+
+    /**
+     * Tests filtering movies having any of several genres.
+     */
+    @Test
+    void filterByAnyGenre() {
+        List<Movie> result = MovieFilter.filterByAnyGenre(testMovies, List.of(Genre.ANIMATION, Genre.THRILLER));
+        assertEquals(List.of(movie1, movie2), result);
+
+        assertTrue(MovieFilter.filterByAnyGenre(testMovies, List.of(Genre.HORROR)).isEmpty());
+        assertTrue(MovieFilter.filterByAnyGenre(testMovies, List.of()).isEmpty());
+        assertTrue(MovieFilter.filterByAnyGenre(null, List.of(Genre.ACTION)).isEmpty());
+    }
+
+    /**
+     * Tests filtering movies having every one of several genres.
+     */
+    @Test
+    void filterByAllGenres() {
+        List<Movie> result = MovieFilter.filterByAllGenres(testMovies, List.of(Genre.ACTION, Genre.COMEDY));
+        assertEquals(List.of(movie3), result);
+
+        assertEquals(List.of(movie1, movie3), MovieFilter.filterByAllGenres(testMovies, List.of(Genre.ACTION)));
+        assertTrue(MovieFilter.filterByAllGenres(testMovies, List.of(Genre.ACTION, Genre.THRILLER)).isEmpty());
+        assertTrue(MovieFilter.filterByAllGenres(testMovies, null).isEmpty());
+    }
+
+    /**
+     * Tests that the genre mask follows genres set after the movie is built.
+     */
+    @Test
+    void filterByGenreAfterSetGenres() {
+        movie2.setGenres(List.of(Genre.HORROR));
+
+        assertEquals(List.of(movie2), MovieFilter.filterByGenre(testMovies, "horror"));
+        assertEquals(List.of(movie2), MovieFilter.filterByAnyGenre(testMovies, List.of(Genre.HORROR)));
+    }
 }
@@ -0,0 +1,119 @@
+package com.moviefeaster.utils;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class for NamePool utility.
+ */
+class NamePoolTest {
+
+    /**
+     * Tests that equal names map to one instance and duplicates count as saved bytes.
+     */
+    @Test
+    void testInternReturnsOneInstancePerName() {
+        NamePool pool = new NamePool();
+        String first = new String("Keanu Reeves");
+        String second = new String("Keanu Reeves");
+
+        assertSame(first, pool.intern(first));
+        assertSame(first, pool.intern(second));
+        assertSame(first, pool.intern(first));
+
+        assertEquals(1, pool.size());
+        assertEquals(3, pool.getLookups());
+        assertEquals(NamePool.estimateBytes(second), pool.getBytesSaved());
+    }
+
+    /**
+     * Tests that null passes through without being pooled.
+     */
+    @Test
+    void testInternNull() {
+        NamePool pool = new NamePool();
+
+        assertNull(pool.intern(null));
+        assertEquals(0, pool.size());
+    }
+
+    /**
+     * Tests that pruning drops the names no longer in use and keeps the instances of the rest.
+     */
+    @Test
+    void testRetainAllDropsUnusedNames() {
+        NamePool pool = new NamePool();
+        String kept = pool.intern(new String("Keanu Reeves"));
+        pool.intern(new String("Carrie-Anne Moss"));
+
+        assertEquals(1, pool.retainAll(List.of("Keanu Reeves")));
+
+        assertEquals(1, pool.size());
+        assertSame(kept, pool.intern(new String("Keanu Reeves")));
+        String readded = new String("Carrie-Anne Moss");
+        assertSame(readded, pool.intern(readded));
+    }
+
+    /**
+     * Tests that resetting the counters keeps the pooled names.
+     */
+    @Test
+    void testResetCounters() {
+        NamePool pool = new NamePool();
+        pool.intern(new String("Keanu Reeves"));
+        pool.intern(new String("Keanu Reeves"));
+
+        pool.resetCounters();
+
+        assertEquals(0, pool.getLookups());
+        assertEquals(0, pool.getBytesSaved());
+        assertEquals(1, pool.size());
+    }
+
+    /**
+     * Tests the size estimate for Latin-1 and wider text.
+     */
+    @Test
+    void testEstimateBytes() {
+        assertEquals(24 + 32, NamePool.estimateBytes("Keanu Reeves"));
+        assertEquals(24 + 24, NamePool.estimateBytes("黒澤明"));
+    }
+
+    /**
+     * Tests that threads interning the same names concurrently all get the same instances.
+     */
+    @Test
+    void testConcurrentIntern() throws Exception {
+        NamePool pool = new NamePool();
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<List<String>>> results = new ArrayList<>();
+            for (int t = 0; t < 4; t++) {
+                results.add(executor.submit(() -> {
+                    List<String> names = new ArrayList<>();
+                    for (int i = 0; i < 1_000; i++) {
+                        names.add(pool.intern(new String("Actor " + i)));
+                    }
+                    return names;
+                }));
+            }
+            List<String> expected = results.get(0).get();
+            for (Future<List<String>> result : results) {
+                List<String> names = result.get();
+                for (int i = 0; i < names.size(); i++) {
+                    assertSame(expected.get(i), names.get(i));
+                }
+            }
+            assertEquals(1_000, pool.size());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
@@ -304,4 +304,16 @@ public class NetUtilTest {
             }
         }
     }
+
+    /**
+     * Tests that the discover page count covers the catalog size but never passes the last page TMDB serves.
+     */
+    @Test
+    public void testDiscoverPageCountIsCapped() {
+        assertEquals(0, NetUtil.discoverPageCount(0));
+        assertEquals(1, NetUtil.discoverPageCount(20));
+        assertEquals(10, NetUtil.discoverPageCount(200));
+        assertEquals(11, NetUtil.discoverPageCount(201));
+        assertEquals(NetUtil.MAX_DISCOVER_PAGES, NetUtil.discoverPageCount(1_000_000));
+    }
 }
@@ -0,0 +1,69 @@
+package com.moviefeaster.utils;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class for RateLimiter utility.
+ */
+class RateLimiterTest {
+
+    /**
+     * Tests that a full bucket hands out its burst without waiting.
+     */
+    @Test
+    void testBurstIsImmediate() throws InterruptedException {
+        RateLimiter limiter = new RateLimiter(1.0, 5);
+
+        long start = System.nanoTime();
+        for (int i = 0; i < 5; i++) {
+            limiter.acquire();
+        }
+        long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+
+        assertTrue(elapsedMillis < 500, "Burst should not wait but took " + elapsedMillis + " ms");
+    }
+
+    /**
+     * Tests that once the bucket is empty callers are paced at the configured rate.
+     */
+    @Test
+    void testRateIsEnforcedAfterBurst() throws InterruptedException {
+        RateLimiter limiter = new RateLimiter(20.0, 1);
+
+        long start = System.nanoTime();
+        for (int i = 0; i < 5; i++) {
+            limiter.acquire();
+        }
+        long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+
+        // One token is free, the remaining four arrive every 50 ms.
+        assertTrue(elapsedMillis >= 180, "Expected about 200 ms of pacing but took " + elapsedMillis + " ms");
+    }
+
+    /**
+     * Tests that a pause holds back callers even when tokens are available.
+     */
+    @Test
+    void testPauseDelaysCallers() throws InterruptedException {
+        RateLimiter limiter = new RateLimiter(100.0, 10);
+        limiter.pause(200);
+
+        long start = System.nanoTime();
+        limiter.acquire();
+        long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+
+        assertTrue(elapsedMillis >= 180, "Expected the pause to hold the caller but took " + elapsedMillis + " ms");
+    }
+
+    /**
+     * Tests that a rate that is not finite and positive is rejected.
+     */
+    @Test
+    void testInvalidRate() {
+        assertThrows(IllegalArgumentException.class, () -> new RateLimiter(0.0, 1));
+        assertThrows(IllegalArgumentException.class, () -> new RateLimiter(Double.NaN, 1));
+        assertThrows(IllegalArgumentException.class, () -> new RateLimiter(Double.POSITIVE_INFINITY, 1));
+    }
+}
@@ -0,0 +1,161 @@
+package com.moviefeaster.utils;
+
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import okhttp3.Response;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class for RetryInterceptor against a local mock server.
+ */
+class RetryInterceptorTest {
+
+    /** Local server standing in for TMDB. */
+    private MockWebServer server;
+
+    /** Client with the interceptor under test. */
+    private OkHttpClient client;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        server = new MockWebServer();
+        server.start();
+        client = new OkHttpClient.Builder()
+                .addInterceptor(new RetryInterceptor(new RateLimiter(1000.0, 100), 3, 10, 100))
+                .build();
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        server.shutdown();
+    }
+
+    /**
+     * Tests that a 429 with Retry-After is retried and the eventual success is returned.
+     */
+    @Test
+    void testRetriesTooManyRequests() throws IOException {
+        server.enqueue(new MockResponse().setResponseCode(429).setHeader("Retry-After", "0"));
+        server.enqueue(new MockResponse().setResponseCode(429));
+        server.enqueue(new MockResponse().setBody("ok"));
+
+        try (Response response = execute()) {
+            assertEquals(200, response.code());
+            assertEquals("ok", response.body().string());
+        }
+        assertEquals(3, server.getRequestCount());
+    }
+
+    /**
+     * Tests that retries stop after the configured maximum and the last response is returned.
+     */
+    @Test
+    void testGivesUpAfterMaxRetries() throws IOException {
+        for (int i = 0; i < 5; i++) {
+            server.enqueue(new MockResponse().setResponseCode(503));
+        }
+
+        try (Response response = execute()) {
+            assertEquals(503, response.code());
+        }
+        assertEquals(4, server.getRequestCount());
+    }
+
+    /**
+     * Tests that client errors other than 429 are not retried.
+     */
+    @Test
+    void testDoesNotRetryClientErrors() throws IOException {
+        server.enqueue(new MockResponse().setResponseCode(404));
+
+        try (Response response = execute()) {
+            assertEquals(404, response.code());
+        }
+        assertEquals(1, server.getRequestCount());
+    }
+
+    /**
+     * Tests that a Retry-After longer than the retry budget is not waited for.
+     */
+    @Test
+    void testStopsAtRetryBudget() throws IOException {
+        OkHttpClient budgeted = new OkHttpClient.Builder()
+                .addInterceptor(new RetryInterceptor(new RateLimiter(1000.0, 100), 3, 10, 5_000, 500))
+                .build();
+        server.enqueue(new MockResponse().setResponseCode(429).setHeader("Retry-After", "2"));
+        server.enqueue(new MockResponse().setBody("ok"));
+
+        long start = System.currentTimeMillis();
+        try (Response response = budgeted.newCall(
+                new Request.Builder().url(server.url("/movie/1/credits")).build()).execute()) {
+            assertEquals(429, response.code());
+        }
+        assertTrue(System.currentTimeMillis() - start < 1_500, "The retry should not wait past the budget");
+        assertEquals(1, server.getRequestCount());
+    }
+
+    /**
+     * Tests that a Retry-After longer than the retry budget and the maximum delay still pauses
+     * the shared limiter for its full length, so other requests hold back too.
+     */
+    @Test
+    void testLongRetryAfterPausesLimiter() throws IOException {
+        RateLimiter limiter = new RateLimiter(1000.0, 100);
+        OkHttpClient budgeted = new OkHttpClient.Builder()
+                .addInterceptor(new RetryInterceptor(limiter, 3, 10, 100, 500))
+                .build();
+        server.enqueue(new MockResponse().setResponseCode(429).setHeader("Retry-After", "30"));
+
+        try (Response response = budgeted.newCall(
+                new Request.Builder().url(server.url("/movie/1/credits")).build()).execute()) {
+            assertEquals(429, response.code());
+        }
+        assertTrue(limiter.getPausedMillis() > 25_000, "Paused only " + limiter.getPausedMillis() + " ms");
+    }
+
+    /**
+     * Tests that the last attempt's Retry-After pauses the limiter even with no retries left.
+     */
+    @Test
+    void testRetryAfterPausesLimiterWithoutRetries() throws IOException {
+        RateLimiter limiter = new RateLimiter(1000.0, 100);
+        OkHttpClient noRetries = new OkHttpClient.Builder()
+                .addInterceptor(new RetryInterceptor(limiter, 0, 10, 100))
+                .build();
+        server.enqueue(new MockResponse().setResponseCode(429).setHeader("Retry-After", "5"));
+
+        try (Response response = noRetries.newCall(
+                new Request.Builder().url(server.url("/discover/movie")).build()).execute()) {
+            assertEquals(429, response.code());
+        }
+        assertTrue(limiter.getPausedMillis() > 4_000, "Paused only " + limiter.getPausedMillis() + " ms");
+    }
+
+    /**
+     * Tests parsing Retry-After in seconds, as an HTTP date, and invalid values.
+     */
+    @Test
+    void testRetryAfterParsing() {
+        assertEquals(2000, RetryInterceptor.retryAfterMillis("2"));
+        assertEquals(-1, RetryInterceptor.retryAfterMillis(null));
+        assertEquals(-1, RetryInterceptor.retryAfterMillis("soon"));
+
+        String date = DateTimeFormatter.RFC_1123_DATE_TIME.format(ZonedDateTime.now().plusSeconds(30));
+        long millis = RetryInterceptor.retryAfterMillis(date);
+        assertTrue(millis > 25_000 && millis <= 30_000, "Unexpected delay " + millis);
+    }
+
+    private Response execute() throws IOException {
+        return client.newCall(new Request.Builder().url(server.url("/discover/movie")).build()).execute();
+    }
+}
@@ -0,0 +1,174 @@
+package com.moviefeaster.utils;
+
+import com.moviefeaster.model.ColumnarCatalog;
+import com.moviefeaster.model.Genre;
+import com.moviefeaster.model.Movie;
+import com.moviefeaster.model.MovieFilterType;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class for RowFilter.
+ */
+class RowFilterTest {
+
+    /** Test movies, one per row. */
+    private List<Movie> movies;
+
+    /** Columns of the test movies. */
+    private ColumnarCatalog columns;
+
+    /**
+     * Sets up test data before each test.
+     */
+    @BeforeEach
+    void setUp() {
+        movies = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            Movie movie = new Movie.Builder()
+                    .movieId(100 + i)
+                    .title(i % 2 == 0 ? "Even " + i : "Odd " + i)
+                    .directors(List.of(i < 5 ? "Agnès Varda" : "Jacques Demy"))
+                    .castings(List.of("Cast " + i))
+                    .year(1990 + i)
+                    .rating(i)
+                    .genres(i % 3 == 0 ? List.of(Genre.DRAMA) : List.of(Genre.COMEDY, Genre.MUSIC))
+                    .build();
+            if (i == 4) {
+                movie.addComment("Lovely");
+                movie.addInAppRating(5.0);
+            }
+            movies.add(movie);
+        }
+        columns = new ColumnarCatalog(movies);
+    }
+
+    /**
+     * Tests that AND, OR and NOT combine the rows of their filters.
+     */
+    @Test
+    void combinesFilters() {
+        RowFilter even = RowFilter.indexed((c, rows) -> c.titleContains("even", rows),
+                c -> c.estimateTitleContains("even"));
+        RowFilter recent = RowFilter.scan((c, rows) -> c.yearBetween(1995, 2000, rows));
+
+        assertEquals(rows(6, 8), RowFilter.and(even, recent).evaluate(columns));
+        assertEquals(rows(0, 2, 4, 5, 6, 7, 8, 9), RowFilter.or(even, recent).evaluate(columns));
+        assertEquals(rows(1, 3), RowFilter.and(RowFilter.not(even), RowFilter.not(recent)).evaluate(columns));
+        assertEquals(rows(0, 1, 2, 3, 4, 5, 6, 7, 8, 9), RowFilter.and().evaluate(columns));
+        assertTrue(RowFilter.or().evaluate(columns).isEmpty());
+        assertTrue(RowFilter.not(RowFilter.all()).evaluate(columns).isEmpty());
+    }
+
+    /**
+     * Tests that an AND answers its indexed filters first, so a scan only tests their survivors.
+     */
+    @Test
+    void andScansOnlySurvivorsOfIndexedFilters() {
+        List<Integer> scanned = new ArrayList<>();
+        RowFilter counting = RowFilter.scan((c, rows) -> {
+            scanned.add(rows.cardinality());
+            return c.ratingBetween(0, 10, rows);
+        });
+        RowFilter selective = RowFilter.indexed((c, rows) -> c.castContains("cast 7"),
+                c -> c.estimateCastContains("cast 7"));
+
+        BitSet result = RowFilter.and(counting, selective).evaluate(columns);
+
+        assertEquals(rows(7), result);
+        assertEquals(List.of(1), scanned);
+    }
+
+    /**
+     * Tests that an AND answers its indexed filters fewest estimated rows first, so the broad
+     * one only sees the rows the narrow one let through.
+     */
+    @Test
+    void andOrdersIndexedFiltersByEstimate() {
+        List<String> order = new ArrayList<>();
+        List<Integer> seen = new ArrayList<>();
+        RowFilter broad = RowFilter.indexed((c, rows) -> {
+            order.add("broad");
+            seen.add(rows.cardinality());
+            return c.titleContains("e", rows);
+        }, c -> c.estimateTitleContains("e"));
+        RowFilter narrow = RowFilter.indexed((c, rows) -> {
+            order.add("narrow");
+            return c.directorContains("jacques");
+        }, c -> c.estimateDirectorContains("jacques"));
+
+        assertEquals(rows(6, 8), RowFilter.and(broad, narrow).evaluate(columns));
+        assertEquals(List.of("narrow", "broad"), order);
+        assertEquals(List.of(5), seen);
+    }
+
+    /**
+     * Tests that a title keyword shorter than a trigram only tests the candidate rows.
+     */
+    @Test
+    void shortTitleKeywordStaysWithinCandidates() {
+        assertEquals(rows(2, 4), columns.titleContains("e", rows(1, 2, 4)));
+        assertEquals(10, columns.estimateTitleContains("e"));
+        assertEquals(5, columns.estimateTitleContains("even"));
+        assertEquals(0, columns.estimateTitleContains("xyz"));
+    }
+
+    /**
+     * Tests that an AND stops once no rows are left.
+     */
+    @Test
+    void andStopsWhenEmpty() {
+        List<Integer> scanned = new ArrayList<>();
+        RowFilter counting = RowFilter.scan((c, rows) -> {
+            scanned.add(rows.cardinality());
+            return rows;
+        });
+
+        assertTrue(RowFilter.and(RowFilter.none(), counting).evaluate(columns).isEmpty());
+        assertTrue(scanned.isEmpty());
+    }
+
+    /**
+     * Tests that each filter type selects the same movies as its MovieFilter method.
+     */
+    @Test
+    void filterTypesMatchMovieFilter() {
+        assertFilter(MovieFilter.filterByTitle(movies, "ODD"), MovieFilterType.TITLE_KEYWORD, "ODD");
+        assertFilter(MovieFilter.filterByExactTitle(movies, "even 2"), MovieFilterType.EXACT_TITLE, "even 2");
+        assertFilter(MovieFilter.filterByDirector(movies, "AGNÈS"), MovieFilterType.DIRECTOR, "AGNÈS");
+        assertFilter(MovieFilter.filterByActor(movies, "st 3"), MovieFilterType.ACTOR, "st 3");
+        assertFilter(MovieFilter.filterByGenre(movies, "mus"), MovieFilterType.GENRE, "mus");
+        assertFilter(MovieFilter.filterByYear(movies, 1993), MovieFilterType.YEAR, 1993);
+        assertFilter(MovieFilter.filterByYearRange(movies, 1992, 1994), MovieFilterType.YEAR_RANGE,
+                new int[]{1992, 1994});
+        assertFilter(MovieFilter.filterByMinRating(movies, 7.0), MovieFilterType.MIN_RATING, 7.0);
+        assertFilter(MovieFilter.filterByMaxRating(movies, 2.0), MovieFilterType.MAX_RATING, 2.0);
+        assertFilter(MovieFilter.filterByCommentKeyword(movies, "LOVE"), MovieFilterType.COMMENT_KEYWORD, "LOVE");
+        assertFilter(MovieFilter.filterByMinInAppRating(movies, 1.0), MovieFilterType.MIN_INAPP_RATING, 1.0);
+        assertFilter(MovieFilter.filterByAnyGenre(movies, List.of(Genre.DRAMA)), MovieFilterType.ANY_GENRE,
+                List.of(Genre.DRAMA));
+        assertFilter(MovieFilter.filterByAllGenres(movies, List.of(Genre.COMEDY, Genre.MUSIC)),
+                MovieFilterType.ALL_GENRES, List.of(Genre.COMEDY, Genre.MUSIC));
+        assertFilter(MovieFilter.filterByTitle(movies, " "), MovieFilterType.TITLE_KEYWORD, " ");
+        assertFilter(MovieFilter.filterByMinRating(movies, -1.0), MovieFilterType.MIN_RATING, -1.0);
+    }
+
+    private void assertFilter(final List<Movie> expected, final MovieFilterType type, final Object value) {
+        RowFilter filter = MovieFilterFacilitator.toRowFilter(type, value);
+        assertEquals(expected, columns.toMovies(filter.evaluate(columns)), type.toString());
+    }
+
+    private static BitSet rows(final int... rows) {
+        BitSet result = new BitSet();
+        for (int row : rows) {
+            result.set(row);
+        }
+        return result;
+    }
+}
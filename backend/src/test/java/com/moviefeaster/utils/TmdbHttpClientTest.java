@@ -0,0 +1,173 @@
+package com.moviefeaster.utils;
+
+import okhttp3.Cache;
+import okhttp3.OkHttpClient;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class for TmdbHttpClient against a local mock server.
+ */
+class TmdbHttpClientTest {
+
+    /** Local server standing in for TMDB. */
+    private MockWebServer server;
+
+    /** Client under test. */
+    private TmdbHttpClient client;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        server = new MockWebServer();
+        server.start();
+        client = new TmdbHttpClient(TmdbHttpClient.newHttpClient(null), "test-token");
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        server.shutdown();
+    }
+
+    /**
+     * Tests that a successful body is handed to the handler and the request is authenticated.
+     */
+    @Test
+    void testGetReadsSuccessfulBody() throws Exception {
+        server.enqueue(new MockResponse().setBody("{\"id\":1}"));
+
+        String body = client.get(server.url("/movie/1/credits").toString(), TmdbHttpClientTest::readString, "none");
+
+        assertEquals("{\"id\":1}", body);
+        RecordedRequest request = server.takeRequest();
+        assertEquals("Bearer test-token", request.getHeader("Authorization"));
+        assertEquals("application/json", request.getHeader("accept"));
+    }
+
+    /**
+     * Tests that a non-successful status returns the fallback without calling the handler.
+     */
+    @Test
+    void testGetReturnsFallbackOnHttpError() throws IOException {
+        server.enqueue(new MockResponse().setResponseCode(404).setBody("missing"));
+
+        String body = client.get(server.url("/movie/1/credits").toString(), in -> {
+            fail("Handler should not run for an error response");
+            return null;
+        }, "fallback");
+
+        assertEquals("fallback", body);
+    }
+
+    /**
+     * Tests that responses are released so sequential requests reuse one pooled connection.
+     */
+    @Test
+    void testResponsesAreReleasedAndConnectionReused() throws Exception {
+        for (int i = 0; i < 3; i++) {
+            server.enqueue(new MockResponse().setBody("body" + i));
+        }
+
+        for (int i = 0; i < 3; i++) {
+            // Handler deliberately reads nothing; the client must still release the response.
+            client.get(server.url("/page/" + i).toString(), in -> "ignored", null);
+        }
+
+        assertEquals(0, server.takeRequest().getSequenceNumber());
+        assertEquals(1, server.takeRequest().getSequenceNumber());
+        assertEquals(2, server.takeRequest().getSequenceNumber());
+        assertEquals(1, client.getClient().connectionPool().connectionCount());
+    }
+
+    /**
+     * Tests that the shared client applies the configured timeouts and protocols.
+     */
+    @Test
+    void testSharedClientConfiguration() {
+        OkHttpClient shared = TmdbHttpClient.shared().getClient();
+
+        assertSame(shared, TmdbHttpClient.shared().getClient());
+        assertTrue(shared.connectTimeoutMillis() > 0);
+        assertTrue(shared.readTimeoutMillis() > 0);
+        assertTrue(shared.callTimeoutMillis() > 0);
+        assertTrue(shared.protocols().contains(okhttp3.Protocol.HTTP_2));
+    }
+
+    /**
+     * Tests that a stale cached response is revalidated with its ETag and served from disk on 304.
+     */
+    @Test
+    void testCacheRevalidatesWithEtag(@TempDir File cacheDir) throws Exception {
+        Cache cache = new Cache(cacheDir, 1024 * 1024);
+        TmdbHttpClient cachingClient = new TmdbHttpClient(TmdbHttpClient.newHttpClient(cache), "test-token");
+        server.enqueue(new MockResponse().setBody("{\"page\":1}")
+                .setHeader("ETag", "\"v1\"")
+                .setHeader("Cache-Control", "max-age=0"));
+        server.enqueue(new MockResponse().setResponseCode(304));
+
+        String url = server.url("/discover/movie?page=1").toString();
+        String first = cachingClient.get(url, TmdbHttpClientTest::readString, null);
+        String second = cachingClient.get(url, TmdbHttpClientTest::readString, null);
+
+        assertEquals(first, second);
+        assertNull(server.takeRequest().getHeader("If-None-Match"));
+        assertEquals("\"v1\"", server.takeRequest().getHeader("If-None-Match"));
+        assertEquals(1, cache.hitCount());
+    }
+
+    /**
+     * Tests that credits get the TTL override and are served from disk without a network request.
+     */
+    @Test
+    void testCreditsServedFromCacheWithinTtl(@TempDir File cacheDir) throws Exception {
+        Cache cache = new Cache(cacheDir, 1024 * 1024);
+        TmdbHttpClient cachingClient = new TmdbHttpClient(TmdbHttpClient.newHttpClient(cache), "test-token");
+        server.enqueue(new MockResponse().setBody("{\"cast\":[]}").setHeader("Cache-Control", "max-age=0"));
+
+        String url = server.url("/movie/42/credits").toString();
+        String first = cachingClient.get(url, TmdbHttpClientTest::readString, null);
+        String second = cachingClient.get(url, TmdbHttpClientTest::readString, null);
+
+        assertEquals("{\"cast\":[]}", first);
+        assertEquals(first, second);
+        assertEquals(1, server.getRequestCount());
+        assertEquals(1, cache.networkCount());
+    }
+
+    /**
+     * Tests that the cache survives a restart: a new client on the same directory reuses stored entries.
+     */
+    @Test
+    void testCachePersistsAcrossClients(@TempDir File cacheDir) throws Exception {
+        server.enqueue(new MockResponse().setBody("{\"crew\":[]}"));
+        String url = server.url("/movie/7/credits").toString();
+
+        Cache firstCache = new Cache(cacheDir, 1024 * 1024);
+        new TmdbHttpClient(TmdbHttpClient.newHttpClient(firstCache), "t")
+                .get(url, TmdbHttpClientTest::readString, null);
+        firstCache.close();
+
+        Cache secondCache = new Cache(cacheDir, 1024 * 1024);
+        String body = new TmdbHttpClient(TmdbHttpClient.newHttpClient(secondCache), "t")
+                .get(url, TmdbHttpClientTest::readString, null);
+
+        assertEquals("{\"crew\":[]}", body);
+        assertEquals(1, server.getRequestCount());
+        secondCache.close();
+    }
+
+    private static String readString(InputStream in) throws IOException {
+        return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+    }
+}